@@ -22,7 +22,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -35,6 +35,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.github.jvalkeal.secpat.pat.authorization.PatAuthorization;
 import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationRepository;
@@ -46,6 +47,8 @@ import com.github.jvalkeal.secpat.pat.keygen.UUIDPatService;
 @Profile("postgres")
 public class ApiServerPatController {
 
+	private static final int PAGE_SIZE = 50;
+
 	private final PatAuthorizationRepository authorizationService;
 	private final PatService patService = new UUIDPatService();
 
@@ -54,9 +57,9 @@ public class ApiServerPatController {
 	}
 
 	@GetMapping
-	public String listPatsGet(Model model, @AuthenticationPrincipal DefaultOidcUser user) {
-		List<ExistingToken> userTokens = getUserTokens(user.getName());
-		Tokens tokens = new Tokens(userTokens, null, null);
+	public String listPatsGet(Model model, @AuthenticationPrincipal DefaultOidcUser user,
+			@RequestParam(required = false) String after) {
+		Tokens tokens = getUserTokens(user.getName(), after, null, null);
 		model.addAttribute("tokens", tokens);
 		return "list-pats";
 	}
@@ -70,21 +73,29 @@ public class ApiServerPatController {
 		return instant;
 	}
 
-	private List<ExistingToken> getUserTokens(String principal) {
-		return authorizationService.findByPrincipal(principal).stream()
+	private Tokens getUserTokens(String principal, String after, GeneratedToken generated, String error) {
+		PatAuthorization afterAuthorization = after != null ? authorizationService.findById(after) : null;
+		if (afterAuthorization != null && !principal.equals(afterAuthorization.getPrincipal())) {
+			afterAuthorization = null;
+		}
+		// one extra to know if there is a next page
+		List<PatAuthorization> page = authorizationService.findByPrincipal(principal, afterAuthorization,
+				PAGE_SIZE + 1);
+		String next = page.size() > PAGE_SIZE ? page.get(PAGE_SIZE - 1).getId() : null;
+		List<ExistingToken> userTokens = page.stream()
+			.limit(PAGE_SIZE)
+			.filter(pa -> generated == null || !generated.id().equals(pa.getId()))
 			.map(pa -> {
 				return new ExistingToken(pa.getId(), pa.getName(), pa.getDescription(), nullIfPast(pa.getExpiresAt()));
 			})
-			.collect(Collectors.toList());
+			.toList();
+		return new Tokens(userTokens, generated, error, next);
 	}
 
-	private boolean hasDuplicateName(String name, List<ExistingToken> userTokens) {
-		for (ExistingToken existingToken : userTokens) {
-			if (ObjectUtils.nullSafeEquals(name, existingToken.name())) {
-				return true;
-			}
+	private boolean hasDuplicateName(String principal, String name) {
+		try (Stream<PatAuthorization> authorizations = authorizationService.streamByPrincipal(principal)) {
+			return authorizations.anyMatch(pa -> ObjectUtils.nullSafeEquals(name, pa.getName()));
 		}
-		return false;
 	}
 
 	@PostMapping
@@ -92,11 +103,10 @@ public class ApiServerPatController {
 		String error = null;
 		GeneratedToken generated = null;
 		if (item.getName() != null) {
-			List<ExistingToken> userTokens = getUserTokens(user.getName());
 			if (!StringUtils.hasText(item.getName())) {
 				error = "Name must be given.";
 			}
-			else if (hasDuplicateName(item.getName(), userTokens)) {
+			else if (hasDuplicateName(user.getName(), item.getName())) {
 				error = String.format("Name '%s' is already taken.", item.getName());
 			}
 			else {
@@ -125,14 +135,13 @@ public class ApiServerPatController {
 					.build();
 				authorizationService.save(patAuthorization);
 			}
-			Tokens tokens = new Tokens(userTokens, generated, error);
+			Tokens tokens = getUserTokens(user.getName(), null, generated, error);
 			model.addAttribute("tokens", tokens);
 		}
 		else if (item.getId() != null) {
 			PatAuthorization byId = authorizationService.findById(item.getId());
 			authorizationService.remove(byId);
-			List<ExistingToken> userTokens = getUserTokens(user.getName());
-			Tokens tokens = new Tokens(userTokens, null, error);
+			Tokens tokens = getUserTokens(user.getName(), null, null, error);
 			model.addAttribute("tokens", tokens);
 		}
 		return "list-pats";
@@ -143,7 +152,7 @@ public class ApiServerPatController {
 		return "generate-pat";
 	}
 
-	public record Tokens(List<ExistingToken> tokens, GeneratedToken generated, String error) {
+	public record Tokens(List<ExistingToken> tokens, GeneratedToken generated, String error, String next) {
 	};
 
 	public record GeneratedToken(String id, String name, String description, Instant expiresAt, String content){};
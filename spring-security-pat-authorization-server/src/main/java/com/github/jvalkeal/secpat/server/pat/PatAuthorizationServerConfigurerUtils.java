@@ -33,6 +33,7 @@ import com.github.jvalkeal.secpat.pat.authorization.InMemoryPatAuthorizationRepo
 import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationRepository;
 import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationService;
 import com.github.jvalkeal.secpat.pat.authorization.RepositoryPatAuthorizationService;
+import com.github.jvalkeal.secpat.pat.keygen.PatMatcher;
 
 final class PatAuthorizationServerConfigurerUtils {
 
@@ -108,6 +109,17 @@ final class PatAuthorizationServerConfigurerUtils {
 		return authorizationService;
 	}
 
+	static PatMatcher getPatMatcher(HttpSecurity httpSecurity) {
+		PatMatcher patMatcher = httpSecurity.getSharedObject(PatMatcher.class);
+		if (patMatcher == null) {
+			patMatcher = getOptionalBean(httpSecurity, PatMatcher.class);
+			if (patMatcher != null) {
+				httpSecurity.setSharedObject(PatMatcher.class, patMatcher);
+			}
+		}
+		return patMatcher;
+	}
+
 	static <T> T getOptionalBean(HttpSecurity httpSecurity, Class<T> type) {
 		Map<String, T> beansMap = BeanFactoryUtils
 			.beansOfTypeIncludingAncestors(httpSecurity.getSharedObject(ApplicationContext.class), type);
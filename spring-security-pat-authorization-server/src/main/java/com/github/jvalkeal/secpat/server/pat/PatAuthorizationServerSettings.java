@@ -43,6 +43,16 @@ public final class PatAuthorizationServerSettings extends AbstractSettings {
 		return getSetting(PatConfigurationSettingNames.PatAuthorizationServer.TOKEN_INTROSPECTION_ENDPOINT);
 	}
 
+	/**
+	 * Returns the Pat Token Batch Introspection endpoint. The default is
+	 * {@code /pat/introspect/batch}.
+	 *
+	 * @return the Token Batch Introspection endpoint
+	 */
+	public String getTokenBatchIntrospectionEndpoint() {
+		return getSetting(PatConfigurationSettingNames.PatAuthorizationServer.TOKEN_BATCH_INTROSPECTION_ENDPOINT);
+	}
+
 	/**
 	 * Constructs a new {@link Builder} with the default settings.
 	 *
@@ -50,7 +60,8 @@ public final class PatAuthorizationServerSettings extends AbstractSettings {
 	 */
 	public static Builder builder() {
 		return new Builder()
-			.tokenIntrospectionEndpoint("/pat/introspect");
+			.tokenIntrospectionEndpoint("/pat/introspect")
+			.tokenBatchIntrospectionEndpoint("/pat/introspect/batch");
 	}
 
 	/**
@@ -83,6 +94,17 @@ public final class PatAuthorizationServerSettings extends AbstractSettings {
 					tokenIntrospectionEndpoint);
 		}
 
+		/**
+		 * Sets the Pat Token Batch Introspection endpoint.
+		 *
+		 * @param tokenBatchIntrospectionEndpoint the Token Batch Introspection endpoint
+		 * @return the {@link Builder} for further configuration
+		 */
+		public Builder tokenBatchIntrospectionEndpoint(String tokenBatchIntrospectionEndpoint) {
+			return setting(PatConfigurationSettingNames.PatAuthorizationServer.TOKEN_BATCH_INTROSPECTION_ENDPOINT,
+					tokenBatchIntrospectionEndpoint);
+		}
+
 		/**
 		 * Builds the {@link PatAuthorizationServerSettings}.
 		 *
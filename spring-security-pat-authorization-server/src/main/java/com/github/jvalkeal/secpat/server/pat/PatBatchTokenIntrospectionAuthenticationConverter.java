@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.server.pat;
+
+import java.util.List;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.AuthenticationConverter;
+import org.springframework.util.Assert;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+
+import com.github.jvalkeal.secpat.pat.PatAuthenticationException;
+import com.github.jvalkeal.secpat.pat.PatError;
+import com.github.jvalkeal.secpat.pat.PatErrorCodes;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Attempts to extract a Batch Introspection Request having one or more
+ * {@code token} parameters from {@link HttpServletRequest} and then converts it
+ * to an {@link PatBatchTokenIntrospectionAuthenticationToken} used for
+ * authenticating the request.
+ *
+ * @see AuthenticationConverter
+ * @see PatBatchTokenIntrospectionAuthenticationToken
+ * @see PatBatchTokenIntrospectionEndpointFilter
+ */
+public final class PatBatchTokenIntrospectionAuthenticationConverter implements AuthenticationConverter {
+
+	private int maxTokens = 100;
+
+	@Override
+	public Authentication convert(HttpServletRequest request) {
+		Authentication clientPrincipal = SecurityContextHolder.getContext().getAuthentication();
+		MultiValueMap<String, String> parameters = PatEndpointUtils.getFormParameters(request);
+
+		// token (REQUIRED, one or more)
+		List<String> tokens = parameters.get(PatParameterNames.TOKEN);
+		if (tokens == null || tokens.isEmpty() || tokens.size() > this.maxTokens
+				|| !tokens.stream().allMatch(StringUtils::hasText)) {
+			throwError(PatErrorCodes.INVALID_REQUEST, PatParameterNames.TOKEN);
+		}
+
+		return new PatBatchTokenIntrospectionAuthenticationToken(tokens, clientPrincipal);
+	}
+
+	/**
+	 * Sets a maximum number of tokens accepted in one request. Defaults to
+	 * {@code 100}.
+	 * @param maxTokens the maximum number of tokens
+	 */
+	public void setMaxTokens(int maxTokens) {
+		Assert.isTrue(maxTokens > 0, "maxTokens must be positive");
+		this.maxTokens = maxTokens;
+	}
+
+	private static void throwError(String errorCode, String parameterName) {
+		PatError error = new PatError(errorCode, "Pat Batch Introspection Parameter: " + parameterName);
+		throw new PatAuthenticationException(error);
+	}
+
+}
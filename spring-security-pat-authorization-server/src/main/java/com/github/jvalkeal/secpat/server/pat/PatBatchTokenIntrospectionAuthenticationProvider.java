@@ -0,0 +1,118 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.server.pat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.server.authorization.authentication.OAuth2ClientAuthenticationToken;
+import org.springframework.util.Assert;
+
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorization;
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationService;
+import com.github.jvalkeal.secpat.pat.authorization.PatUsageTracker;
+import com.github.jvalkeal.secpat.pat.keygen.PatMatcher;
+
+/**
+ * An {@link AuthenticationProvider} implementation for PAT Token Batch
+ * Introspection. All tokens are acquired with one call to
+ * {@link PatAuthorizationService#acquireAll(java.util.Collection)}.
+ */
+public final class PatBatchTokenIntrospectionAuthenticationProvider implements AuthenticationProvider {
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final PatAuthorizationService authorizationService;
+
+	private PatMatcher patMatcher;
+
+	private PatUsageTracker usageTracker;
+
+	/**
+	 * Constructs an {@code PatBatchTokenIntrospectionAuthenticationProvider} using
+	 * the provided parameters.
+	 * @param authorizationService the authorization service
+	 */
+	public PatBatchTokenIntrospectionAuthenticationProvider(PatAuthorizationService authorizationService) {
+		Assert.notNull(authorizationService, "authorizationService cannot be null");
+		this.authorizationService = authorizationService;
+	}
+
+	/**
+	 * Sets a {@link PatMatcher} used to leave out tokens which cannot be valid from
+	 * a call to acquire authorizations. Those are answered as inactive.
+	 * @param patMatcher the pat matcher
+	 */
+	public void setPatMatcher(PatMatcher patMatcher) {
+		this.patMatcher = patMatcher;
+	}
+
+	/**
+	 * Sets a {@link PatUsageTracker} recording usage of tokens answered as active.
+	 * @param usageTracker the usage tracker
+	 */
+	public void setUsageTracker(PatUsageTracker usageTracker) {
+		this.usageTracker = usageTracker;
+	}
+
+	@Override
+	public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+		PatBatchTokenIntrospectionAuthenticationToken batchIntrospectionAuthentication = (PatBatchTokenIntrospectionAuthenticationToken) authentication;
+		OAuth2ClientAuthenticationToken clientPrincipal = PatTokenIntrospectionAuthenticationProvider
+			.getAuthenticatedClientElseThrowInvalidClient(batchIntrospectionAuthentication);
+		List<String> tokens = batchIntrospectionAuthentication.getTokens();
+		Set<String> candidates = new LinkedHashSet<>(tokens);
+		if (this.patMatcher != null) {
+			candidates.removeIf((token) -> !this.patMatcher.matches(token));
+		}
+		Map<String, PatAuthorization> authorizations = candidates.isEmpty() ? Map.of()
+				: this.authorizationService.acquireAll(candidates);
+
+		if (this.logger.isTraceEnabled()) {
+			this.logger.trace("Retrieved " + authorizations.size() + " authorizations for " + tokens.size() + " tokens");
+		}
+
+		List<PatTokenIntrospection> tokenClaims = new ArrayList<>(tokens.size());
+		for (String token : tokens) {
+			PatAuthorization authorization = authorizations.get(token);
+			if (authorization != null && PatTokenIntrospectionAuthenticationProvider.validate(authorization)) {
+				tokenClaims.add(PatTokenIntrospectionAuthenticationProvider.tokenClaims(authorization));
+				if (this.usageTracker != null) {
+					this.usageTracker.record(authorization);
+				}
+			}
+			else {
+				tokenClaims.add(PatTokenIntrospection.builder().build());
+			}
+		}
+		return new PatBatchTokenIntrospectionAuthenticationToken(tokens, clientPrincipal, tokenClaims);
+	}
+
+	@Override
+	public boolean supports(Class<?> authentication) {
+		return PatBatchTokenIntrospectionAuthenticationToken.class.isAssignableFrom(authentication);
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.server.pat;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link Authentication} implementation used for Pat Batch Introspection.
+ *
+ * @see AbstractAuthenticationToken
+ * @see PatTokenIntrospection
+ * @see PatBatchTokenIntrospectionAuthenticationProvider
+ */
+public class PatBatchTokenIntrospectionAuthenticationToken extends AbstractAuthenticationToken {
+
+	private final List<String> tokens;
+
+	private final Authentication clientPrincipal;
+
+	private final List<PatTokenIntrospection> tokenClaims;
+
+	/**
+	 * Constructs an {@code PatBatchTokenIntrospectionAuthenticationToken} using the
+	 * provided parameters.
+	 * @param tokens the tokens
+	 * @param clientPrincipal the authenticated client principal
+	 */
+	public PatBatchTokenIntrospectionAuthenticationToken(List<String> tokens, Authentication clientPrincipal) {
+		super(Collections.emptyList());
+		Assert.notEmpty(tokens, "tokens cannot be empty");
+		Assert.notNull(clientPrincipal, "clientPrincipal cannot be null");
+		this.tokens = List.copyOf(tokens);
+		this.clientPrincipal = clientPrincipal;
+		this.tokenClaims = Collections.emptyList();
+	}
+
+	/**
+	 * Constructs an {@code PatBatchTokenIntrospectionAuthenticationToken} using the
+	 * provided parameters.
+	 * @param tokens the tokens
+	 * @param clientPrincipal the authenticated client principal
+	 * @param tokenClaims the token claims in same order as tokens
+	 */
+	public PatBatchTokenIntrospectionAuthenticationToken(List<String> tokens, Authentication clientPrincipal,
+			List<PatTokenIntrospection> tokenClaims) {
+		super(Collections.emptyList());
+		Assert.notEmpty(tokens, "tokens cannot be empty");
+		Assert.notNull(clientPrincipal, "clientPrincipal cannot be null");
+		Assert.notNull(tokenClaims, "tokenClaims cannot be null");
+		Assert.isTrue(tokens.size() == tokenClaims.size(), "tokenClaims must match tokens");
+		this.tokens = List.copyOf(tokens);
+		this.clientPrincipal = clientPrincipal;
+		this.tokenClaims = List.copyOf(tokenClaims);
+		// Indicates that the request was authenticated, even though tokens might not
+		// be active
+		setAuthenticated(true);
+	}
+
+	@Override
+	public Object getPrincipal() {
+		return this.clientPrincipal;
+	}
+
+	@Override
+	public Object getCredentials() {
+		return "";
+	}
+
+	/**
+	 * Returns the tokens.
+	 * @return the tokens
+	 */
+	public List<String> getTokens() {
+		return this.tokens;
+	}
+
+	/**
+	 * Returns the token claims in same order as tokens.
+	 * @return the token claims
+	 */
+	public List<PatTokenIntrospection> getTokenClaims() {
+		return this.tokenClaims;
+	}
+
+}
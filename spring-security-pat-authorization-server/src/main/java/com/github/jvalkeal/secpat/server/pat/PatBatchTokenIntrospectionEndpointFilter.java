@@ -0,0 +1,175 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.server.pat;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.log.LogMessage;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.AuthenticationConverter;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.Assert;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.jvalkeal.secpat.pat.PatAuthenticationException;
+
+/**
+ * A {@code Filter} for the PAT Token Batch Introspection endpoint. Response is a
+ * {@code JSON} array having one introspection response per requested token in a
+ * request order.
+ *
+ * @author Janne Valkealahti
+ */
+public final class PatBatchTokenIntrospectionEndpointFilter extends OncePerRequestFilter {
+
+	/**
+	 * The default endpoint {@code URI} for token batch introspection requests.
+	 */
+	private static final String DEFAULT_TOKEN_BATCH_INTROSPECTION_ENDPOINT_URI = "/pat/introspect/batch";
+
+	private static final ParameterizedTypeReference<List<Map<String, Object>>> STRING_OBJECT_MAP_LIST = new ParameterizedTypeReference<>() {
+	};
+
+	private final AuthenticationManager authenticationManager;
+
+	private final RequestMatcher tokenBatchIntrospectionEndpointMatcher;
+
+	private AuthenticationConverter authenticationConverter;
+
+	private final GenericHttpMessageConverter<Object> jsonMessageConverter = HttpMessageConverters
+		.getJsonMessageConverter();
+
+	private final Converter<PatTokenIntrospection, Map<String, Object>> tokenIntrospectionParametersConverter = new PatTokenIntrospectionHttpMessageConverter.PatTokenIntrospectionMapConverter();
+
+	private AuthenticationSuccessHandler authenticationSuccessHandler = this::sendIntrospectionResponse;
+
+	private AuthenticationFailureHandler authenticationFailureHandler = new PatErrorAuthenticationFailureHandler();
+
+	/**
+	 * Constructs an {@code PatBatchTokenIntrospectionEndpointFilter} using the
+	 * provided parameters.
+	 * @param authenticationManager the authentication manager
+	 */
+	public PatBatchTokenIntrospectionEndpointFilter(AuthenticationManager authenticationManager) {
+		this(authenticationManager, DEFAULT_TOKEN_BATCH_INTROSPECTION_ENDPOINT_URI);
+	}
+
+	/**
+	 * Constructs an {@code PatBatchTokenIntrospectionEndpointFilter} using the
+	 * provided parameters.
+	 * @param authenticationManager the authentication manager
+	 * @param tokenBatchIntrospectionEndpointUri the endpoint {@code URI} for token
+	 * batch introspection requests
+	 */
+	public PatBatchTokenIntrospectionEndpointFilter(AuthenticationManager authenticationManager,
+			String tokenBatchIntrospectionEndpointUri) {
+		Assert.notNull(authenticationManager, "authenticationManager cannot be null");
+		Assert.hasText(tokenBatchIntrospectionEndpointUri, "tokenBatchIntrospectionEndpointUri cannot be empty");
+		this.authenticationManager = authenticationManager;
+		this.tokenBatchIntrospectionEndpointMatcher = PathPatternRequestMatcher.withDefaults()
+			.matcher(HttpMethod.POST, tokenBatchIntrospectionEndpointUri);
+		this.authenticationConverter = new PatBatchTokenIntrospectionAuthenticationConverter();
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		if (!this.tokenBatchIntrospectionEndpointMatcher.matches(request)) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		try {
+			Authentication batchIntrospectionAuthentication = this.authenticationConverter.convert(request);
+			Authentication batchIntrospectionAuthenticationResult = this.authenticationManager
+				.authenticate(batchIntrospectionAuthentication);
+			this.authenticationSuccessHandler.onAuthenticationSuccess(request, response,
+					batchIntrospectionAuthenticationResult);
+		}
+		catch (PatAuthenticationException ex) {
+			SecurityContextHolder.clearContext();
+			if (this.logger.isTraceEnabled()) {
+				this.logger.trace(LogMessage.format("Token batch introspection request failed: %s", ex.getError()),
+						ex);
+			}
+			this.authenticationFailureHandler.onAuthenticationFailure(request, response, ex);
+		}
+	}
+
+	/**
+	 * Sets the {@link AuthenticationConverter} used when attempting to extract a
+	 * Batch Introspection Request from {@link HttpServletRequest}.
+	 * @param authenticationConverter the {@link AuthenticationConverter}
+	 */
+	public void setAuthenticationConverter(AuthenticationConverter authenticationConverter) {
+		Assert.notNull(authenticationConverter, "authenticationConverter cannot be null");
+		this.authenticationConverter = authenticationConverter;
+	}
+
+	/**
+	 * Sets the {@link AuthenticationSuccessHandler} used for handling an
+	 * {@link PatBatchTokenIntrospectionAuthenticationToken}.
+	 * @param authenticationSuccessHandler the {@link AuthenticationSuccessHandler}
+	 */
+	public void setAuthenticationSuccessHandler(AuthenticationSuccessHandler authenticationSuccessHandler) {
+		Assert.notNull(authenticationSuccessHandler, "authenticationSuccessHandler cannot be null");
+		this.authenticationSuccessHandler = authenticationSuccessHandler;
+	}
+
+	/**
+	 * Sets the {@link AuthenticationFailureHandler} used for handling a
+	 * {@link PatAuthenticationException}.
+	 * @param authenticationFailureHandler the {@link AuthenticationFailureHandler}
+	 */
+	public void setAuthenticationFailureHandler(AuthenticationFailureHandler authenticationFailureHandler) {
+		Assert.notNull(authenticationFailureHandler, "authenticationFailureHandler cannot be null");
+		this.authenticationFailureHandler = authenticationFailureHandler;
+	}
+
+	private void sendIntrospectionResponse(HttpServletRequest request, HttpServletResponse response,
+			Authentication authentication) throws IOException {
+
+		PatBatchTokenIntrospectionAuthenticationToken batchIntrospectionAuthentication = (PatBatchTokenIntrospectionAuthenticationToken) authentication;
+		List<Map<String, Object>> tokenClaims = batchIntrospectionAuthentication.getTokenClaims()
+			.stream()
+			.map(this.tokenIntrospectionParametersConverter::convert)
+			.toList();
+		ServletServerHttpResponse httpResponse = new ServletServerHttpResponse(response);
+		this.jsonMessageConverter.write(tokenClaims, STRING_OBJECT_MAP_LIST.getType(), MediaType.APPLICATION_JSON,
+				httpResponse);
+	}
+
+}
@@ -37,6 +37,12 @@ public final class PatConfigurationSettingNames {
 		public static final String TOKEN_INTROSPECTION_ENDPOINT = AUTHORIZATION_SERVER_SETTINGS_NAMESPACE
 			.concat("token-introspection-endpoint");
 
+		/**
+		 * Set the Pat Token Batch Introspection endpoint.
+		 */
+		public static final String TOKEN_BATCH_INTROSPECTION_ENDPOINT = AUTHORIZATION_SERVER_SETTINGS_NAMESPACE
+			.concat("token-batch-introspection-endpoint");
+
 		private PatAuthorizationServer() {
 		}
 
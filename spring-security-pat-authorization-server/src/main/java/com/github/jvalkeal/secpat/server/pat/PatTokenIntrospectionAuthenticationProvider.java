@@ -34,6 +34,8 @@ import org.springframework.util.Assert;
 
 import com.github.jvalkeal.secpat.pat.authorization.PatAuthorization;
 import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationService;
+import com.github.jvalkeal.secpat.pat.authorization.PatUsageTracker;
+import com.github.jvalkeal.secpat.pat.keygen.PatMatcher;
 
 /**
  * An {@link AuthenticationProvider} implementation for PAT Token Introspection.
@@ -44,6 +46,10 @@ public final class PatTokenIntrospectionAuthenticationProvider implements Authen
 
 	private final PatAuthorizationService authorizationService;
 
+	private PatMatcher patMatcher;
+
+	private PatUsageTracker usageTracker;
+
 	/**
 	 * Constructs an {@code OAuth2TokenIntrospectionAuthenticationProvider} using the
 	 * provided parameters.
@@ -55,7 +61,24 @@ public final class PatTokenIntrospectionAuthenticationProvider implements Authen
 		this.authorizationService = authorizationService;
 	}
 
-	private static OAuth2ClientAuthenticationToken getAuthenticatedClientElseThrowInvalidClient(Authentication authentication) {
+	/**
+	 * Sets a {@link PatMatcher} used to answer inactive for tokens which cannot be
+	 * valid without acquiring an authorization.
+	 * @param patMatcher the pat matcher
+	 */
+	public void setPatMatcher(PatMatcher patMatcher) {
+		this.patMatcher = patMatcher;
+	}
+
+	/**
+	 * Sets a {@link PatUsageTracker} recording usage of tokens answered as active.
+	 * @param usageTracker the usage tracker
+	 */
+	public void setUsageTracker(PatUsageTracker usageTracker) {
+		this.usageTracker = usageTracker;
+	}
+
+	static OAuth2ClientAuthenticationToken getAuthenticatedClientElseThrowInvalidClient(Authentication authentication) {
 		OAuth2ClientAuthenticationToken clientPrincipal = null;
 		if (OAuth2ClientAuthenticationToken.class.isAssignableFrom(authentication.getPrincipal().getClass())) {
 			clientPrincipal = (OAuth2ClientAuthenticationToken) authentication.getPrincipal();
@@ -71,6 +94,12 @@ public final class PatTokenIntrospectionAuthenticationProvider implements Authen
 		PatTokenIntrospectionAuthenticationToken tokenIntrospectionAuthentication = (PatTokenIntrospectionAuthenticationToken) authentication;
 		OAuth2ClientAuthenticationToken clientPrincipal = getAuthenticatedClientElseThrowInvalidClient(
 				tokenIntrospectionAuthentication);
+		if (this.patMatcher != null && !this.patMatcher.matches(tokenIntrospectionAuthentication.getToken())) {
+			if (this.logger.isTraceEnabled()) {
+				this.logger.trace("Did not authenticate pat introspection request since token was rejected by matcher");
+			}
+			return tokenIntrospectionAuthentication;
+		}
 		PatAuthorization authorization = this.authorizationService
 				.acquire(PatAuthorizationService.AcquireContext.ofToken(tokenIntrospectionAuthentication.getToken()));
 		if (authorization == null) {
@@ -89,8 +118,23 @@ public final class PatTokenIntrospectionAuthenticationProvider implements Authen
 			return tokenIntrospectionAuthentication;
 		}
 
+		if (this.usageTracker != null) {
+			this.usageTracker.record(authorization);
+		}
+
+		PatTokenIntrospection tokenClaims = tokenClaims(authorization);
+
+		if (this.logger.isTraceEnabled()) {
+			this.logger.trace("Authenticated token introspection request");
+		}
+
+		return new PatTokenIntrospectionAuthenticationToken(tokenIntrospectionAuthentication.getToken(),
+				clientPrincipal, tokenClaims);
+	}
+
+	static PatTokenIntrospection tokenClaims(PatAuthorization authorization) {
 		Set<String> authorizedScopes = authorization.getScopes();
-		PatTokenIntrospection tokenClaims = PatTokenIntrospection.builder(true)
+		return PatTokenIntrospection.builder(true)
 			.scopes(scopes -> {
 				scopes.addAll(authorizedScopes);
 			})
@@ -99,16 +143,9 @@ public final class PatTokenIntrospectionAuthenticationProvider implements Authen
 			.expiresAt(authorization.getExpiresAt())
 			.notBefore(authorization.getNotBefore())
 			.build();
-
-		if (this.logger.isTraceEnabled()) {
-			this.logger.trace("Authenticated token introspection request");
-		}
-
-		return new PatTokenIntrospectionAuthenticationToken(tokenIntrospectionAuthentication.getToken(),
-				clientPrincipal, tokenClaims);
 	}
 
-	private boolean validate(PatAuthorization patAuthorization) {
+	static boolean validate(PatAuthorization patAuthorization) {
 		Clock clock = Clock.systemUTC();
 		Duration clockSkew = Duration.of(60, ChronoUnit.SECONDS);
 		Instant expiry = patAuthorization.getExpiresAt();
@@ -32,9 +32,12 @@ import org.springframework.security.web.authentication.AuthenticationConverter;
 import org.springframework.security.web.authentication.DelegatingAuthenticationConverter;
 import org.springframework.security.web.authentication.preauth.AbstractPreAuthenticatedProcessingFilter;
 import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 
+import com.github.jvalkeal.secpat.pat.authorization.PatUsageTracker;
 import com.github.jvalkeal.secpat.pat.config.AbstractPatConfigurer;
+import com.github.jvalkeal.secpat.pat.keygen.PatMatcher;
 
 public final class PatTokenIntrospectionEndpointConfigurer extends AbstractPatConfigurer {
 
@@ -51,10 +54,26 @@ public final class PatTokenIntrospectionEndpointConfigurer extends AbstractPatCo
 	private Consumer<List<AuthenticationProvider>> authenticationProvidersConsumer = (authenticationProviders) -> {
 	};
 
+	private PatMatcher patMatcher;
+
 	PatTokenIntrospectionEndpointConfigurer(ObjectPostProcessor<Object> objectPostProcessor) {
 		super(objectPostProcessor);
 	}
 
+	/**
+	 * Sets a {@link PatMatcher} used to answer inactive for tokens not matching it
+	 * without acquiring an authorization. If not set, a {@link PatMatcher} bean is
+	 * used if available.
+	 *
+	 * @param patMatcher the pat matcher
+	 * @return the {@link PatTokenIntrospectionEndpointConfigurer} for further
+	 * configuration
+	 */
+	public PatTokenIntrospectionEndpointConfigurer patMatcher(PatMatcher patMatcher) {
+		this.patMatcher = patMatcher;
+		return this;
+	}
+
 	@Override
 	public void init(HttpSecurity httpSecurity) {
 		AuthorizationServerSettings authorizationServerSettings = PatAuthorizationServerConfigurerUtils
@@ -64,8 +83,14 @@ public final class PatTokenIntrospectionEndpointConfigurer extends AbstractPatCo
 				? PatAuthorizationServerConfigurerUtils
 					.withMultipleIssuersPattern(patAuthorizationServerSettings.getTokenIntrospectionEndpoint())
 				: patAuthorizationServerSettings.getTokenIntrospectionEndpoint();
+		String tokenBatchIntrospectionEndpointUri = authorizationServerSettings.isMultipleIssuersAllowed()
+				? PatAuthorizationServerConfigurerUtils
+					.withMultipleIssuersPattern(patAuthorizationServerSettings.getTokenBatchIntrospectionEndpoint())
+				: patAuthorizationServerSettings.getTokenBatchIntrospectionEndpoint();
 
-		this.requestMatcher = PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.POST, tokenIntrospectionEndpointUri);
+		this.requestMatcher = new OrRequestMatcher(
+				PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.POST, tokenIntrospectionEndpointUri),
+				PathPatternRequestMatcher.withDefaults().matcher(HttpMethod.POST, tokenBatchIntrospectionEndpointUri));
 		List<AuthenticationProvider> authenticationProviders = createDefaultAuthenticationProviders(httpSecurity);
 		if (!this.authenticationProviders.isEmpty()) {
 			authenticationProviders.addAll(0, this.authenticationProviders);
@@ -84,8 +109,14 @@ public final class PatTokenIntrospectionEndpointConfigurer extends AbstractPatCo
 				? PatAuthorizationServerConfigurerUtils
 					.withMultipleIssuersPattern(patAuthorizationServerSettings.getTokenIntrospectionEndpoint())
 				: patAuthorizationServerSettings.getTokenIntrospectionEndpoint();
+		String tokenBatchIntrospectionEndpointUri = authorizationServerSettings.isMultipleIssuersAllowed()
+				? PatAuthorizationServerConfigurerUtils
+					.withMultipleIssuersPattern(patAuthorizationServerSettings.getTokenBatchIntrospectionEndpoint())
+				: patAuthorizationServerSettings.getTokenBatchIntrospectionEndpoint();
 		PatTokenIntrospectionEndpointFilter introspectionEndpointFilter = new PatTokenIntrospectionEndpointFilter(
 				authenticationManager, tokenIntrospectionEndpointUri);
+		PatBatchTokenIntrospectionEndpointFilter batchIntrospectionEndpointFilter = new PatBatchTokenIntrospectionEndpointFilter(
+				authenticationManager, tokenBatchIntrospectionEndpointUri);
 		List<AuthenticationConverter> authenticationConverters = createDefaultAuthenticationConverters();
 
 		if (!this.introspectionRequestConverters.isEmpty()) {
@@ -97,6 +128,7 @@ public final class PatTokenIntrospectionEndpointConfigurer extends AbstractPatCo
 		OAuth2ClientAuthenticationFilter clientAuthenticationFilter = new OAuth2ClientAuthenticationFilter(authenticationManager, this.requestMatcher);
 		httpSecurity.addFilterAfter(postProcess(clientAuthenticationFilter), AbstractPreAuthenticatedProcessingFilter.class);
 		httpSecurity.addFilterAfter(postProcess(introspectionEndpointFilter), AuthorizationFilter.class);
+		httpSecurity.addFilterAfter(postProcess(batchIntrospectionEndpointFilter), AuthorizationFilter.class);
 
 	}
 
@@ -111,11 +143,22 @@ public final class PatTokenIntrospectionEndpointConfigurer extends AbstractPatCo
 		return authenticationConverters;
 	}
 
-	private static List<AuthenticationProvider> createDefaultAuthenticationProviders(HttpSecurity httpSecurity) {
+	private List<AuthenticationProvider> createDefaultAuthenticationProviders(HttpSecurity httpSecurity) {
 		List<AuthenticationProvider> authenticationProviders = new ArrayList<>();
+		PatMatcher patMatcher = (this.patMatcher != null) ? this.patMatcher
+				: PatAuthorizationServerConfigurerUtils.getPatMatcher(httpSecurity);
+		PatUsageTracker usageTracker = PatAuthorizationServerConfigurerUtils.getOptionalBean(httpSecurity,
+				PatUsageTracker.class);
 		PatTokenIntrospectionAuthenticationProvider tokenIntrospectionAuthenticationProvider = new PatTokenIntrospectionAuthenticationProvider(
 				PatAuthorizationServerConfigurerUtils.getAuthorizationService(httpSecurity));
+		tokenIntrospectionAuthenticationProvider.setPatMatcher(patMatcher);
+		tokenIntrospectionAuthenticationProvider.setUsageTracker(usageTracker);
 		authenticationProviders.add(tokenIntrospectionAuthenticationProvider);
+		PatBatchTokenIntrospectionAuthenticationProvider batchTokenIntrospectionAuthenticationProvider = new PatBatchTokenIntrospectionAuthenticationProvider(
+				PatAuthorizationServerConfigurerUtils.getAuthorizationService(httpSecurity));
+		batchTokenIntrospectionAuthenticationProvider.setPatMatcher(patMatcher);
+		batchTokenIntrospectionAuthenticationProvider.setUsageTracker(usageTracker);
+		authenticationProviders.add(batchTokenIntrospectionAuthenticationProvider);
 		return authenticationProviders;
 	}
 
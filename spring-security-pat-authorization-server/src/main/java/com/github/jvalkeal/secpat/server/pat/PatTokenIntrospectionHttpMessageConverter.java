@@ -188,7 +188,7 @@ public class PatTokenIntrospectionHttpMessageConverter
 
 	}
 
-	private static final class PatTokenIntrospectionMapConverter
+	static final class PatTokenIntrospectionMapConverter
 			implements Converter<PatTokenIntrospection, Map<String, Object>> {
 
 		@Override
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.server.pat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.server.authorization.authentication.OAuth2ClientAuthenticationToken;
+
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorization;
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationService;
+
+class PatBatchTokenIntrospectionAuthenticationProviderTests {
+
+	@Test
+	void tokensAreIntrospectedInOneLookup() {
+		PatAuthorizationService authorizationService = mock(PatAuthorizationService.class);
+		given(authorizationService.acquireAll(any())).willReturn(Map.of("pat1", of("pat1")));
+		OAuth2ClientAuthenticationToken clientPrincipal = mock(OAuth2ClientAuthenticationToken.class);
+		given(clientPrincipal.isAuthenticated()).willReturn(true);
+		PatBatchTokenIntrospectionAuthenticationProvider provider = new PatBatchTokenIntrospectionAuthenticationProvider(
+				authorizationService);
+
+		PatBatchTokenIntrospectionAuthenticationToken result = (PatBatchTokenIntrospectionAuthenticationToken) provider
+			.authenticate(new PatBatchTokenIntrospectionAuthenticationToken(List.of("pat1", "pat2", "pat1"),
+					clientPrincipal));
+
+		assertThat(result.isAuthenticated()).isTrue();
+		assertThat(result.getTokenClaims())
+			.extracting((claims) -> claims.getClaims().get(PatTokenIntrospectionClaimNames.ACTIVE))
+			.containsExactly(true, false, true);
+		assertThat(result.getTokenClaims().get(0).getClaimAsString(PatTokenIntrospectionClaimNames.USERNAME))
+			.isEqualTo("user1");
+		verify(authorizationService, times(1)).acquireAll(any());
+	}
+
+	@Test
+	void tokensNotMatchingAreNotAcquired() {
+		PatAuthorizationService authorizationService = mock(PatAuthorizationService.class);
+		given(authorizationService.acquireAll(any())).willReturn(Map.of("pat1", of("pat1")));
+		OAuth2ClientAuthenticationToken clientPrincipal = mock(OAuth2ClientAuthenticationToken.class);
+		given(clientPrincipal.isAuthenticated()).willReturn(true);
+		PatBatchTokenIntrospectionAuthenticationProvider provider = new PatBatchTokenIntrospectionAuthenticationProvider(
+				authorizationService);
+		provider.setPatMatcher((token) -> token.startsWith("pat"));
+
+		PatBatchTokenIntrospectionAuthenticationToken result = (PatBatchTokenIntrospectionAuthenticationToken) provider
+			.authenticate(new PatBatchTokenIntrospectionAuthenticationToken(List.of("pat1", "xxx"), clientPrincipal));
+
+		assertThat(result.getTokenClaims())
+			.extracting((claims) -> claims.getClaims().get(PatTokenIntrospectionClaimNames.ACTIVE))
+			.containsExactly(true, false);
+		verify(authorizationService).acquireAll(Set.of("pat1"));
+	}
+
+	private static PatAuthorization of(String token) {
+		Instant now = Instant.now();
+		return PatAuthorization.builder()
+			.id("id")
+			.name("name")
+			.principal("user1")
+			.scope("test")
+			.token(token)
+			.issuedAt(now)
+			.expiresAt(now.plus(Duration.ofHours(1)))
+			.notBefore(now)
+			.build();
+	}
+
+}
@@ -18,20 +18,28 @@ package com.github.jvalkeal.secpat.autoconfigure;
 
 import java.util.List;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 
+import com.github.jvalkeal.secpat.pat.authorization.CachingPatAuthorizationService;
 import com.github.jvalkeal.secpat.pat.authorization.InMemoryPatAuthorizationRepository;
 import com.github.jvalkeal.secpat.pat.authorization.PatAuthorization;
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationPurger;
 import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationRepository;
 import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationService;
+import com.github.jvalkeal.secpat.pat.authorization.PatUsageTracker;
 import com.github.jvalkeal.secpat.pat.authorization.RepositoryPatAuthorizationService;
 
+import io.micrometer.observation.ObservationRegistry;
+
 /**
  * {@link EnableAutoConfiguration Auto-configuration} for Spring Security Pat support.
  *
@@ -43,21 +51,75 @@ import com.github.jvalkeal.secpat.pat.authorization.RepositoryPatAuthorizationSe
 public class PatAutoConfiguration {
 
 	@ConditionalOnUsersPatProperties
+	@ConditionalOnMissingBean(PatAuthorizationRepository.class)
+	static class PatAuthorizationRepositoryConfiguration {
+
+		@Bean
+		PatAuthorizationRepository patAuthorizationRepository(PatProperties patProperties,
+				ObjectProvider<ObservationRegistry> observationRegistry) {
+			InMemoryPatAuthorizationRepository repository = new InMemoryPatAuthorizationRepository();
+			observationRegistry.ifUnique(repository::setObservationRegistry);
+			List<PatAuthorization> authorizations = new PatPatsPropertiesMapper(patProperties).asPatAuthorizations();
+			repository.saveAll(authorizations);
+			return repository;
+		}
+
+	}
+
+	@ConditionalOnBean(PatAuthorizationRepository.class)
 	@ConditionalOnMissingBean(PatAuthorizationService.class)
 	static class PatAuthorizationServiceConfiguration {
 
 		@Bean
-		PatAuthorizationService patAuthorizationService(PatAuthorizationRepository patAuthorizationRepository) {
-			return new RepositoryPatAuthorizationService(patAuthorizationRepository);
+		PatAuthorizationService patAuthorizationService(PatAuthorizationRepository patAuthorizationRepository,
+				PatProperties patProperties, ObjectProvider<ObservationRegistry> observationRegistry) {
+			PatAuthorizationService service = new RepositoryPatAuthorizationService(patAuthorizationRepository);
+			PatProperties.Cache cache = patProperties.getCache();
+			if (!cache.isEnabled()) {
+				return service;
+			}
+			CachingPatAuthorizationService cachingService = CachingPatAuthorizationService.builder(service)
+				.maximumSize(cache.getMaximumSize())
+				.timeToLive(cache.getTimeToLive())
+				.negativeTimeToLive(cache.getNegativeTimeToLive())
+				.build();
+			observationRegistry.ifUnique(cachingService::setObservationRegistry);
+			return cachingService;
 		}
 
+	}
+
+	@ConditionalOnProperty(prefix = "spring.security.pat.purge", name = "enabled", havingValue = "true")
+	@ConditionalOnBean(PatAuthorizationRepository.class)
+	@ConditionalOnMissingBean(PatAuthorizationPurger.class)
+	static class PatAuthorizationPurgerConfiguration {
+
 		@Bean
-		PatAuthorizationRepository patAuthorizationRepository(PatProperties patProperties) {
-			InMemoryPatAuthorizationRepository repository = new InMemoryPatAuthorizationRepository();
-			List<PatAuthorization> authorizations = new PatPatsPropertiesMapper(patProperties).asPatAuthorizations();
-			authorizations.forEach(patAuthorization -> repository.save(patAuthorization));
-			return repository;
+		PatAuthorizationPurger patAuthorizationPurger(PatAuthorizationRepository patAuthorizationRepository,
+				PatProperties patProperties) {
+			PatProperties.Purge purge = patProperties.getPurge();
+			PatAuthorizationPurger purger = new PatAuthorizationPurger(patAuthorizationRepository);
+			purger.setInterval(purge.getInterval());
+			purger.setGracePeriod(purge.getGracePeriod());
+			purger.setChunkSize(purge.getChunkSize());
+			return purger;
 		}
 
 	}
+
+	@ConditionalOnProperty(prefix = "spring.security.pat.usage", name = "enabled", havingValue = "true")
+	@ConditionalOnBean(PatAuthorizationRepository.class)
+	@ConditionalOnMissingBean(PatUsageTracker.class)
+	static class PatUsageTrackerConfiguration {
+
+		@Bean
+		PatUsageTracker patUsageTracker(PatAuthorizationRepository patAuthorizationRepository,
+				PatProperties patProperties) {
+			PatUsageTracker usageTracker = new PatUsageTracker(patAuthorizationRepository);
+			usageTracker.setInterval(patProperties.getUsage().getInterval());
+			return usageTracker;
+		}
+
+	}
+
 }
@@ -16,6 +16,7 @@
 
 package com.github.jvalkeal.secpat.autoconfigure;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -34,6 +35,12 @@ public class PatProperties {
 
 	private List<Pat> pats = new ArrayList<>();
 
+	private Cache cache = new Cache();
+
+	private Purge purge = new Purge();
+
+	private Usage usage = new Usage();
+
 	public List<Pat> getPats() {
 		return pats;
 	}
@@ -42,6 +49,172 @@ public class PatProperties {
 		this.pats = pats;
 	}
 
+	public Cache getCache() {
+		return cache;
+	}
+
+	public void setCache(Cache cache) {
+		this.cache = cache;
+	}
+
+	public Purge getPurge() {
+		return purge;
+	}
+
+	public void setPurge(Purge purge) {
+		this.purge = purge;
+	}
+
+	public Usage getUsage() {
+		return usage;
+	}
+
+	public void setUsage(Usage usage) {
+		this.usage = usage;
+	}
+
+	public static class Cache {
+
+		/**
+		 * Whether authorizations acquired from a repository are cached.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Maximum number of cached tokens.
+		 */
+		private long maximumSize = 10000;
+
+		/**
+		 * Maximum time a token is cached, capped by its expiry.
+		 */
+		private Duration timeToLive = Duration.ofMinutes(5);
+
+		/**
+		 * Time an unknown token is cached, zero disables negative caching.
+		 */
+		private Duration negativeTimeToLive = Duration.ZERO;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public long getMaximumSize() {
+			return maximumSize;
+		}
+
+		public void setMaximumSize(long maximumSize) {
+			this.maximumSize = maximumSize;
+		}
+
+		public Duration getTimeToLive() {
+			return timeToLive;
+		}
+
+		public void setTimeToLive(Duration timeToLive) {
+			this.timeToLive = timeToLive;
+		}
+
+		public Duration getNegativeTimeToLive() {
+			return negativeTimeToLive;
+		}
+
+		public void setNegativeTimeToLive(Duration negativeTimeToLive) {
+			this.negativeTimeToLive = negativeTimeToLive;
+		}
+
+	}
+
+	public static class Purge {
+
+		/**
+		 * Whether expired authorizations are periodically purged from a repository.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Interval between purges.
+		 */
+		private Duration interval = Duration.ofHours(1);
+
+		/**
+		 * Time an authorization is kept after its expiry.
+		 */
+		private Duration gracePeriod = Duration.ofDays(1);
+
+		/**
+		 * Maximum number of authorizations removed in one chunk.
+		 */
+		private int chunkSize = 1000;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Duration getInterval() {
+			return interval;
+		}
+
+		public void setInterval(Duration interval) {
+			this.interval = interval;
+		}
+
+		public Duration getGracePeriod() {
+			return gracePeriod;
+		}
+
+		public void setGracePeriod(Duration gracePeriod) {
+			this.gracePeriod = gracePeriod;
+		}
+
+		public int getChunkSize() {
+			return chunkSize;
+		}
+
+		public void setChunkSize(int chunkSize) {
+			this.chunkSize = chunkSize;
+		}
+
+	}
+
+	public static class Usage {
+
+		/**
+		 * Whether last usage of authorizations is tracked and written to a repository.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Interval between writes of tracked usage.
+		 */
+		private Duration interval = Duration.ofMinutes(1);
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Duration getInterval() {
+			return interval;
+		}
+
+		public void setInterval(Duration interval) {
+			this.interval = interval;
+		}
+
+	}
+
 	public static class Pat {
 
 		/**
@@ -18,6 +18,7 @@ package com.github.jvalkeal.secpat.autoconfigure;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Duration;
 import java.time.Instant;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -77,4 +78,48 @@ public class PatPropertiesTests {
 		assertThat(this.pat.getPats().get(0).getScopes()).containsExactly("scope1");
 	}
 
+	@Test
+	void bindCache() {
+		this.binder.bind("spring.security.pat", Bindable.ofInstance(this.pat));
+		assertThat(this.pat.getCache().isEnabled()).isFalse();
+		assertThat(this.pat.getCache().getNegativeTimeToLive()).isEqualTo(Duration.ZERO);
+		this.source.put("spring.security.pat.cache.enabled", "true");
+		this.source.put("spring.security.pat.cache.maximum-size", "100");
+		this.source.put("spring.security.pat.cache.time-to-live", "1m");
+		this.source.put("spring.security.pat.cache.negative-time-to-live", "5s");
+		this.binder.bind("spring.security.pat", Bindable.ofInstance(this.pat));
+		assertThat(this.pat.getCache().isEnabled()).isTrue();
+		assertThat(this.pat.getCache().getMaximumSize()).isEqualTo(100);
+		assertThat(this.pat.getCache().getTimeToLive()).isEqualTo(Duration.ofMinutes(1));
+		assertThat(this.pat.getCache().getNegativeTimeToLive()).isEqualTo(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void bindPurge() {
+		this.binder.bind("spring.security.pat", Bindable.ofInstance(this.pat));
+		assertThat(this.pat.getPurge().isEnabled()).isFalse();
+		assertThat(this.pat.getPurge().getGracePeriod()).isEqualTo(Duration.ofDays(1));
+		this.source.put("spring.security.pat.purge.enabled", "true");
+		this.source.put("spring.security.pat.purge.interval", "10m");
+		this.source.put("spring.security.pat.purge.grace-period", "7d");
+		this.source.put("spring.security.pat.purge.chunk-size", "500");
+		this.binder.bind("spring.security.pat", Bindable.ofInstance(this.pat));
+		assertThat(this.pat.getPurge().isEnabled()).isTrue();
+		assertThat(this.pat.getPurge().getInterval()).isEqualTo(Duration.ofMinutes(10));
+		assertThat(this.pat.getPurge().getGracePeriod()).isEqualTo(Duration.ofDays(7));
+		assertThat(this.pat.getPurge().getChunkSize()).isEqualTo(500);
+	}
+
+	@Test
+	void bindUsage() {
+		this.binder.bind("spring.security.pat", Bindable.ofInstance(this.pat));
+		assertThat(this.pat.getUsage().isEnabled()).isFalse();
+		assertThat(this.pat.getUsage().getInterval()).isEqualTo(Duration.ofMinutes(1));
+		this.source.put("spring.security.pat.usage.enabled", "true");
+		this.source.put("spring.security.pat.usage.interval", "30s");
+		this.binder.bind("spring.security.pat", Bindable.ofInstance(this.pat));
+		assertThat(this.pat.getUsage().isEnabled()).isTrue();
+		assertThat(this.pat.getUsage().getInterval()).isEqualTo(Duration.ofSeconds(30));
+	}
+
 }
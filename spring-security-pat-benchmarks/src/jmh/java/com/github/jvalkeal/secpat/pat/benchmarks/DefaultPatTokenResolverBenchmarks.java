@@ -0,0 +1,61 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.github.jvalkeal.secpat.pat.keygen.OrgPrefixPatGenerationService;
+import com.github.jvalkeal.secpat.pat.resolver.DefaultPatTokenResolver;
+
+/**
+ * Benchmarks for {@link DefaultPatTokenResolver} resolving a token from a request
+ * with and without a {@code X-Pat} header.
+ *
+ * @author Janne Valkealahti
+ */
+@State(Scope.Benchmark)
+public class DefaultPatTokenResolverBenchmarks {
+
+	private DefaultPatTokenResolver resolver;
+
+	private MockHttpServletRequest requestWithToken;
+
+	private MockHttpServletRequest requestWithoutToken;
+
+	@Setup
+	public void setup() {
+		this.resolver = new DefaultPatTokenResolver();
+		this.requestWithToken = new MockHttpServletRequest("GET", "/api");
+		this.requestWithToken.addHeader("X-Pat", new OrgPrefixPatGenerationService("org", "pat", 64).generate(null));
+		this.requestWithoutToken = new MockHttpServletRequest("GET", "/api");
+	}
+
+	@Benchmark
+	public String resolveWithToken() {
+		return this.resolver.resolve(this.requestWithToken);
+	}
+
+	@Benchmark
+	public String resolveWithoutToken() {
+		return this.resolver.resolve(this.requestWithoutToken);
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.benchmarks;
+
+import org.openjdk.jmh.annotations.Threads;
+
+import com.github.jvalkeal.secpat.pat.authorization.InMemoryPatAuthorizationRepository;
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationRepository;
+
+/**
+ * Scale benchmarks for {@link InMemoryPatAuthorizationRepository}.
+ *
+ * @author Janne Valkealahti
+ */
+public class InMemoryPatAuthorizationRepositoryBenchmarks extends PatAuthorizationRepositoryBenchmarks {
+
+	@Override
+	protected PatAuthorizationRepository createRepository() {
+		return new InMemoryPatAuthorizationRepository();
+	}
+
+	@Threads(8)
+	public static class Threads8 extends InMemoryPatAuthorizationRepositoryBenchmarks {
+
+	}
+
+	@Threads(64)
+	public static class Threads64 extends InMemoryPatAuthorizationRepositoryBenchmarks {
+
+	}
+
+}
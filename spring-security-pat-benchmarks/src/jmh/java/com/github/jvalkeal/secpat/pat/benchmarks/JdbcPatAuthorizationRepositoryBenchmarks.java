@@ -0,0 +1,120 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.benchmarks;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.util.StringUtils;
+
+import com.github.jvalkeal.secpat.pat.authorization.JdbcPatAuthorizationRepository;
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorization;
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationRepository;
+
+/**
+ * Scale benchmarks for {@link JdbcPatAuthorizationRepository} on an embedded
+ * in-memory {@code HSQLDB}. Heap footprint includes a database itself. A
+ * repository is loaded with {@code JDBC} batches as loading one by one would
+ * dominate a run time with large sizes. Shipped schema comes with a principal
+ * index, thus only an index for token lookups is added.
+ *
+ * @author Janne Valkealahti
+ */
+public class JdbcPatAuthorizationRepositoryBenchmarks extends PatAuthorizationRepositoryBenchmarks {
+
+	private static final String PAT_AUTHORIZATIONS_SCHEMA_SQL_RESOURCE = "/com/github/jvalkeal/secpat/pat/authorization/pat-authorization-service-schema.sql";
+
+	private static final String TOKEN_INDEX_SQL = "CREATE UNIQUE INDEX pat_authorizations_token_idx ON pat_authorizations (token)";
+
+	private static final String INSERT_SQL = "INSERT INTO pat_authorizations"
+			+ "(id, name, description, token, principal, scopes, issued_at, expires_at, not_before)"
+			+ " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private static final int LOAD_BATCH_SIZE = 10000;
+
+	private EmbeddedDatabase db;
+
+	private JdbcTemplate jdbcTemplate;
+
+	@Override
+	protected PatAuthorizationRepository createRepository() {
+		// @formatter:off
+		this.db = new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.HSQL)
+				.setScriptEncoding("UTF-8")
+				.addScript(PAT_AUTHORIZATIONS_SCHEMA_SQL_RESOURCE)
+				.build();
+		// @formatter:on
+		this.jdbcTemplate = new JdbcTemplate(this.db);
+		this.jdbcTemplate.execute(TOKEN_INDEX_SQL);
+		return new JdbcPatAuthorizationRepository(this.jdbcTemplate);
+	}
+
+	@Override
+	protected void destroyRepository() {
+		this.db.shutdown();
+	}
+
+	@Override
+	protected void load(PatAuthorizationRepository repository, int count) {
+		for (int start = 0; start < count; start += LOAD_BATCH_SIZE) {
+			int offset = start;
+			int batchSize = Math.min(LOAD_BATCH_SIZE, count - start);
+			this.jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+
+				@Override
+				public void setValues(PreparedStatement ps, int i) throws SQLException {
+					PatAuthorization authorization = authorization(offset + i);
+					ps.setString(1, authorization.getId());
+					ps.setString(2, authorization.getName());
+					ps.setString(3, authorization.getDescription());
+					ps.setString(4, authorization.getToken());
+					ps.setString(5, authorization.getPrincipal());
+					ps.setString(6, StringUtils.collectionToCommaDelimitedString(authorization.getScopes()));
+					ps.setTimestamp(7, Timestamp.from(authorization.getIssuedAt()));
+					ps.setTimestamp(8, Timestamp.from(authorization.getExpiresAt()));
+					ps.setTimestamp(9, Timestamp.from(authorization.getNotBefore()));
+				}
+
+				@Override
+				public int getBatchSize() {
+					return batchSize;
+				}
+
+			});
+		}
+	}
+
+	@Threads(8)
+	public static class Threads8 extends JdbcPatAuthorizationRepositoryBenchmarks {
+
+	}
+
+	@Threads(64)
+	public static class Threads64 extends JdbcPatAuthorizationRepositoryBenchmarks {
+
+	}
+
+}
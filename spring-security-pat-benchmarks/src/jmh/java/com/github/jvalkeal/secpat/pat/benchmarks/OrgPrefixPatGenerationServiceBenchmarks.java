@@ -0,0 +1,96 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.github.jvalkeal.secpat.pat.keygen.OrgPrefixPatGenerationService;
+import com.github.jvalkeal.secpat.pat.keygen.PatGenerator;
+import com.github.jvalkeal.secpat.pat.keygen.PatMatcher;
+import com.github.jvalkeal.secpat.pat.keygen.PatTokenCodec;
+
+/**
+ * Benchmarks for {@link OrgPrefixPatGenerationService} generating and validating
+ * tokens of different lengths and checksum algorithms.
+ *
+ * @author Janne Valkealahti
+ */
+@State(Scope.Benchmark)
+public class OrgPrefixPatGenerationServiceBenchmarks {
+
+	@Param({ "51", "128" })
+	int length;
+
+	@Param({ "CRC32", "CRC32C" })
+	PatTokenCodec.Checksum checksum;
+
+	private OrgPrefixPatGenerationService service;
+
+	private PatGenerator generator;
+
+	private PatMatcher matcher;
+
+	private String validToken;
+
+	private String invalidToken;
+
+	@Setup
+	public void setup() {
+		this.service = new OrgPrefixPatGenerationService("org", "pat", this.length, null, this.checksum);
+		this.generator = this.service.generator();
+		this.matcher = this.service.matcher();
+		this.validToken = this.service.generate(null);
+		this.invalidToken = this.validToken.substring(0, this.validToken.length() - 1) + "_";
+	}
+
+	@Benchmark
+	public String generate() {
+		return this.service.generate(null);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public String generateThreads8() {
+		return this.service.generate(null);
+	}
+
+	@Benchmark
+	public String generator() {
+		return this.generator.apply(null);
+	}
+
+	@Benchmark
+	public boolean validateValid() {
+		return this.service.validate(this.validToken);
+	}
+
+	@Benchmark
+	public boolean validateInvalid() {
+		return this.service.validate(this.invalidToken);
+	}
+
+	@Benchmark
+	public Boolean matcher() {
+		return this.matcher.apply(this.validToken);
+	}
+
+}
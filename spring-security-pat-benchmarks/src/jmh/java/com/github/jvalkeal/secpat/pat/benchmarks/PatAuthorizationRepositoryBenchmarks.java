@@ -0,0 +1,174 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorization;
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationRepository;
+
+/**
+ * Base class for {@link PatAuthorizationRepository} scale benchmarks. A
+ * repository is loaded with {@code size} authorizations, ten per principal, and
+ * lookups pick a random stored authorization. As saves would grow a repository
+ * without bounds, a save is measured together with its remove, spread over a
+ * thousand principals so that threads don't contend on a single principal.
+ *
+ * Heap footprint per stored authorization is printed after loading, measured as
+ * a difference of used heap after full collections. Larger sizes need a larger
+ * heap than a default, given for example with {@code -PjmhJvmArgs=-Xmx16g}.
+ * Implementations provide subclasses annotated with {@link Threads} for other
+ * thread counts.
+ *
+ * @author Janne Valkealahti
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+public abstract class PatAuthorizationRepositoryBenchmarks {
+
+	static final int AUTHORIZATIONS_PER_PRINCIPAL = 10;
+
+	@Param({ "10000", "1000000", "10000000" })
+	int size;
+
+	private final AtomicLong saveCounter = new AtomicLong();
+
+	private PatAuthorizationRepository repository;
+
+	private Instant now;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		this.now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+		long before = usedHeap();
+		this.repository = createRepository();
+		load(this.repository, this.size);
+		long after = usedHeap();
+		System.out.printf("%n%s size=%d heap footprint %d bytes per authorization%n", getClass().getSimpleName(),
+				this.size, (after - before) / this.size);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		destroyRepository();
+	}
+
+	/**
+	 * Create a repository to benchmark.
+	 *
+	 * @return the repository
+	 * @throws Exception on errors
+	 */
+	protected abstract PatAuthorizationRepository createRepository() throws Exception;
+
+	/**
+	 * Release resources of a created repository.
+	 *
+	 * @throws Exception on errors
+	 */
+	protected void destroyRepository() throws Exception {
+	}
+
+	/**
+	 * Load repository with a given count of authorizations created with
+	 * {@link #authorization(int)}. Implementations may override this with a faster
+	 * bulk load.
+	 *
+	 * @param repository the repository
+	 * @param count the count
+	 */
+	protected void load(PatAuthorizationRepository repository, int count) {
+		for (int i = 0; i < count; i++) {
+			repository.save(authorization(i));
+		}
+	}
+
+	protected PatAuthorization authorization(int index) {
+		return authorization("id-" + index, "token-" + index, "user-" + (index / AUTHORIZATIONS_PER_PRINCIPAL));
+	}
+
+	@Benchmark
+	public PatAuthorization findByToken() {
+		return this.repository.findByToken("token-" + randomIndex());
+	}
+
+	@Benchmark
+	public PatAuthorization findByTokenMiss() {
+		return this.repository.findByToken("missing-" + randomIndex());
+	}
+
+	@Benchmark
+	public PatAuthorization findById() {
+		return this.repository.findById("id-" + randomIndex());
+	}
+
+	@Benchmark
+	public List<PatAuthorization> findByPrincipal() {
+		return this.repository.findByPrincipal("user-" + (randomIndex() / AUTHORIZATIONS_PER_PRINCIPAL));
+	}
+
+	@Benchmark
+	public void saveAndRemove() {
+		long n = this.saveCounter.incrementAndGet();
+		PatAuthorization authorization = authorization("bench-id-" + n, "bench-token-" + n,
+				"bench-user-" + n % 1000);
+		this.repository.save(authorization);
+		this.repository.remove(authorization);
+	}
+
+	private int randomIndex() {
+		return ThreadLocalRandom.current().nextInt(this.size);
+	}
+
+	private PatAuthorization authorization(String id, String token, String principal) {
+		return PatAuthorization.builder()
+			.id(id)
+			.name("name")
+			.principal(principal)
+			.scope("read")
+			.token(token)
+			.issuedAt(this.now)
+			.expiresAt(this.now.plus(30, ChronoUnit.DAYS))
+			.notBefore(this.now)
+			.build();
+	}
+
+	private static long usedHeap() throws InterruptedException {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(100);
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+
+}
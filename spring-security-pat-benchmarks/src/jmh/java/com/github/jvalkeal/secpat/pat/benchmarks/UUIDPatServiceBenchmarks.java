@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.benchmarks;
+
+import java.util.UUID;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.github.jvalkeal.secpat.pat.keygen.PatGenerator;
+import com.github.jvalkeal.secpat.pat.keygen.PatMatcher;
+import com.github.jvalkeal.secpat.pat.keygen.UUIDPatService;
+
+/**
+ * Benchmarks for {@link UUIDPatService} generator and matcher.
+ *
+ * @author Janne Valkealahti
+ */
+@State(Scope.Benchmark)
+public class UUIDPatServiceBenchmarks {
+
+	private PatGenerator generator;
+
+	private PatMatcher matcher;
+
+	private String validToken;
+
+	private String invalidToken;
+
+	@Setup
+	public void setup() {
+		UUIDPatService service = new UUIDPatService();
+		this.generator = service.generator();
+		this.matcher = service.matcher();
+		this.validToken = UUID.randomUUID().toString();
+		this.invalidToken = this.validToken.replace('-', 'x');
+	}
+
+	@Benchmark
+	public String generate() {
+		return this.generator.apply(null);
+	}
+
+	@Benchmark
+	public Boolean matchValid() {
+		return this.matcher.apply(this.validToken);
+	}
+
+	@Benchmark
+	public Boolean matchInvalid() {
+		return this.matcher.apply(this.invalidToken);
+	}
+
+}
@@ -19,8 +19,13 @@ package com.github.jvalkeal.secpat.pat;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.util.Assert;
 
 import com.github.jvalkeal.secpat.pat.introspect.PatIntrospector;
+import com.github.jvalkeal.secpat.pat.keygen.PatMatcher;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.ObservationRegistry;
 
 public class PatAuthenticationProvider implements AuthenticationProvider {
 
@@ -28,6 +33,10 @@ public class PatAuthenticationProvider implements AuthenticationProvider {
 
 	private final PatIntrospector introspector;
 
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+	private PatMatcher patMatcher;
+
 	public PatAuthenticationProvider(PatIntrospector introspector) {
 		this.introspector = introspector;
 	}
@@ -37,9 +46,36 @@ public class PatAuthenticationProvider implements AuthenticationProvider {
 		if (!(authentication instanceof PatTokenAuthenticationToken token)) {
 			return null;
 		}
-		// we expect introspection to do validation
-		PatAuthenticatedPrincipal introspect = introspector.introspect(token.getKey());
-		return authenticationConverter.convert(token.getKey(), introspect);
+		return PatObservations.observe(this.observationRegistry, PatObservations.AUTHENTICATION, KeyValues.empty(),
+				(observation) -> {
+					if (this.patMatcher != null && !this.patMatcher.matches(token.getKey())) {
+						throw rejected();
+					}
+					// we expect introspection to do validation
+					PatAuthenticatedPrincipal introspect = introspector.introspect(token.getKey());
+					return authenticationConverter.convert(token.getKey(), introspect);
+				});
+	}
+
+	/**
+	 * Sets an {@link ObservationRegistry} used to observe authentication.
+	 * Defaults to {@link ObservationRegistry#NOOP}.
+	 *
+	 * @param observationRegistry the observation registry
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * Sets a {@link PatMatcher} rejecting tokens not matching it before
+	 * introspection.
+	 *
+	 * @param patMatcher the pat matcher
+	 */
+	public void setPatMatcher(PatMatcher patMatcher) {
+		this.patMatcher = patMatcher;
 	}
 
 	@Override
@@ -47,6 +83,10 @@ public class PatAuthenticationProvider implements AuthenticationProvider {
 		return PatTokenAuthenticationToken.class.isAssignableFrom(authentication);
 	}
 
+	static PatAuthenticationException rejected() {
+		return new PatAuthenticationException(new PatError(PatErrorCodes.TOKEN_REJECTED, "token rejected by matcher"));
+	}
+
 	static Authentication convert(String introspectedToken, PatAuthenticatedPrincipal authenticatedPrincipal) {
 		PatTokenAuthenticationToken token = PatTokenAuthenticationToken.authenticated(authenticatedPrincipal.getName(),
 				introspectedToken, authenticatedPrincipal.getAuthorities());
@@ -30,6 +30,50 @@ public final class PatErrorCodes {
 	 */
 	public static final String INVALID_REQUEST = "invalid_request";
 
+	/**
+	 * {@code malformed_token} - The token in a request is not in a valid format.
+	 */
+	public static final String MALFORMED_TOKEN = "malformed_token";
+
+	/**
+	 * {@code token_rejected} - The token was rejected by a
+	 * {@link com.github.jvalkeal.secpat.pat.keygen.PatMatcher PatMatcher} before
+	 * any lookup.
+	 */
+	public static final String TOKEN_REJECTED = "token_rejected";
+
+	/**
+	 * {@code token_not_found} - The token is not known.
+	 */
+	public static final String TOKEN_NOT_FOUND = "token_not_found";
+
+	/**
+	 * {@code token_expired} - The token has expired.
+	 */
+	public static final String TOKEN_EXPIRED = "token_expired";
+
+	/**
+	 * {@code token_not_yet_valid} - The token is not valid before a later time.
+	 */
+	public static final String TOKEN_NOT_YET_VALID = "token_not_yet_valid";
+
+	/**
+	 * {@code token_inactive} - The token was reported inactive by a remote
+	 * introspection endpoint.
+	 */
+	public static final String TOKEN_INACTIVE = "token_inactive";
+
+	/**
+	 * {@code token_invalid_signature} - The token signature could not be
+	 * verified.
+	 */
+	public static final String TOKEN_INVALID_SIGNATURE = "token_invalid_signature";
+
+	/**
+	 * {@code token_revoked} - The token has been revoked.
+	 */
+	public static final String TOKEN_REVOKED = "token_revoked";
+
 	private PatErrorCodes() {
 	}
 
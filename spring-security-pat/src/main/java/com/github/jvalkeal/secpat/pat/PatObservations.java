@@ -0,0 +1,132 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat;
+
+import java.util.function.Function;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Names and keys of {@code Micrometer} observations emitted by a {@code PAT}
+ * authentication pipeline.
+ *
+ * Every observation has low cardinality keys {@code outcome} and {@code reason}.
+ * Failure reason is a {@link PatError} code of a {@link PatAuthenticationException}
+ * or an exception class name, thus counts per reason are available from timers
+ * created for observations. Observations made with a no-op registry skip all
+ * bookkeeping.
+ *
+ * @author Janne Valkealahti
+ */
+public final class PatObservations {
+
+	/**
+	 * Resolving a token from a request.
+	 */
+	public static final String RESOLVE = "pat.resolve";
+
+	/**
+	 * Authenticating a resolved token.
+	 */
+	public static final String AUTHENTICATION = "pat.authentication";
+
+	/**
+	 * Introspecting a token, key {@code introspector} is either {@code local} or
+	 * {@code remote}.
+	 */
+	public static final String INTROSPECT = "pat.introspect";
+
+	/**
+	 * Acquiring an authorization from a caching authorization service.
+	 */
+	public static final String ACQUIRE = "pat.acquire";
+
+	/**
+	 * Repository lookup, keys {@code repository} and {@code operation} identify it.
+	 */
+	public static final String LOOKUP = "pat.lookup";
+
+	public static final String OUTCOME = "outcome";
+
+	public static final String REASON = "reason";
+
+	public static final String CACHE = "cache";
+
+	public static final String INTROSPECTOR = "introspector";
+
+	public static final String REPOSITORY = "repository";
+
+	public static final String OPERATION = "operation";
+
+	public static final String SUCCESS = "success";
+
+	public static final String FAILURE = "failure";
+
+	public static final String NONE = "none";
+
+	public static final String HIT = "hit";
+
+	public static final String MISS = "miss";
+
+	private PatObservations() {
+	}
+
+	/**
+	 * Run an action within an observation. Action gets a started observation
+	 * which can be used to add key values, it is {@link Observation#NOOP} if a
+	 * registry is a no-op.
+	 *
+	 * @param <T> the type of a result
+	 * @param registry the observation registry
+	 * @param name the observation name
+	 * @param keyValues the initial low cardinality key values
+	 * @param action the action to observe
+	 * @return the result of an action
+	 */
+	public static <T> T observe(ObservationRegistry registry, String name, KeyValues keyValues,
+			Function<Observation, T> action) {
+		if (registry.isNoop()) {
+			return action.apply(Observation.NOOP);
+		}
+		Observation observation = Observation.createNotStarted(name, registry)
+			.lowCardinalityKeyValues(keyValues)
+			.start();
+		try (Observation.Scope scope = observation.openScope()) {
+			T result = action.apply(observation);
+			observation.lowCardinalityKeyValue(OUTCOME, SUCCESS).lowCardinalityKeyValue(REASON, NONE);
+			return result;
+		}
+		catch (RuntimeException ex) {
+			observation.lowCardinalityKeyValue(OUTCOME, FAILURE).lowCardinalityKeyValue(REASON, reason(ex));
+			observation.error(ex);
+			throw ex;
+		}
+		finally {
+			observation.stop();
+		}
+	}
+
+	static String reason(Throwable ex) {
+		if (ex instanceof PatAuthenticationException patEx) {
+			return patEx.getError().getErrorCode();
+		}
+		return ex.getClass().getSimpleName();
+	}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.Assert;
+
+import com.github.jvalkeal.secpat.pat.introspect.PatIntrospectionException;
+import com.github.jvalkeal.secpat.pat.introspect.ReactivePatIntrospector;
+import com.github.jvalkeal.secpat.pat.keygen.PatMatcher;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveAuthenticationManager} authenticating a
+ * {@link PatTokenAuthenticationToken} with a {@link ReactivePatIntrospector}.
+ *
+ * @author Janne Valkealahti
+ * @see PatAuthenticationProvider
+ */
+public class PatReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+	private final ReactivePatIntrospector introspector;
+
+	private PatAuthenticationConverter authenticationConverter = PatAuthenticationProvider::convert;
+
+	private PatMatcher patMatcher;
+
+	public PatReactiveAuthenticationManager(ReactivePatIntrospector introspector) {
+		Assert.notNull(introspector, "introspector cannot be null");
+		this.introspector = introspector;
+	}
+
+	@Override
+	public Mono<Authentication> authenticate(Authentication authentication) {
+		if (!(authentication instanceof PatTokenAuthenticationToken token)) {
+			return Mono.empty();
+		}
+		if (this.patMatcher != null && !this.patMatcher.matches(token.getKey())) {
+			return Mono.error(PatAuthenticationProvider.rejected());
+		}
+		// we expect introspection to do validation
+		return this.introspector.introspect(token.getKey())
+			.map((principal) -> this.authenticationConverter.convert(token.getKey(), principal))
+			.onErrorMap(PatIntrospectionException.class,
+					(ex) -> new AuthenticationServiceException(ex.getMessage(), ex));
+	}
+
+	/**
+	 * Sets a {@link PatAuthenticationConverter} creating an authenticated
+	 * {@link Authentication}.
+	 *
+	 * @param authenticationConverter the authentication converter
+	 */
+	public void setAuthenticationConverter(PatAuthenticationConverter authenticationConverter) {
+		Assert.notNull(authenticationConverter, "authenticationConverter cannot be null");
+		this.authenticationConverter = authenticationConverter;
+	}
+
+	/**
+	 * Sets a {@link PatMatcher} rejecting tokens not matching it before
+	 * introspection.
+	 *
+	 * @param patMatcher the pat matcher
+	 */
+	public void setPatMatcher(PatMatcher patMatcher) {
+		this.patMatcher = patMatcher;
+	}
+
+}
@@ -17,8 +17,11 @@
 package com.github.jvalkeal.secpat.pat;
 
 import java.io.IOException;
+import java.time.Duration;
 
 import org.springframework.core.log.LogMessage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
@@ -30,9 +33,13 @@ import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.util.Assert;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.github.jvalkeal.secpat.pat.keygen.PatMatcher;
+import com.github.jvalkeal.secpat.pat.ratelimit.PatRateLimiter;
 import com.github.jvalkeal.secpat.pat.resolver.DefaultPatTokenResolver;
 import com.github.jvalkeal.secpat.pat.resolver.PatTokenResolver;
 
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -45,6 +52,9 @@ public class PatTokenAuthenticationFilter extends OncePerRequestFilter {
 	private AuthenticationManager authenticationManager;
 	private PatTokenResolver patResolver = new DefaultPatTokenResolver();
 	private SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+	private PatRateLimiter rateLimiter;
+	private PatMatcher patMatcher;
 
 	public PatTokenAuthenticationFilter(AuthenticationManager authenticationManager) {
 		Assert.notNull(authenticationManager, "authenticationManager cannot be null");
@@ -56,15 +66,32 @@ public class PatTokenAuthenticationFilter extends OncePerRequestFilter {
 			throws ServletException, IOException {
 
 		try {
-			String token = this.patResolver.resolve(request);
+			String token = PatObservations.observe(this.observationRegistry, PatObservations.RESOLVE, KeyValues.empty(),
+					(observation) -> this.patResolver.resolve(request));
 			if (token == null) {
 				this.logger.trace("Did not process authentication request since failed to find "
 						+ "PAT from a request");
 				chain.doFilter(request, response);
 				return;
 			}
+			if (this.patMatcher != null && !this.patMatcher.matches(token)) {
+				throw PatAuthenticationProvider.rejected();
+			}
 			PatTokenAuthenticationToken authRequest = PatTokenAuthenticationToken.unauthenticated(token);
 			Authentication authResult = this.authenticationManager.authenticate(authRequest);
+			// checked before a context is set or saved so that a rejected request
+			// never leaves an authentication behind
+			if (this.rateLimiter != null) {
+				Duration wait = this.rateLimiter.tryAcquire(token, authResult.getAuthorities());
+				if (!wait.isZero()) {
+					if (this.logger.isDebugEnabled()) {
+						this.logger.debug(LogMessage.format("Rate limit exceeded for %s", authResult.getName()));
+					}
+					response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+					response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(wait)));
+					return;
+				}
+			}
 			SecurityContext context = this.securityContextHolderStrategy.createEmptyContext();
 			context.setAuthentication(authResult);
 			this.securityContextHolderStrategy.setContext(context);
@@ -84,6 +111,44 @@ public class PatTokenAuthenticationFilter extends OncePerRequestFilter {
 		chain.doFilter(request, response);
 	}
 
+	/**
+	 * Sets an {@link ObservationRegistry} used to observe resolving of a token.
+	 * Defaults to {@link ObservationRegistry#NOOP}.
+	 *
+	 * @param observationRegistry the observation registry
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * Sets a {@link PatRateLimiter} used to limit requests of an authenticated
+	 * token. Requests over a limit are rejected with {@code 429} and never reach
+	 * a rest of a filter chain. Defaults to no rate limiting.
+	 *
+	 * @param rateLimiter the rate limiter
+	 */
+	public void setRateLimiter(PatRateLimiter rateLimiter) {
+		this.rateLimiter = rateLimiter;
+	}
+
+	/**
+	 * Sets a {@link PatMatcher} rejecting tokens not matching it before they are
+	 * passed to an {@link AuthenticationManager}. Defaults to accepting all
+	 * tokens.
+	 *
+	 * @param patMatcher the pat matcher
+	 */
+	public void setPatMatcher(PatMatcher patMatcher) {
+		this.patMatcher = patMatcher;
+	}
+
+	private static long retryAfterSeconds(Duration wait) {
+		long seconds = wait.getSeconds();
+		return wait.getNano() > 0 ? seconds + 1 : seconds;
+	}
+
 	protected boolean authenticationIsRequired(String username) {
 		// Authentication existingAuth = this.securityContextHolderStrategy.getContext().getAuthentication();
 		// if (existingAuth == null || !existingAuth.getName().equals(username) || !existingAuth.isAuthenticated()) {
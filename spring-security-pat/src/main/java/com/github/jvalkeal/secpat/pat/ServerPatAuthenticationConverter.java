@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.util.Assert;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.github.jvalkeal.secpat.pat.resolver.DefaultServerPatTokenResolver;
+import com.github.jvalkeal.secpat.pat.resolver.ServerPatTokenResolver;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ServerAuthenticationConverter} converting a resolved {@code PAT} into an
+ * unauthenticated {@link PatTokenAuthenticationToken}.
+ *
+ * @author Janne Valkealahti
+ */
+public class ServerPatAuthenticationConverter implements ServerAuthenticationConverter {
+
+	private ServerPatTokenResolver patResolver = new DefaultServerPatTokenResolver();
+
+	@Override
+	public Mono<Authentication> convert(ServerWebExchange exchange) {
+		return Mono.fromCallable(() -> this.patResolver.resolve(exchange))
+			.map(PatTokenAuthenticationToken::unauthenticated);
+	}
+
+	/**
+	 * Sets a {@link ServerPatTokenResolver}.
+	 *
+	 * @param patResolver the token resolver
+	 */
+	public void setPatResolver(ServerPatTokenResolver patResolver) {
+		Assert.notNull(patResolver, "patResolver cannot be null");
+		this.patResolver = patResolver;
+	}
+
+}
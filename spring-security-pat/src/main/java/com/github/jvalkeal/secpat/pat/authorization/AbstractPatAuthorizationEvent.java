@@ -0,0 +1,41 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Base class for events published by a {@link PatAuthorizationRepository} when
+ * {@link PatAuthorization}s have been removed. Caching layers listen to these to
+ * evict removed authorizations.
+ *
+ * @author Janne Valkealahti
+ * @see PatAuthorizationsRemovedEvent
+ * @see PatAuthorizationsRevokedEvent
+ */
+public abstract class AbstractPatAuthorizationEvent extends ApplicationEvent {
+
+	/**
+	 * Create a new {@link AbstractPatAuthorizationEvent}.
+	 *
+	 * @param source the repository which removed authorizations
+	 */
+	protected AbstractPatAuthorizationEvent(Object source) {
+		super(source);
+	}
+
+}
@@ -0,0 +1,459 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.util.Assert;
+
+/**
+ * {@link PatAuthorizationRepository} placing a counting bloom filter in front of
+ * a delegating repository so that {@link #findByToken(String)} with an unknown
+ * token is answered without touching a delegate.
+ *
+ * Filter is built with {@link #rebuild()}, which is also called from
+ * {@link #afterPropertiesSet()}, from all authorizations passed by a loader
+ * given to a constructor, usually a delegate's
+ * {@link PatAuthorizationRepository#forEach(Consumer)}. Until it's built every
+ * lookup goes to a delegate. Saves and removes done through this repository keep
+ * the filter up to date, changes done directly to a backing store are not seen
+ * until a next rebuild. Filter can only give false positives which are then
+ * resolved by a delegate, thus it never hides a stored token as long as all
+ * writes go through this repository.
+ *
+ * Filter keeps {@code 4} bit counters, sized from an expected number of tokens
+ * and a false positive probability. For example {@code 1000000} tokens with a
+ * probability of {@code 0.01} takes about {@code 5MB} of memory. Lookups are
+ * lock free and saves only exclude a rebuild. A save increments counters before
+ * a delegate is called and rolls them back if it fails. Removes are serialized
+ * with each other so that counters of a token removed concurrently by two
+ * callers are only decremented once.
+ *
+ * If a delegate stores token digests, like {@link JdbcPatAuthorizationRepository}
+ * constructed with a {@link PatTokenDigester}, the same digester needs to be set
+ * with {@link #setTokenDigester(PatTokenDigester)}.
+ *
+ * @author Janne Valkealahti
+ */
+public class BloomFilterPatAuthorizationRepository
+		implements PatAuthorizationRepository, InitializingBean, ApplicationEventPublisherAware {
+
+	private final PatAuthorizationRepository delegate;
+
+	private final Consumer<Consumer<PatAuthorization>> loader;
+
+	private final long expectedInsertions;
+
+	private final double falsePositiveProbability;
+
+	// writes hold a read lock so that only a rebuild is exclusive
+	private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+	private final Lock removeLock = new ReentrantLock();
+
+	private final long seed = new SecureRandom().nextLong();
+
+	private volatile CountingBloomFilter filter;
+
+	private PatTokenDigester tokenDigester;
+
+	/**
+	 * Constructs a {@code BloomFilterPatAuthorizationRepository}.
+	 *
+	 * @param delegate the delegating repository
+	 * @param loader the loader passing all stored authorizations to a given action
+	 * @param expectedInsertions the expected number of tokens
+	 * @param falsePositiveProbability the false positive probability
+	 */
+	public BloomFilterPatAuthorizationRepository(PatAuthorizationRepository delegate,
+			Consumer<Consumer<PatAuthorization>> loader, long expectedInsertions, double falsePositiveProbability) {
+		Assert.notNull(delegate, "delegate cannot be null");
+		Assert.notNull(loader, "loader cannot be null");
+		Assert.isTrue(expectedInsertions > 0, "expectedInsertions must be positive");
+		Assert.isTrue(falsePositiveProbability > 0 && falsePositiveProbability < 1,
+				"falsePositiveProbability must be between 0 and 1");
+		this.delegate = delegate;
+		this.loader = loader;
+		this.expectedInsertions = expectedInsertions;
+		this.falsePositiveProbability = falsePositiveProbability;
+	}
+
+	/**
+	 * Sets a {@link PatTokenDigester} used by a delegate to store tokens.
+	 *
+	 * @param tokenDigester the token digester
+	 */
+	public void setTokenDigester(PatTokenDigester tokenDigester) {
+		this.tokenDigester = tokenDigester;
+	}
+
+	/**
+	 * Passes an {@link ApplicationEventPublisher} to a delegate so that its events
+	 * are published when only this repository is a bean.
+	 */
+	@Override
+	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+		if (this.delegate instanceof ApplicationEventPublisherAware aware) {
+			aware.setApplicationEventPublisher(applicationEventPublisher);
+		}
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		rebuild();
+	}
+
+	/**
+	 * Rebuild a filter from all authorizations passed by a loader. Writes wait
+	 * until a rebuild completes.
+	 */
+	public void rebuild() {
+		this.rebuildLock.writeLock().lock();
+		try {
+			CountingBloomFilter filter = new CountingBloomFilter(this.expectedInsertions,
+					this.falsePositiveProbability, this.seed);
+			this.loader.accept((authorization) -> filter.add(authorization.getToken()));
+			this.filter = filter;
+		}
+		finally {
+			this.rebuildLock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void save(PatAuthorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		String token = storedToken(authorization.getToken());
+		this.rebuildLock.readLock().lock();
+		try {
+			// add first so that a concurrent lookup never misses a saved token
+			CountingBloomFilter filter = this.filter;
+			if (filter != null) {
+				filter.add(token);
+			}
+			try {
+				this.delegate.save(authorization);
+			}
+			catch (RuntimeException ex) {
+				if (filter != null) {
+					filter.remove(token);
+				}
+				throw ex;
+			}
+		}
+		finally {
+			this.rebuildLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void remove(PatAuthorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		removing(() -> {
+			PatAuthorization stored = findStored(authorization);
+			return stored != null ? List.of(stored) : List.of();
+		}, () -> {
+			this.delegate.remove(authorization);
+			return null;
+		});
+	}
+
+	/**
+	 * Save authorizations to a delegate. Counters are not rolled back if a
+	 * delegate fails as a part of a batch may have been stored.
+	 */
+	@Override
+	public void saveAll(Collection<PatAuthorization> authorizations) {
+		Assert.notNull(authorizations, "authorizations cannot be null");
+		List<String> tokens = authorizations.stream()
+			.map((authorization) -> storedToken(authorization.getToken()))
+			.toList();
+		this.rebuildLock.readLock().lock();
+		try {
+			CountingBloomFilter filter = this.filter;
+			if (filter != null) {
+				tokens.forEach(filter::add);
+			}
+			this.delegate.saveAll(authorizations);
+		}
+		finally {
+			this.rebuildLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void removeAll(Collection<PatAuthorization> authorizations) {
+		Assert.notNull(authorizations, "authorizations cannot be null");
+		removing(() -> authorizations.stream().map(this::findStored).filter(Objects::nonNull).toList(), () -> {
+			this.delegate.removeAll(authorizations);
+			return null;
+		});
+	}
+
+	@Override
+	public void removeByIds(Collection<String> ids) {
+		Assert.notNull(ids, "ids cannot be null");
+		removing(() -> ids.stream().map(this.delegate::findById).filter(Objects::nonNull).toList(), () -> {
+			this.delegate.removeByIds(ids);
+			return null;
+		});
+	}
+
+	/**
+	 * Remove authorizations of a principal from a delegate and decrement counters
+	 * of tokens found for a principal before removal.
+	 */
+	@Override
+	public int removeByPrincipal(String principal) {
+		Assert.notNull(principal, "principal cannot be null");
+		return removing(() -> this.delegate.findByPrincipal(principal),
+				() -> this.delegate.removeByPrincipal(principal));
+	}
+
+	/**
+	 * Remove expired authorizations from a delegate and decrement counters of
+	 * tokens it reports as removed.
+	 */
+	@Override
+	public int removeExpired(Instant expiredBefore, int limit, Consumer<PatAuthorization> removed) {
+		Assert.notNull(removed, "removed cannot be null");
+		// filled by a delegate during removal and decremented after it
+		List<PatAuthorization> stored = new ArrayList<>();
+		int count = removing(() -> stored, () -> this.delegate.removeExpired(expiredBefore, limit, stored::add));
+		stored.forEach(removed);
+		return count;
+	}
+
+	@Override
+	public void updateLastUsedAt(Map<String, Instant> lastUsedAtById) {
+		this.delegate.updateLastUsedAt(lastUsedAtById);
+	}
+
+	@Override
+	public PatAuthorization findById(String id) {
+		return this.delegate.findById(id);
+	}
+
+	@Override
+	public PatAuthorization findByToken(String token) {
+		CountingBloomFilter filter = this.filter;
+		if (token != null && filter != null && !filter.mightContain(storedToken(token))) {
+			return null;
+		}
+		return this.delegate.findByToken(token);
+	}
+
+	@Override
+	public Map<String, PatAuthorization> findByTokens(Collection<String> tokens) {
+		CountingBloomFilter filter = this.filter;
+		if (filter == null) {
+			return this.delegate.findByTokens(tokens);
+		}
+		List<String> candidates = tokens.stream()
+			.filter((token) -> token != null && filter.mightContain(storedToken(token)))
+			.toList();
+		return candidates.isEmpty() ? Map.of() : this.delegate.findByTokens(candidates);
+	}
+
+	@Override
+	public List<PatAuthorization> findByPrincipal(String principal) {
+		return this.delegate.findByPrincipal(principal);
+	}
+
+	@Override
+	public List<PatAuthorization> findByPrincipal(String principal, PatAuthorization after, int limit) {
+		return this.delegate.findByPrincipal(principal, after, limit);
+	}
+
+	@Override
+	public Stream<PatAuthorization> streamByPrincipal(String principal) {
+		return this.delegate.streamByPrincipal(principal);
+	}
+
+	@Override
+	public void forEach(Consumer<PatAuthorization> action) {
+		this.delegate.forEach(action);
+	}
+
+	private PatAuthorization findStored(PatAuthorization authorization) {
+		return authorization.getId() != null ? this.delegate.findById(authorization.getId())
+				: this.delegate.findByToken(authorization.getToken());
+	}
+
+	// finds stored authorizations, removes them with a delegate and decrements
+	// counters of found tokens, serialized with other removes but not with saves
+	private <T> T removing(Supplier<List<PatAuthorization>> stored, Supplier<T> remove) {
+		this.rebuildLock.readLock().lock();
+		this.removeLock.lock();
+		try {
+			List<PatAuthorization> authorizations = stored.get();
+			T result = remove.get();
+			decrement(authorizations);
+			return result;
+		}
+		finally {
+			this.removeLock.unlock();
+			this.rebuildLock.readLock().unlock();
+		}
+	}
+
+	private void decrement(List<PatAuthorization> stored) {
+		CountingBloomFilter filter = this.filter;
+		if (filter != null) {
+			stored.forEach((authorization) -> filter.remove(authorization.getToken()));
+		}
+	}
+
+	private String storedToken(String token) {
+		return this.tokenDigester != null ? this.tokenDigester.digest(token) : token;
+	}
+
+	/**
+	 * Counting bloom filter with {@code 4} bit saturating counters packed into
+	 * longs. Counters are updated with a compare and set, a saturated counter is
+	 * never decremented.
+	 */
+	private static final class CountingBloomFilter {
+
+		private static final long MAX_COUNT = 0xFL;
+
+		private final AtomicLongArray counters;
+
+		private final long size;
+
+		private final int hashes;
+
+		private final long seed;
+
+		CountingBloomFilter(long expectedInsertions, double falsePositiveProbability, long seed) {
+			double ln2 = Math.log(2);
+			long size = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (ln2 * ln2));
+			size = Math.max(64, Math.min(size, (long) Integer.MAX_VALUE << 4));
+			this.size = size;
+			this.hashes = Math.max(1, (int) Math.round((double) size / expectedInsertions * ln2));
+			this.counters = new AtomicLongArray((int) ((size + 15) >>> 4));
+			this.seed = seed;
+		}
+
+		void add(String key) {
+			long hash1 = hash1(key);
+			long hash2 = hash2(hash1);
+			for (int i = 0; i < this.hashes; i++) {
+				increment(index(hash1, hash2, i));
+			}
+		}
+
+		void remove(String key) {
+			long hash1 = hash1(key);
+			long hash2 = hash2(hash1);
+			for (int i = 0; i < this.hashes; i++) {
+				decrement(index(hash1, hash2, i));
+			}
+		}
+
+		boolean mightContain(String key) {
+			long hash1 = hash1(key);
+			long hash2 = hash2(hash1);
+			for (int i = 0; i < this.hashes; i++) {
+				long index = index(hash1, hash2, i);
+				if (((this.counters.get((int) (index >>> 4)) >>> shift(index)) & MAX_COUNT) == 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void increment(long index) {
+			int word = (int) (index >>> 4);
+			int shift = shift(index);
+			while (true) {
+				long current = this.counters.get(word);
+				if (((current >>> shift) & MAX_COUNT) == MAX_COUNT) {
+					return;
+				}
+				if (this.counters.compareAndSet(word, current, current + (1L << shift))) {
+					return;
+				}
+			}
+		}
+
+		private void decrement(long index) {
+			int word = (int) (index >>> 4);
+			int shift = shift(index);
+			while (true) {
+				long current = this.counters.get(word);
+				long count = (current >>> shift) & MAX_COUNT;
+				if (count == 0 || count == MAX_COUNT) {
+					return;
+				}
+				if (this.counters.compareAndSet(word, current, current - (1L << shift))) {
+					return;
+				}
+			}
+		}
+
+		private long index(long hash1, long hash2, int i) {
+			return Math.floorMod(hash1 + i * hash2, this.size);
+		}
+
+		private static int shift(long index) {
+			return (int) (index & 15) << 2;
+		}
+
+		private long hash1(String key) {
+			// seeded fnv-1a followed by a murmur3 finalizer
+			long hash = 0xcbf29ce484222325L ^ this.seed;
+			for (int i = 0; i < key.length(); i++) {
+				hash ^= key.charAt(i);
+				hash *= 0x100000001b3L;
+			}
+			return mix(hash);
+		}
+
+		private long hash2(long hash1) {
+			return mix(hash1 ^ 0x9e3779b97f4a7c15L) | 1;
+		}
+
+		private static long mix(long hash) {
+			hash ^= hash >>> 33;
+			hash *= 0xff51afd7ed558ccdL;
+			hash ^= hash >>> 33;
+			hash *= 0xc4ceb9fe1a85ec53L;
+			hash ^= hash >>> 33;
+			return hash;
+		}
+
+	}
+
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.jvalkeal.secpat.pat.PatObservations;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * {@link PatAuthorizationService} caching {@link PatAuthorization}s acquired from
+ * a delegating {@link PatAuthorizationService}.
+ *
+ * Entries are kept in a size bounded cache keyed by a token. Lifetime of a cached
+ * authorization is a configured time to live capped by its
+ * {@link PatAuthorization#getExpiresAt() expiresAt}. Tokens not known by a
+ * delegate can be cached with a separate, typically short, time to live.
+ *
+ * Cached tokens are also indexed by an authorization id and by a principal so
+ * that all entries of a principal are evicted with
+ * {@link #invalidatePrincipal(String)}, in time proportional to a number of its
+ * cached tokens. As an {@link ApplicationListener} entries are evicted when a
+ * repository publishes a {@link PatAuthorizationsRemovedEvent} or a
+ * {@link PatAuthorizationsRevokedEvent}, otherwise a token removed from a backing
+ * store needs to be invalidated with {@link #invalidate(String)}.
+ *
+ * @author Janne Valkealahti
+ */
+public class CachingPatAuthorizationService
+		implements PatAuthorizationService, ApplicationListener<AbstractPatAuthorizationEvent> {
+
+	private static final KeyValues OBSERVATION_KEY_VALUES = KeyValues.of(PatObservations.CACHE, PatObservations.NONE);
+
+	private final PatAuthorizationService delegate;
+
+	private final Cache<String, Optional<PatAuthorization>> cache;
+
+	private final Map<String, Set<String>> tokensByPrincipal;
+
+	private final Map<String, String> tokensById;
+
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+	private CachingPatAuthorizationService(PatAuthorizationService delegate,
+			Cache<String, Optional<PatAuthorization>> cache, Map<String, Set<String>> tokensByPrincipal,
+			Map<String, String> tokensById) {
+		this.delegate = delegate;
+		this.cache = cache;
+		this.tokensByPrincipal = tokensByPrincipal;
+		this.tokensById = tokensById;
+	}
+
+	@Override
+	public PatAuthorization acquire(AcquireContext context) {
+		String token = context.token();
+		if (token == null) {
+			return this.delegate.acquire(context);
+		}
+		return PatObservations.observe(this.observationRegistry, PatObservations.ACQUIRE, OBSERVATION_KEY_VALUES,
+				(observation) -> {
+					boolean[] loaded = new boolean[1];
+					Optional<PatAuthorization> authorization = this.cache.get(token, (key) -> {
+						loaded[0] = true;
+						return index(key, Optional.ofNullable(this.delegate.acquire(context)));
+					});
+					observation.lowCardinalityKeyValue(PatObservations.CACHE,
+							loaded[0] ? PatObservations.MISS : PatObservations.HIT);
+					return authorization.orElse(null);
+				});
+	}
+
+	@Override
+	public Map<String, PatAuthorization> acquireAll(Collection<String> tokens) {
+		Map<String, Optional<PatAuthorization>> cached = this.cache.getAll(tokens, this::acquireMissing);
+		Map<String, PatAuthorization> authorizations = new LinkedHashMap<>();
+		cached.forEach((token, authorization) -> authorization.ifPresent((a) -> authorizations.put(token, a)));
+		return authorizations;
+	}
+
+	private Map<String, Optional<PatAuthorization>> acquireMissing(Set<? extends String> tokens) {
+		Map<String, PatAuthorization> acquired = this.delegate.acquireAll(List.copyOf(tokens));
+		Map<String, Optional<PatAuthorization>> loaded = new LinkedHashMap<>();
+		tokens.forEach((token) -> loaded.put(token, index(token, Optional.ofNullable(acquired.get(token)))));
+		return loaded;
+	}
+
+	private Optional<PatAuthorization> index(String token, Optional<PatAuthorization> authorization) {
+		authorization.ifPresent((a) -> {
+			this.tokensByPrincipal.computeIfAbsent(a.getPrincipal(), (principal) -> ConcurrentHashMap.newKeySet())
+				.add(token);
+			if (a.getId() != null) {
+				this.tokensById.put(a.getId(), token);
+			}
+		});
+		return authorization;
+	}
+
+	/**
+	 * Sets an {@link ObservationRegistry} used to observe acquires. Cache hits and
+	 * misses are recorded with a {@code cache} key. Defaults to
+	 * {@link ObservationRegistry#NOOP}.
+	 *
+	 * @param observationRegistry the observation registry
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * Invalidate a cached entry for a token.
+	 *
+	 * @param token the token
+	 */
+	public void invalidate(String token) {
+		Assert.notNull(token, "token cannot be null");
+		Optional<PatAuthorization> removed = this.cache.asMap().remove(token);
+		if (removed != null) {
+			unindex(this.tokensByPrincipal, this.tokensById, token, removed);
+		}
+	}
+
+	/**
+	 * Invalidate cached entries of all tokens of a principal.
+	 *
+	 * @param principal the principal
+	 */
+	public void invalidatePrincipal(String principal) {
+		Assert.notNull(principal, "principal cannot be null");
+		Set<String> tokens = this.tokensByPrincipal.remove(principal);
+		if (tokens != null) {
+			for (String token : tokens) {
+				Optional<PatAuthorization> removed = this.cache.asMap().remove(token);
+				if (removed != null) {
+					removed.map(PatAuthorization::getId).ifPresent((id) -> this.tokensById.remove(id, token));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Invalidate all cached entries.
+	 */
+	public void invalidateAll() {
+		this.cache.invalidateAll();
+		this.tokensByPrincipal.clear();
+		this.tokensById.clear();
+	}
+
+	@Override
+	public void onApplicationEvent(AbstractPatAuthorizationEvent event) {
+		if (event instanceof PatAuthorizationsRevokedEvent revokedEvent) {
+			invalidatePrincipal(revokedEvent.getPrincipal());
+		}
+		else if (event instanceof PatAuthorizationsRemovedEvent removedEvent) {
+			removedEvent.getTokens().forEach(this::invalidate);
+			for (String id : removedEvent.getIds()) {
+				String token = this.tokensById.get(id);
+				if (token != null) {
+					invalidate(token);
+				}
+			}
+		}
+	}
+
+	private static void unindex(Map<String, Set<String>> tokensByPrincipal, Map<String, String> tokensById,
+			String token, Optional<PatAuthorization> authorization) {
+		authorization.ifPresent((a) -> {
+			tokensByPrincipal.computeIfPresent(a.getPrincipal(), (principal, tokens) -> {
+				tokens.remove(token);
+				return tokens.isEmpty() ? null : tokens;
+			});
+			if (a.getId() != null) {
+				tokensById.remove(a.getId(), token);
+			}
+		});
+	}
+
+	/**
+	 * Create a new {@link Builder} for a {@link CachingPatAuthorizationService}.
+	 *
+	 * @param delegate the delegating authorization service
+	 * @return a new builder
+	 */
+	public static Builder builder(PatAuthorizationService delegate) {
+		return new Builder(delegate);
+	}
+
+	/**
+	 * Builder for {@link CachingPatAuthorizationService}.
+	 */
+	public static final class Builder {
+
+		private final PatAuthorizationService delegate;
+
+		private long maximumSize = 10000;
+
+		private Duration timeToLive = Duration.ofMinutes(5);
+
+		private Duration negativeTimeToLive = Duration.ZERO;
+
+		private Clock clock = Clock.systemUTC();
+
+		private Builder(PatAuthorizationService delegate) {
+			Assert.notNull(delegate, "delegate cannot be null");
+			this.delegate = delegate;
+		}
+
+		/**
+		 * Sets a maximum number of cached tokens. Defaults to {@code 10000}.
+		 *
+		 * @param maximumSize the maximum size
+		 * @return this builder
+		 */
+		public Builder maximumSize(long maximumSize) {
+			Assert.isTrue(maximumSize >= 0, "maximumSize cannot be negative");
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/**
+		 * Sets a maximum time to live for a cached authorization. Actual time is
+		 * capped by an authorization expiry. Defaults to {@code 5} minutes.
+		 *
+		 * @param timeToLive the time to live
+		 * @return this builder
+		 */
+		public Builder timeToLive(Duration timeToLive) {
+			Assert.notNull(timeToLive, "timeToLive cannot be null");
+			Assert.isTrue(!timeToLive.isNegative(), "timeToLive cannot be negative");
+			this.timeToLive = timeToLive;
+			return this;
+		}
+
+		/**
+		 * Sets a time to live for a token not known by a delegate. Defaults to
+		 * {@link Duration#ZERO} which disables negative caching.
+		 *
+		 * @param negativeTimeToLive the negative time to live
+		 * @return this builder
+		 */
+		public Builder negativeTimeToLive(Duration negativeTimeToLive) {
+			Assert.notNull(negativeTimeToLive, "negativeTimeToLive cannot be null");
+			Assert.isTrue(!negativeTimeToLive.isNegative(), "negativeTimeToLive cannot be negative");
+			this.negativeTimeToLive = negativeTimeToLive;
+			return this;
+		}
+
+		/**
+		 * Sets a {@link Clock} used to compare against authorization expiry.
+		 *
+		 * @param clock the clock
+		 * @return this builder
+		 */
+		public Builder clock(Clock clock) {
+			Assert.notNull(clock, "clock cannot be null");
+			this.clock = clock;
+			return this;
+		}
+
+		/**
+		 * Builds a {@link CachingPatAuthorizationService}.
+		 *
+		 * @return a caching authorization service
+		 */
+		public CachingPatAuthorizationService build() {
+			Map<String, Set<String>> tokensByPrincipal = new ConcurrentHashMap<>();
+			Map<String, String> tokensById = new ConcurrentHashMap<>();
+			Cache<String, Optional<PatAuthorization>> cache = Caffeine.newBuilder()
+				.maximumSize(this.maximumSize)
+				.expireAfter(new AuthorizationExpiry(this.timeToLive, this.negativeTimeToLive, this.clock))
+				// keeps indexes in sync with size and expiry evictions
+				.<String, Optional<PatAuthorization>>evictionListener(
+						(token, authorization, cause) -> unindex(tokensByPrincipal, tokensById, token, authorization))
+				.build();
+			return new CachingPatAuthorizationService(this.delegate, cache, tokensByPrincipal, tokensById);
+		}
+
+	}
+
+	private static final class AuthorizationExpiry implements Expiry<String, Optional<PatAuthorization>> {
+
+		private final Duration timeToLive;
+
+		private final Duration negativeTimeToLive;
+
+		private final Clock clock;
+
+		AuthorizationExpiry(Duration timeToLive, Duration negativeTimeToLive, Clock clock) {
+			this.timeToLive = timeToLive;
+			this.negativeTimeToLive = negativeTimeToLive;
+			this.clock = clock;
+		}
+
+		@Override
+		public long expireAfterCreate(String key, Optional<PatAuthorization> value, long currentTime) {
+			if (value.isEmpty()) {
+				return this.negativeTimeToLive.toNanos();
+			}
+			Duration duration = this.timeToLive;
+			Instant expiresAt = value.get().getExpiresAt();
+			if (expiresAt != null) {
+				Duration untilExpiry = Duration.between(Instant.now(this.clock), expiresAt);
+				if (untilExpiry.isNegative()) {
+					return 0;
+				}
+				if (untilExpiry.compareTo(duration) < 0) {
+					duration = untilExpiry;
+				}
+			}
+			return duration.toNanos();
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, Optional<PatAuthorization> value, long currentTime,
+				long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, Optional<PatAuthorization> value, long currentTime,
+				long currentDuration) {
+			return currentDuration;
+		}
+
+	}
+
+}
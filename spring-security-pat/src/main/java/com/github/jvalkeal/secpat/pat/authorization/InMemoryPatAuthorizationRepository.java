@@ -16,53 +16,469 @@
 
 package com.github.jvalkeal.secpat.pat.authorization;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
-import org.springframework.util.ObjectUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.Assert;
+
+import com.github.jvalkeal.secpat.pat.PatObservations;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.ObservationRegistry;
 
 /**
  * In-Memory implementation of a {@link PatAuthorizationRepository}.
  *
+ * Authorizations are kept in a token index together with secondary id and
+ * principal indexes so that every lookup is a single hash lookup. Writes don't
+ * take a repository wide lock, instead all index changes of a token are done
+ * within a {@code compute} of that token in a token index, which serializes a
+ * save and a remove of a same token and never leaves an entry behind in an id
+ * or a principal index. Lookups don't lock, thus while a write is in progress a
+ * lookup from one index may see it before a lookup from another.
+ * {@link #removeByPrincipal(String)} takes out a whole principal index entry in
+ * one step and publishes a {@link PatAuthorizationsRevokedEvent}, other removes
+ * except expiry publish a {@link PatAuthorizationsRemovedEvent}.
+ *
+ * Every authorization is scheduled on a hierarchical timing wheel at its
+ * {@code expiresAt} so that {@link #removeExpired(Instant, int)} only touches
+ * expired authorizations instead of scanning all of them. When an eviction
+ * interval is set and this repository is started as a {@link SmartLifecycle} a
+ * dedicated daemon thread advances the wheel and evicts authorizations as they
+ * expire. Lookups then hide expired authorizations by comparing against a time
+ * the wheel was last advanced to, without reading a clock per lookup.
+ *
  * @author Janne Valkealahti
  */
-public class InMemoryPatAuthorizationRepository implements PatAuthorizationRepository {
+public class InMemoryPatAuthorizationRepository
+		implements PatAuthorizationRepository, SmartLifecycle, ApplicationEventPublisherAware {
+
+	private static final KeyValues FIND_BY_ID_KEY_VALUES = lookupKeyValues("findById");
+
+	private static final KeyValues FIND_BY_TOKEN_KEY_VALUES = lookupKeyValues("findByToken");
+
+	private static final KeyValues FIND_BY_PRINCIPAL_KEY_VALUES = lookupKeyValues("findByPrincipal");
+
+	private final Map<String, PatAuthorization> authorizations = new ConcurrentHashMap<>();
+
+	private final Map<String, PatAuthorization> authorizationsById = new ConcurrentHashMap<>();
+
+	private final Map<String, Set<PatAuthorization>> authorizationsByPrincipal = new ConcurrentHashMap<>();
+
+	private final Map<String, TimingWheel.Node<String>> expirations = new ConcurrentHashMap<>();
+
+	private final TimingWheel<String> expirationWheel;
 
-	private Map<String, PatAuthorization> authorizations = new ConcurrentHashMap<>();
+	private final Clock clock;
+
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+	private ApplicationEventPublisher applicationEventPublisher;
+
+	private Duration evictionInterval;
+
+	private ScheduledExecutorService executor;
+
+	private volatile boolean evicting;
+
+	public InMemoryPatAuthorizationRepository() {
+		this(Clock.systemUTC());
+	}
+
+	/**
+	 * Create an {@link InMemoryPatAuthorizationRepository} using a given clock
+	 * when evicting expired authorizations.
+	 *
+	 * @param clock the clock
+	 */
+	public InMemoryPatAuthorizationRepository(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+		this.expirationWheel = new TimingWheel<>(1000, clock.millis());
+	}
 
 	@Override
 	public void save(PatAuthorization authorization) {
-		if (findByToken(authorization.getToken()) != null) {
-			throw new IllegalArgumentException("Can't save with existing same token");
-		}
-		authorizations.put(authorization.getToken(), authorization);
+		Assert.notNull(authorization, "authorization cannot be null");
+		// index maps are only ever locked after a token, never the other way around
+		authorizations.compute(authorization.getToken(), (token, existing) -> {
+			if (existing != null) {
+				throw new IllegalArgumentException("Can't save with existing same token");
+			}
+			String id = authorization.getId();
+			if (id != null && authorizationsById.putIfAbsent(id, authorization) != null) {
+				throw new IllegalArgumentException("Can't save with existing same id");
+			}
+			authorizationsByPrincipal.compute(authorization.getPrincipal(), (principal, principalAuthorizations) -> {
+				Set<PatAuthorization> set = principalAuthorizations != null ? principalAuthorizations
+						: ConcurrentHashMap.newKeySet();
+				set.add(authorization);
+				return set;
+			});
+			if (authorization.getExpiresAt() != null) {
+				expirations.put(token, expirationWheel.schedule(token, authorization.getExpiresAt().toEpochMilli()));
+			}
+			return authorization;
+		});
 	}
 
 	@Override
 	public void remove(PatAuthorization authorization) {
-		authorizations.remove(authorization.getToken());
+		Assert.notNull(authorization, "authorization cannot be null");
+		PatAuthorization removed = removeByToken(authorization.getToken());
+		if (removed != null) {
+			publishRemoved(List.of(removed));
+		}
+	}
+
+	/**
+	 * Save many authorizations all-or-nothing on failure, if any of them can't be
+	 * saved those already saved are removed again. This is not isolated, other
+	 * callers may see a part of a batch before it is rolled back, and a rollback
+	 * only removes authorizations saved by this call, never another authorization
+	 * concurrently saved with a same token. A rollback does not publish events.
+	 *
+	 * @param authorizations the pat authorizations
+	 */
+	@Override
+	public void saveAll(Collection<PatAuthorization> authorizations) {
+		Assert.notNull(authorizations, "authorizations cannot be null");
+		List<PatAuthorization> saved = new ArrayList<>(authorizations.size());
+		try {
+			for (PatAuthorization authorization : authorizations) {
+				save(authorization);
+				saved.add(authorization);
+			}
+		}
+		catch (IllegalArgumentException ex) {
+			saved.forEach(this::removeIfSame);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void removeByIds(Collection<String> ids) {
+		Assert.notNull(ids, "ids cannot be null");
+		List<PatAuthorization> removed = new ArrayList<>();
+		for (String id : ids) {
+			PatAuthorization authorization = id != null ? authorizationsById.get(id) : null;
+			if (authorization != null) {
+				authorization = removeByToken(authorization.getToken());
+				if (authorization != null) {
+					removed.add(authorization);
+				}
+			}
+		}
+		publishRemoved(removed);
+	}
+
+	@Override
+	public int removeByPrincipal(String principal) {
+		Assert.notNull(principal, "principal cannot be null");
+		Set<PatAuthorization> principalAuthorizations = authorizationsByPrincipal.remove(principal);
+		if (principalAuthorizations == null) {
+			return 0;
+		}
+		int removed = 0;
+		for (PatAuthorization authorization : principalAuthorizations) {
+			if (removeIfSame(authorization)) {
+				removed++;
+			}
+		}
+		if (removed > 0 && this.applicationEventPublisher != null) {
+			this.applicationEventPublisher
+				.publishEvent(new PatAuthorizationsRevokedEvent(this, principal, removed));
+		}
+		return removed;
+	}
+
+	@Override
+	public int removeExpired(Instant expiredBefore, int limit, Consumer<PatAuthorization> removed) {
+		Assert.notNull(expiredBefore, "expiredBefore cannot be null");
+		Assert.notNull(removed, "removed cannot be null");
+		long expiredBeforeMillis = expiredBefore.toEpochMilli();
+		expirationWheel.advance(expiredBeforeMillis);
+		int count = 0;
+		for (TimingWheel.Node<String> node : expirationWheel.poll(expiredBeforeMillis, limit)) {
+			// a node may have been replaced if a token was removed and saved again,
+			// checked within a compute of a token so that a concurrent save wins
+			PatAuthorization authorization = removeByTokenIf(node.getValue(),
+					(stored) -> expirations.get(node.getValue()) == node);
+			if (authorization != null) {
+				removed.accept(authorization);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Update last used times by replacing stored authorizations with copies
+	 * carrying a new time. Like other writes a copy is swapped into all indexes
+	 * within a {@code compute} of its token, thus an authorization concurrently
+	 * removed is never put back.
+	 */
+	@Override
+	public void updateLastUsedAt(Map<String, Instant> lastUsedAtById) {
+		Assert.notNull(lastUsedAtById, "lastUsedAtById cannot be null");
+		lastUsedAtById.forEach((id, lastUsedAt) -> {
+			PatAuthorization stored = id != null ? authorizationsById.get(id) : null;
+			if (stored == null || lastUsedAt == null) {
+				return;
+			}
+			authorizations.computeIfPresent(stored.getToken(), (token, current) -> {
+				if (!id.equals(current.getId())
+						|| (current.getLastUsedAt() != null && !current.getLastUsedAt().isBefore(lastUsedAt))) {
+					return current;
+				}
+				PatAuthorization updated = PatAuthorization.from(current).lastUsedAt(lastUsedAt).build();
+				authorizationsById.replace(id, current, updated);
+				authorizationsByPrincipal.computeIfPresent(current.getPrincipal(),
+						(principal, principalAuthorizations) -> {
+							if (principalAuthorizations.remove(current)) {
+								principalAuthorizations.add(updated);
+							}
+							return principalAuthorizations;
+						});
+				return updated;
+			});
+		});
 	}
 
 	@Override
 	public PatAuthorization findById(String id) {
-		return authorizations.values().stream()
-			.filter(pa -> ObjectUtils.nullSafeEquals(pa.getId(), id))
-			.findFirst()
-			.orElse(null);
+		if (id == null) {
+			return null;
+		}
+		return PatObservations.observe(this.observationRegistry, PatObservations.LOOKUP, FIND_BY_ID_KEY_VALUES,
+				(observation) -> unlessExpired(authorizationsById.get(id)));
 	}
 
 	@Override
 	public PatAuthorization findByToken(String token) {
-		return authorizations.get(token);
+		return PatObservations.observe(this.observationRegistry, PatObservations.LOOKUP, FIND_BY_TOKEN_KEY_VALUES,
+				(observation) -> unlessExpired(authorizations.get(token)));
 	}
 
 	@Override
 	public List<PatAuthorization> findByPrincipal(String principal) {
-		return authorizations.values().stream()
-			.filter(pa -> ObjectUtils.nullSafeEquals(pa.getPrincipal(), principal))
-			.collect(Collectors.toList());
+		if (principal == null) {
+			return Collections.emptyList();
+		}
+		return PatObservations.observe(this.observationRegistry, PatObservations.LOOKUP, FIND_BY_PRINCIPAL_KEY_VALUES,
+				(observation) -> {
+					Set<PatAuthorization> principalAuthorizations = authorizationsByPrincipal.get(principal);
+					List<PatAuthorization> found = new ArrayList<>();
+					if (principalAuthorizations != null) {
+						for (PatAuthorization authorization : principalAuthorizations) {
+							if (unlessExpired(authorization) != null) {
+								found.add(authorization);
+							}
+						}
+					}
+					return found;
+				});
+	}
+
+	/**
+	 * Find a page of authorizations with given principal by keeping a bounded heap
+	 * of a page size while iterating a principal index, instead of sorting all
+	 * authorizations of a principal.
+	 */
+	@Override
+	public List<PatAuthorization> findByPrincipal(String principal, PatAuthorization after, int limit) {
+		Assert.isTrue(limit > 0, "limit must be positive");
+		if (principal == null) {
+			return Collections.emptyList();
+		}
+		return PatObservations.observe(this.observationRegistry, PatObservations.LOOKUP, FIND_BY_PRINCIPAL_KEY_VALUES,
+				(observation) -> {
+					Set<PatAuthorization> principalAuthorizations = authorizationsByPrincipal.get(principal);
+					if (principalAuthorizations == null) {
+						return new ArrayList<>();
+					}
+					PriorityQueue<PatAuthorization> page = new PriorityQueue<>(PAGE_ORDER.reversed());
+					for (PatAuthorization authorization : principalAuthorizations) {
+						if (unlessExpired(authorization) == null
+								|| (after != null && PAGE_ORDER.compare(authorization, after) <= 0)) {
+							continue;
+						}
+						if (page.size() < limit) {
+							page.add(authorization);
+						}
+						else if (PAGE_ORDER.compare(authorization, page.peek()) < 0) {
+							page.poll();
+							page.add(authorization);
+						}
+					}
+					List<PatAuthorization> found = new ArrayList<>(page);
+					found.sort(PAGE_ORDER);
+					return found;
+				});
+	}
+
+	@Override
+	public void forEach(Consumer<PatAuthorization> action) {
+		Assert.notNull(action, "action cannot be null");
+		authorizations.values().forEach(action);
+	}
+
+	/**
+	 * Sets an {@link ObservationRegistry} used to observe lookups. Defaults to
+	 * {@link ObservationRegistry#NOOP}.
+	 *
+	 * @param observationRegistry the observation registry
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
+	@Override
+	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+		this.applicationEventPublisher = applicationEventPublisher;
+	}
+
+	/**
+	 * Sets an interval expired authorizations are evicted in when this repository
+	 * is started. Defaults to {@code null} meaning authorizations are only removed
+	 * with {@link #removeExpired(Instant, int)}.
+	 *
+	 * @param evictionInterval the eviction interval
+	 */
+	public void setEvictionInterval(Duration evictionInterval) {
+		Assert.isTrue(evictionInterval == null || (!evictionInterval.isNegative() && !evictionInterval.isZero()),
+				"evictionInterval must be positive");
+		this.evictionInterval = evictionInterval;
+	}
+
+	/**
+	 * Evict authorizations expired by a current time of a clock.
+	 *
+	 * @return the number of evicted authorizations
+	 */
+	public int evictExpired() {
+		return removeExpired(Instant.ofEpochMilli(this.clock.millis() + 1), Integer.MAX_VALUE);
+	}
+
+	@Override
+	public synchronized void start() {
+		if (this.executor != null || this.evictionInterval == null) {
+			return;
+		}
+		this.executor = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+			Thread thread = new Thread(runnable, "pat-authorization-eviction");
+			thread.setDaemon(true);
+			return thread;
+		});
+		evictExpired();
+		this.evicting = true;
+		long millis = this.evictionInterval.toMillis();
+		this.executor.scheduleWithFixedDelay(this::evictExpired, millis, millis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (this.executor != null) {
+			this.evicting = false;
+			this.executor.shutdownNow();
+			this.executor = null;
+		}
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return this.executor != null;
+	}
+
+	private PatAuthorization removeByToken(String token) {
+		return removeByToken(token, null);
+	}
+
+	private boolean removeIfSame(PatAuthorization authorization) {
+		return removeByToken(authorization.getToken(), authorization) != null;
+	}
+
+	// removes a token unless an expected authorization is given and a token is
+	// stored for some other one, a copy with an updated last used time is
+	// still a same authorization
+	private PatAuthorization removeByToken(String token, PatAuthorization expected) {
+		return removeByTokenIf(token, (authorization) -> expected == null || authorization == expected
+				|| (expected.getId() != null && expected.getId().equals(authorization.getId())));
+	}
+
+	// removes a token if a stored authorization matches a predicate evaluated
+	// within a compute of a token together with all index updates
+	private PatAuthorization removeByTokenIf(String token, Predicate<PatAuthorization> matches) {
+		PatAuthorization[] removed = new PatAuthorization[1];
+		authorizations.computeIfPresent(token, (key, authorization) -> {
+			if (!matches.test(authorization)) {
+				return authorization;
+			}
+			cancelExpiration(key);
+			if (authorization.getId() != null) {
+				authorizationsById.remove(authorization.getId(), authorization);
+			}
+			authorizationsByPrincipal.computeIfPresent(authorization.getPrincipal(),
+					(principal, principalAuthorizations) -> {
+						principalAuthorizations.remove(authorization);
+						return principalAuthorizations.isEmpty() ? null : principalAuthorizations;
+					});
+			removed[0] = authorization;
+			return null;
+		});
+		return removed[0];
+	}
+
+	private void publishRemoved(List<PatAuthorization> removed) {
+		if (removed.isEmpty() || this.applicationEventPublisher == null) {
+			return;
+		}
+		List<String> ids = new ArrayList<>();
+		List<String> tokens = new ArrayList<>();
+		for (PatAuthorization authorization : removed) {
+			if (authorization.getId() != null) {
+				ids.add(authorization.getId());
+			}
+			tokens.add(authorization.getToken());
+		}
+		this.applicationEventPublisher.publishEvent(new PatAuthorizationsRemovedEvent(this, ids, tokens));
+	}
+
+	private void cancelExpiration(String token) {
+		TimingWheel.Node<String> expiration = expirations.get(token);
+		if (expiration != null && expirations.remove(token, expiration)) {
+			expirationWheel.cancel(expiration);
+		}
+	}
+
+	private PatAuthorization unlessExpired(PatAuthorization authorization) {
+		if (authorization != null && this.evicting && authorization.getExpiresAt() != null
+				&& authorization.getExpiresAt().toEpochMilli() <= expirationWheel.currentTimeMillis()) {
+			return null;
+		}
+		return authorization;
+	}
+
+	private static KeyValues lookupKeyValues(String operation) {
+		return KeyValues.of(PatObservations.REPOSITORY, "in-memory", PatObservations.OPERATION, operation);
 	}
 
 }
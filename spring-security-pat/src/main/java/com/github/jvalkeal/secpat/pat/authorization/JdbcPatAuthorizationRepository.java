@@ -20,53 +20,171 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SqlParameterValue;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
+import com.github.jvalkeal.secpat.pat.PatObservations;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.ObservationRegistry;
+
 /**
  * JDBC implementation of a {@link PatAuthorizationRepository}.
  *
+ * When constructed with a {@link PatTokenDigester}, a raw token is never stored.
+ * Instead a digest of it is kept in a uniquely indexed {@code token_digest} column
+ * and lookups by token are done using that digest. In this mode authorizations
+ * loaded from a database carry the digest as their token. Schema for this mode
+ * is in {@code pat-authorization-service-digest-schema.sql}.
+ *
+ * A {@code last_used_at} column is only read and written when constructed with
+ * last used tracking enabled, so that tables created before the column existed
+ * keep working. Without it {@link #updateLastUsedAt(Map)} fails instead of
+ * dropping usage given by a {@link PatUsageTracker}.
+ * Shipped schemas have the column and
+ * {@code pat-authorization-service-last-used-at-migration.sql} adds it to an
+ * existing table.
+ *
+ * Authorizations of a principal are paged with a keyset on
+ * {@code issued_at, id} and streamed with a cursor of a configured fetch size,
+ * both served by a {@code principal, issued_at, id} index in shipped schemas.
+ * The same index serves {@link #removeByPrincipal(String)} which deletes with a
+ * single statement and publishes a {@link PatAuthorizationsRevokedEvent}. Other
+ * removes except purging expired authorizations publish a
+ * {@link PatAuthorizationsRemovedEvent} so that caches can evict removed tokens.
+ *
  * @author Janne Valkealahti
  */
-public class JdbcPatAuthorizationRepository implements PatAuthorizationRepository {
+public class JdbcPatAuthorizationRepository implements PatAuthorizationRepository, ApplicationEventPublisherAware {
 
-	private static final String COLUMN_NAMES = "id, "
-			+ "name, "
-			+ "description, "
-			+ "token, "
-			+ "principal, "
-			+ "scopes, "
-			+ "issued_at, "
-			+ "expires_at, "
-			+ "not_before";
+	private static final String TOKEN_COLUMN_NAME = "token";
+
+	private static final String TOKEN_DIGEST_COLUMN_NAME = "token_digest";
 
 	private static final String TABLE_NAME = "pat_authorizations";
 
-	private static final String LOAD_PAT_AUTHORIZATION_SQL = "SELECT " + COLUMN_NAMES + " FROM " + TABLE_NAME
-			+ " WHERE ";
+	// keeps IN lists within limits of common databases
+	private static final int FIND_BY_TOKENS_CHUNK_SIZE = 100;
+
+	private static final int DEFAULT_BATCH_SIZE = 100;
+
+	private static final int DEFAULT_FETCH_SIZE = 100;
+
+	private static final String PRINCIPAL_ORDER_BY = " ORDER BY issued_at, id";
 
-	private static final String INSERT_PAT_AUTHORIZATION_SQL = "INSERT INTO " + TABLE_NAME
-			+ "(" + COLUMN_NAMES + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+	private static final KeyValues FIND_BY_ID_KEY_VALUES = lookupKeyValues("findById");
 
-	private static final String DELETE_PAT_AUTHORIZATION_SQL = "DELETE FROM " + TABLE_NAME
-			+ " WHERE ";
+	private static final KeyValues FIND_BY_TOKEN_KEY_VALUES = lookupKeyValues("findByToken");
+
+	private static final KeyValues FIND_BY_TOKENS_KEY_VALUES = lookupKeyValues("findByTokens");
+
+	private static final KeyValues FIND_BY_PRINCIPAL_KEY_VALUES = lookupKeyValues("findByPrincipal");
 
 	private final JdbcOperations jdbcOperations;
 
+	private final PatTokenDigester tokenDigester;
+
+	private final String tokenColumnName;
+
+	private final boolean lastUsedAtEnabled;
+
+	private final String loadPatAuthorizationSql;
+
+	private final String loadAllPatAuthorizationsSql;
+
+	private final String insertPatAuthorizationSql;
+
+	private final String deletePatAuthorizationSql;
+
+	private final String loadExpiredPatAuthorizationIdsSql;
+
+	private final String loadExpiredPatAuthorizationsSql;
+
+	private final String loadPrincipalPatAuthorizationsSql;
+
+	private final String loadPrincipalPatAuthorizationsAfterSql;
+
+	private final String updateLastUsedAtSql;
+
 	private PatAuthorizationRowMapper patAuthorizationRowMapper;
 
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	private int fetchSize = DEFAULT_FETCH_SIZE;
+
+	private ApplicationEventPublisher applicationEventPublisher;
+
 	public JdbcPatAuthorizationRepository(JdbcOperations jdbcOperations) {
+		this(jdbcOperations, null);
+	}
+
+	/**
+	 * Constructs a {@code JdbcPatAuthorizationRepository} storing token digests
+	 * created with a given {@link PatTokenDigester}. If digester is {@code null}
+	 * raw tokens are stored.
+	 *
+	 * @param jdbcOperations the jdbc operations
+	 * @param tokenDigester the token digester
+	 */
+	public JdbcPatAuthorizationRepository(JdbcOperations jdbcOperations, PatTokenDigester tokenDigester) {
+		this(jdbcOperations, tokenDigester, false);
+	}
+
+	/**
+	 * Constructs a {@code JdbcPatAuthorizationRepository} storing token digests
+	 * created with a given {@link PatTokenDigester} and optionally tracking last
+	 * used times in a {@code last_used_at} column. If digester is {@code null} raw
+	 * tokens are stored.
+	 *
+	 * @param jdbcOperations the jdbc operations
+	 * @param tokenDigester the token digester
+	 * @param lastUsedAtEnabled whether a {@code last_used_at} column is used
+	 */
+	public JdbcPatAuthorizationRepository(JdbcOperations jdbcOperations, PatTokenDigester tokenDigester,
+			boolean lastUsedAtEnabled) {
 		Assert.notNull(jdbcOperations, "jdbcOperations cannot be null");
 		this.jdbcOperations = jdbcOperations;
-		this.patAuthorizationRowMapper = new PatAuthorizationRowMapper();
+		this.tokenDigester = tokenDigester;
+		this.tokenColumnName = tokenDigester != null ? TOKEN_DIGEST_COLUMN_NAME : TOKEN_COLUMN_NAME;
+		this.lastUsedAtEnabled = lastUsedAtEnabled;
+		String columnNames = columnNames(this.tokenColumnName, lastUsedAtEnabled);
+		this.loadAllPatAuthorizationsSql = "SELECT " + columnNames + " FROM " + TABLE_NAME;
+		this.loadPatAuthorizationSql = this.loadAllPatAuthorizationsSql + " WHERE ";
+		this.insertPatAuthorizationSql = "INSERT INTO " + TABLE_NAME + "(" + columnNames
+				+ ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?" + (lastUsedAtEnabled ? ", ?" : "") + ")";
+		this.deletePatAuthorizationSql = "DELETE FROM " + TABLE_NAME + " WHERE ";
+		this.loadExpiredPatAuthorizationIdsSql = "SELECT id FROM " + TABLE_NAME + " WHERE expires_at < ?";
+		this.loadExpiredPatAuthorizationsSql = this.loadPatAuthorizationSql + "expires_at < ?";
+		this.loadPrincipalPatAuthorizationsSql = this.loadPatAuthorizationSql + "principal = ?"
+				+ PRINCIPAL_ORDER_BY;
+		this.loadPrincipalPatAuthorizationsAfterSql = this.loadPatAuthorizationSql
+				+ "principal = ? AND (issued_at > ? OR (issued_at = ? AND id > ?))" + PRINCIPAL_ORDER_BY;
+		this.updateLastUsedAtSql = "UPDATE " + TABLE_NAME
+				+ " SET last_used_at = ? WHERE id = ? AND (last_used_at IS NULL OR last_used_at < ?)";
+		this.patAuthorizationRowMapper = new PatAuthorizationRowMapper(this.tokenColumnName, lastUsedAtEnabled);
 	}
 
 	@Override
@@ -77,22 +195,285 @@ public class JdbcPatAuthorizationRepository implements PatAuthorizationRepositor
 
 	@Override
 	public void remove(PatAuthorization authorization) {
-		deleteBy("token = ?", authorization.getToken());
+		Assert.notNull(authorization, "authorization cannot be null");
+		int removed;
+		if (this.tokenDigester != null && StringUtils.hasText(authorization.getId())) {
+			// loaded authorizations carry a digest as a token, thus use id
+			removed = deleteBy("id = ?", authorization.getId());
+		}
+		else {
+			removed = deleteBy(this.tokenColumnName + " = ?", tokenValue(authorization.getToken()));
+		}
+		if (removed > 0) {
+			publishRemoved(List.of(authorization));
+		}
+	}
+
+	/**
+	 * Save many authorizations using JDBC batches of a configured batch size. Wrap
+	 * a call into a transaction to make it atomic.
+	 *
+	 * @param authorizations the pat authorizations
+	 */
+	@Override
+	public void saveAll(Collection<PatAuthorization> authorizations) {
+		Assert.notNull(authorizations, "authorizations cannot be null");
+		if (authorizations.isEmpty()) {
+			return;
+		}
+		this.jdbcOperations.batchUpdate(this.insertPatAuthorizationSql, authorizations, this.batchSize,
+				(ps, authorization) -> {
+					List<SqlParameterValue> parameters = this.patAuthorizationRowMapper
+						.getSqlParameterValues(authorization, tokenValue(authorization.getToken()));
+					new ArgumentPreparedStatementSetter(parameters.toArray()).setValues(ps);
+				});
+	}
+
+	@Override
+	public void removeAll(Collection<PatAuthorization> authorizations) {
+		Assert.notNull(authorizations, "authorizations cannot be null");
+		List<String> ids = new ArrayList<>();
+		List<String> tokens = new ArrayList<>();
+		for (PatAuthorization authorization : authorizations) {
+			Assert.notNull(authorization, "authorization cannot be null");
+			if (this.tokenDigester != null && StringUtils.hasText(authorization.getId())) {
+				ids.add(authorization.getId());
+			}
+			else {
+				tokens.add(tokenValue(authorization.getToken()));
+			}
+		}
+		int removed = deleteAllBy("id", ids) + deleteAllBy(this.tokenColumnName, tokens);
+		if (removed > 0) {
+			publishRemoved(authorizations);
+		}
+	}
+
+	@Override
+	public void removeByIds(Collection<String> ids) {
+		Assert.notNull(ids, "ids cannot be null");
+		List<String> values = ids.stream().filter(StringUtils::hasText).toList();
+		if (deleteAllBy("id", values) > 0 && this.applicationEventPublisher != null) {
+			this.applicationEventPublisher.publishEvent(new PatAuthorizationsRemovedEvent(this, values, List.of()));
+		}
+	}
+
+	@Override
+	public int removeByPrincipal(String principal) {
+		Assert.notNull(principal, "principal cannot be null");
+		int removed = deleteBy("principal = ?", principal);
+		if (removed > 0 && this.applicationEventPublisher != null) {
+			this.applicationEventPublisher
+				.publishEvent(new PatAuthorizationsRevokedEvent(this, principal, removed));
+		}
+		return removed;
+	}
+
+	/**
+	 * Remove expired authorizations by first selecting at most {@code limit} ids
+	 * using an {@code expires_at} index and then deleting those by primary key in
+	 * chunks of a configured batch size, so that no single statement holds locks
+	 * for long.
+	 */
+	@Override
+	public int removeExpired(Instant expiredBefore, int limit) {
+		Assert.notNull(expiredBefore, "expiredBefore cannot be null");
+		Assert.isTrue(limit > 0, "limit must be positive");
+		PreparedStatementSetter pss = (ps) -> {
+			ps.setTimestamp(1, Timestamp.from(expiredBefore));
+			ps.setMaxRows(limit);
+		};
+		ResultSetExtractor<List<String>> rse = (rs) -> {
+			List<String> ids = new ArrayList<>();
+			while (ids.size() < limit && rs.next()) {
+				ids.add(rs.getString(1));
+			}
+			return ids;
+		};
+		List<String> ids = this.jdbcOperations.query(this.loadExpiredPatAuthorizationIdsSql, pss, rse);
+		return ids != null ? deleteAllBy("id", ids) : 0;
+	}
+
+	/**
+	 * Remove expired authorizations like {@link #removeExpired(Instant, int)} but
+	 * select whole rows so that selected authorizations can be passed to a given
+	 * consumer after they have been deleted.
+	 */
+	@Override
+	public int removeExpired(Instant expiredBefore, int limit, Consumer<PatAuthorization> removed) {
+		Assert.notNull(expiredBefore, "expiredBefore cannot be null");
+		Assert.isTrue(limit > 0, "limit must be positive");
+		Assert.notNull(removed, "removed cannot be null");
+		PreparedStatementSetter pss = (ps) -> {
+			ps.setTimestamp(1, Timestamp.from(expiredBefore));
+			ps.setMaxRows(limit);
+		};
+		ResultSetExtractor<List<PatAuthorization>> rse = (rs) -> {
+			List<PatAuthorization> authorizations = new ArrayList<>();
+			while (authorizations.size() < limit && rs.next()) {
+				authorizations.add(this.patAuthorizationRowMapper.mapRow(rs, rs.getRow()));
+			}
+			return authorizations;
+		};
+		List<PatAuthorization> expired = this.jdbcOperations.query(this.loadExpiredPatAuthorizationsSql, pss, rse);
+		if (expired == null || expired.isEmpty()) {
+			return 0;
+		}
+		int count = deleteAllBy("id", expired.stream().map(PatAuthorization::getId).toList());
+		expired.forEach(removed);
+		return count;
+	}
+
+	/**
+	 * Update last used times with JDBC batches of a configured batch size.
+	 *
+	 * @throws IllegalStateException if last used tracking is not enabled
+	 */
+	@Override
+	public void updateLastUsedAt(Map<String, Instant> lastUsedAtById) {
+		Assert.notNull(lastUsedAtById, "lastUsedAtById cannot be null");
+		Assert.state(this.lastUsedAtEnabled,
+				"last_used_at column is not enabled, construct with lastUsedAtEnabled to store usage");
+		if (lastUsedAtById.isEmpty()) {
+			return;
+		}
+		this.jdbcOperations.batchUpdate(this.updateLastUsedAtSql, lastUsedAtById.entrySet(), this.batchSize,
+				(ps, entry) -> {
+					Timestamp lastUsedAt = Timestamp.from(entry.getValue());
+					ps.setTimestamp(1, lastUsedAt);
+					ps.setString(2, entry.getKey());
+					ps.setTimestamp(3, lastUsedAt);
+				});
 	}
 
 	@Override
 	public PatAuthorization findById(String id) {
-		return findBy("id = ?", id);
+		return PatObservations.observe(this.observationRegistry, PatObservations.LOOKUP, FIND_BY_ID_KEY_VALUES,
+				(observation) -> findBy("id = ?", id));
 	}
 
 	@Override
 	public PatAuthorization findByToken(String token) {
-		return findBy("token = ?", token);
+		return PatObservations.observe(this.observationRegistry, PatObservations.LOOKUP, FIND_BY_TOKEN_KEY_VALUES,
+				(observation) -> findBy(this.tokenColumnName + " = ?", tokenValue(token)));
+	}
+
+	@Override
+	public Map<String, PatAuthorization> findByTokens(Collection<String> tokens) {
+		Assert.notNull(tokens, "tokens cannot be null");
+		return PatObservations.observe(this.observationRegistry, PatObservations.LOOKUP, FIND_BY_TOKENS_KEY_VALUES,
+				(observation) -> doFindByTokens(tokens));
+	}
+
+	private Map<String, PatAuthorization> doFindByTokens(Collection<String> tokens) {
+		Map<String, String> requested = new HashMap<>();
+		tokens.forEach((token) -> requested.put(tokenValue(token), token));
+		List<String> values = new ArrayList<>(requested.keySet());
+		Map<String, PatAuthorization> authorizations = new LinkedHashMap<>();
+		for (int i = 0; i < values.size(); i += FIND_BY_TOKENS_CHUNK_SIZE) {
+			List<String> chunk = values.subList(i, Math.min(i + FIND_BY_TOKENS_CHUNK_SIZE, values.size()));
+			String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+			List<PatAuthorization> found = findAllBy(this.tokenColumnName + " IN (" + placeholders + ")",
+					chunk.toArray());
+			found.forEach((authorization) -> authorizations.put(requested.get(authorization.getToken()), authorization));
+		}
+		return authorizations;
 	}
 
 	@Override
 	public List<PatAuthorization> findByPrincipal(String principal) {
-		return findAllBy("principal = ?", principal);
+		return PatObservations.observe(this.observationRegistry, PatObservations.LOOKUP, FIND_BY_PRINCIPAL_KEY_VALUES,
+				(observation) -> findAllBy("principal = ?", principal));
+	}
+
+	@Override
+	public List<PatAuthorization> findByPrincipal(String principal, PatAuthorization after, int limit) {
+		Assert.isTrue(limit > 0, "limit must be positive");
+		return PatObservations.observe(this.observationRegistry, PatObservations.LOOKUP, FIND_BY_PRINCIPAL_KEY_VALUES,
+				(observation) -> {
+					PreparedStatementSetter pss = (ps) -> {
+						ps.setString(1, principal);
+						if (after != null) {
+							Timestamp issuedAt = Timestamp.from(after.getIssuedAt());
+							ps.setTimestamp(2, issuedAt);
+							ps.setTimestamp(3, issuedAt);
+							ps.setString(4, after.getId());
+						}
+						ps.setMaxRows(limit);
+					};
+					ResultSetExtractor<List<PatAuthorization>> rse = (rs) -> {
+						List<PatAuthorization> authorizations = new ArrayList<>();
+						while (authorizations.size() < limit && rs.next()) {
+							authorizations.add(this.patAuthorizationRowMapper.mapRow(rs, rs.getRow()));
+						}
+						return authorizations;
+					};
+					String sql = after != null ? this.loadPrincipalPatAuthorizationsAfterSql
+							: this.loadPrincipalPatAuthorizationsSql;
+					return this.jdbcOperations.query(sql, pss, rse);
+				});
+	}
+
+	/**
+	 * Stream authorizations of a principal with a cursor fetching rows in chunks of
+	 * a configured fetch size. Some drivers only use a cursor within a transaction,
+	 * and a returned stream needs to be closed to release a connection.
+	 */
+	@Override
+	public Stream<PatAuthorization> streamByPrincipal(String principal) {
+		PreparedStatementSetter pss = (ps) -> {
+			ps.setString(1, principal);
+			ps.setFetchSize(this.fetchSize);
+		};
+		return this.jdbcOperations.queryForStream(this.loadPrincipalPatAuthorizationsSql, pss,
+				this.patAuthorizationRowMapper);
+	}
+
+	@Override
+	public void forEach(Consumer<PatAuthorization> action) {
+		Assert.notNull(action, "action cannot be null");
+		RowCallbackHandler handler = (rs) -> action.accept(this.patAuthorizationRowMapper.mapRow(rs, rs.getRow()));
+		this.jdbcOperations.query(this.loadAllPatAuthorizationsSql, handler);
+	}
+
+	/**
+	 * Sets an {@link ObservationRegistry} used to observe lookups. Defaults to
+	 * {@link ObservationRegistry#NOOP}.
+	 *
+	 * @param observationRegistry the observation registry
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
+	@Override
+	public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+		this.applicationEventPublisher = applicationEventPublisher;
+	}
+
+	/**
+	 * Sets a number of rows written in one JDBC batch with
+	 * {@link #saveAll(Collection)} and a number of ids or tokens in one delete
+	 * statement with {@link #removeAll(Collection)} and
+	 * {@link #removeByIds(Collection)}. Defaults to {@code 100}.
+	 *
+	 * @param batchSize the batch size
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "batchSize must be positive");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Sets a number of rows fetched at once when streaming with
+	 * {@link #streamByPrincipal(String)}. Defaults to {@code 100}.
+	 *
+	 * @param fetchSize the fetch size
+	 */
+	public void setFetchSize(int fetchSize) {
+		Assert.isTrue(fetchSize > 0, "fetchSize must be positive");
+		this.fetchSize = fetchSize;
 	}
 
 	protected final JdbcOperations getJdbcOperations() {
@@ -103,60 +484,124 @@ public class JdbcPatAuthorizationRepository implements PatAuthorizationRepositor
 		return this.patAuthorizationRowMapper;
 	}
 
+	private String tokenValue(String token) {
+		return this.tokenDigester != null ? this.tokenDigester.digest(token) : token;
+	}
+
 	private PatAuthorization findBy(String filter, Object... args) {
-		List<PatAuthorization> result = this.jdbcOperations.query(LOAD_PAT_AUTHORIZATION_SQL + filter,
+		List<PatAuthorization> result = this.jdbcOperations.query(this.loadPatAuthorizationSql + filter,
 				this.patAuthorizationRowMapper, args);
 		return !result.isEmpty() ? result.get(0) : null;
 	}
 
 	private List<PatAuthorization> findAllBy(String filter, Object... args) {
-		List<PatAuthorization> result = this.jdbcOperations.query(LOAD_PAT_AUTHORIZATION_SQL + filter,
+		List<PatAuthorization> result = this.jdbcOperations.query(this.loadPatAuthorizationSql + filter,
 				this.patAuthorizationRowMapper, args);
 		return result;
 	}
 
-	private void deleteBy(String filter, Object... args) {
-		this.jdbcOperations.update(DELETE_PAT_AUTHORIZATION_SQL + filter, args);
+	private void publishRemoved(Collection<PatAuthorization> authorizations) {
+		if (this.applicationEventPublisher == null) {
+			return;
+		}
+		List<String> ids = new ArrayList<>();
+		List<String> tokens = new ArrayList<>();
+		for (PatAuthorization authorization : authorizations) {
+			if (StringUtils.hasText(authorization.getId())) {
+				ids.add(authorization.getId());
+			}
+			if (authorization.getToken() != null) {
+				tokens.add(authorization.getToken());
+			}
+		}
+		this.applicationEventPublisher.publishEvent(new PatAuthorizationsRemovedEvent(this, ids, tokens));
+	}
+
+	private int deleteBy(String filter, Object... args) {
+		return this.jdbcOperations.update(this.deletePatAuthorizationSql + filter, args);
+	}
+
+	private int deleteAllBy(String columnName, List<String> values) {
+		int deleted = 0;
+		for (int i = 0; i < values.size(); i += this.batchSize) {
+			List<String> chunk = values.subList(i, Math.min(i + this.batchSize, values.size()));
+			String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+			deleted += deleteBy(columnName + " IN (" + placeholders + ")", chunk.toArray());
+		}
+		return deleted;
 	}
 
 	private void insertPatAuthorization(PatAuthorization authorization) {
-		List<SqlParameterValue> parameters = this.patAuthorizationRowMapper.getSqlParameterValues(authorization);
+		List<SqlParameterValue> parameters = this.patAuthorizationRowMapper.getSqlParameterValues(authorization,
+				tokenValue(authorization.getToken()));
 		PreparedStatementSetter pss = new ArgumentPreparedStatementSetter(parameters.toArray());
-		this.jdbcOperations.update(INSERT_PAT_AUTHORIZATION_SQL, pss);
+		this.jdbcOperations.update(this.insertPatAuthorizationSql, pss);
+	}
+
+	private static KeyValues lookupKeyValues(String operation) {
+		return KeyValues.of(PatObservations.REPOSITORY, "jdbc", PatObservations.OPERATION, operation);
+	}
+
+	private static String columnNames(String tokenColumnName, boolean lastUsedAtEnabled) {
+		return "id, "
+			+ "name, "
+			+ "description, "
+			+ tokenColumnName + ", "
+			+ "principal, "
+			+ "scopes, "
+			+ "issued_at, "
+			+ "expires_at, "
+			+ "not_before"
+			+ (lastUsedAtEnabled ? ", last_used_at" : "");
 	}
 
 	private static class PatAuthorizationRowMapper implements RowMapper<PatAuthorization> {
 
+		private final String tokenColumnName;
+
+		private final boolean lastUsedAtEnabled;
+
+		PatAuthorizationRowMapper(String tokenColumnName, boolean lastUsedAtEnabled) {
+			this.tokenColumnName = tokenColumnName;
+			this.lastUsedAtEnabled = lastUsedAtEnabled;
+		}
+
 		@Override
 		public PatAuthorization mapRow(ResultSet rs, int rowNum) throws SQLException {
 			String id =  rs.getString("id");
 			String name = rs.getString("name");
 			String description = rs.getString("description");
-			String token = rs.getString("token");
+			String token = rs.getString(this.tokenColumnName);
 			String principal = rs.getString("principal");
 			String scopes = rs.getString("scopes");
 			Timestamp issuedAt = rs.getTimestamp("issued_at");
 			Timestamp expiresAt = rs.getTimestamp("expires_at");
 			Timestamp notBefore = rs.getTimestamp("not_before");
+			Timestamp lastUsedAt = this.lastUsedAtEnabled ? rs.getTimestamp("last_used_at") : null;
 
 			return PatAuthorization.builder().id(id).name(name).description(description).principal(principal)
 					.scopes(StringUtils.commaDelimitedListToSet(scopes))
 					.token(token).issuedAt(issuedAt.toInstant()).expiresAt(expiresAt.toInstant())
-					.notBefore(notBefore.toInstant()).build();
+					.notBefore(notBefore.toInstant())
+					.lastUsedAt(lastUsedAt != null ? lastUsedAt.toInstant() : null).build();
 		}
 
-		public List<SqlParameterValue> getSqlParameterValues(PatAuthorization authorization) {
-			return List.of(
+		public List<SqlParameterValue> getSqlParameterValues(PatAuthorization authorization, String tokenValue) {
+			List<SqlParameterValue> parameters = new ArrayList<>(List.of(
 				new SqlParameterValue(Types.VARCHAR, StringUtils.hasText(authorization.getId()) ? authorization.getId() : UUID.randomUUID().toString()),
 				new SqlParameterValue(Types.VARCHAR, authorization.getName()),
 				new SqlParameterValue(Types.VARCHAR, authorization.getDescription()),
-				new SqlParameterValue(Types.VARCHAR, authorization.getToken()),
+				new SqlParameterValue(Types.VARCHAR, tokenValue),
 				new SqlParameterValue(Types.VARCHAR, authorization.getPrincipal()),
 				new SqlParameterValue(Types.VARCHAR, StringUtils.collectionToCommaDelimitedString(authorization.getScopes())),
 				new SqlParameterValue(Types.TIMESTAMP, Timestamp.from(authorization.getIssuedAt())),
 				new SqlParameterValue(Types.TIMESTAMP, Timestamp.from(authorization.getExpiresAt())),
 				new SqlParameterValue(Types.TIMESTAMP, Timestamp.from(authorization.getNotBefore()))
-			);
+			));
+			if (this.lastUsedAtEnabled) {
+				parameters.add(new SqlParameterValue(Types.TIMESTAMP, authorization.getLastUsedAt() != null ? Timestamp.from(authorization.getLastUsedAt()) : null));
+			}
+			return parameters;
 		}
 	}
 
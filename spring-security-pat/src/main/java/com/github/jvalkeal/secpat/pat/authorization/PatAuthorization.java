@@ -81,6 +81,14 @@ public interface PatAuthorization {
 	 */
 	Instant getNotBefore();
 
+	/**
+	 * Returns the instant when the token was last used, if known.
+	 * @return the last used at instant or {@code null}
+	 */
+	default Instant getLastUsedAt() {
+		return null;
+	}
+
 	/**
 	 * Builder for creating {@link PatAuthorization} instances.
 	 */
@@ -156,6 +164,13 @@ public interface PatAuthorization {
 		 */
 		Builder notBefore(Instant notBefore);
 
+		/**
+		 * Sets the last used at instant.
+		 * @param lastUsedAt the last used at instant
+		 * @return this builder
+		 */
+		Builder lastUsedAt(Instant lastUsedAt);
+
 		/**
 		 * Builds the {@link PatAuthorization} instance.
 		 * @return the built instance
@@ -171,6 +186,26 @@ public interface PatAuthorization {
 		return new DefaultPatAuthorization.Builder();
 	}
 
+	/**
+	 * Creates a new builder initialized with values of an existing
+	 * {@link PatAuthorization}.
+	 * @param authorization the authorization to copy
+	 * @return a new builder instance
+	 */
+	static Builder from(PatAuthorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		return builder().id(authorization.getId())
+			.name(authorization.getName())
+			.description(authorization.getDescription())
+			.principal(authorization.getPrincipal())
+			.scopes(new HashSet<>(authorization.getScopes()))
+			.token(authorization.getToken())
+			.issuedAt(authorization.getIssuedAt())
+			.expiresAt(authorization.getExpiresAt())
+			.notBefore(authorization.getNotBefore())
+			.lastUsedAt(authorization.getLastUsedAt());
+	}
+
 	/**
 	 * Default implementation of {@link PatAuthorization}.
 	 */
@@ -185,6 +220,7 @@ public interface PatAuthorization {
 		private final Instant issuedAt;
 		private final Instant expiresAt;
 		private final Instant notBefore;
+		private final Instant lastUsedAt;
 
 		/**
 		 * Constructs a new instance using the provided builder.
@@ -200,6 +236,7 @@ public interface PatAuthorization {
 			this.issuedAt = builder.issuedAt;
 			this.expiresAt = builder.expiresAt;
 			this.notBefore = builder.notBefore;
+			this.lastUsedAt = builder.lastUsedAt;
 		}
 
 		@Override
@@ -247,6 +284,11 @@ public interface PatAuthorization {
 			return notBefore;
 		}
 
+		@Override
+		public Instant getLastUsedAt() {
+			return lastUsedAt;
+		}
+
 		/**
 		 * Builder for {@link DefaultPatAuthorization}.
 		 */
@@ -260,6 +302,7 @@ public interface PatAuthorization {
 			private Instant issuedAt;
 			private Instant expiresAt;
 			private Instant notBefore;
+			private Instant lastUsedAt;
 
 			@Override
 			public Builder id(String id) {
@@ -317,6 +360,12 @@ public interface PatAuthorization {
 				return this;
 			}
 
+			@Override
+			public Builder lastUsedAt(Instant lastUsedAt) {
+				this.lastUsedAt = lastUsedAt;
+				return this;
+			}
+
 			public PatAuthorization build() {
 				Assert.notNull(principal, "principal cannot be null");
 				Assert.notNull(scopes, "scopes cannot be null");
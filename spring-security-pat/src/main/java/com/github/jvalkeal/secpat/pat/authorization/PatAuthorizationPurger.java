@@ -0,0 +1,164 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.Assert;
+
+/**
+ * Purges expired {@link PatAuthorization}s from a
+ * {@link PatAuthorizationRepository}. Authorizations are removed when they have
+ * been expired longer than a grace period, in chunks of a bounded size using
+ * {@link PatAuthorizationRepository#removeExpired(Instant, int)} so that no
+ * single removal runs long.
+ *
+ * When started as a {@link SmartLifecycle} a purge runs periodically in a
+ * dedicated daemon thread, {@link #purge()} can also be called directly.
+ *
+ * @author Janne Valkealahti
+ */
+public class PatAuthorizationPurger implements SmartLifecycle {
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final PatAuthorizationRepository repository;
+
+	private Duration gracePeriod = Duration.ZERO;
+
+	private Duration interval = Duration.ofHours(1);
+
+	private int chunkSize = 1000;
+
+	private Clock clock = Clock.systemUTC();
+
+	private ScheduledExecutorService executor;
+
+	public PatAuthorizationPurger(PatAuthorizationRepository repository) {
+		Assert.notNull(repository, "repository cannot be null");
+		this.repository = repository;
+	}
+
+	/**
+	 * Purge expired authorizations.
+	 *
+	 * @return the number of purged authorizations
+	 */
+	public int purge() {
+		Instant expiredBefore = this.clock.instant().minus(this.gracePeriod);
+		int purged = 0;
+		int removed;
+		do {
+			removed = this.repository.removeExpired(expiredBefore, this.chunkSize);
+			purged += removed;
+		}
+		while (removed >= this.chunkSize);
+		if (purged > 0 && this.logger.isInfoEnabled()) {
+			this.logger.info("Purged " + purged + " authorizations expired before " + expiredBefore);
+		}
+		return purged;
+	}
+
+	/**
+	 * Sets a time an authorization is kept after its expiry. Defaults to zero.
+	 *
+	 * @param gracePeriod the grace period
+	 */
+	public void setGracePeriod(Duration gracePeriod) {
+		Assert.notNull(gracePeriod, "gracePeriod cannot be null");
+		Assert.isTrue(!gracePeriod.isNegative(), "gracePeriod cannot be negative");
+		this.gracePeriod = gracePeriod;
+	}
+
+	/**
+	 * Sets an interval between periodic purges. Defaults to one hour.
+	 *
+	 * @param interval the interval
+	 */
+	public void setInterval(Duration interval) {
+		Assert.notNull(interval, "interval cannot be null");
+		Assert.isTrue(!interval.isNegative() && !interval.isZero(), "interval must be positive");
+		this.interval = interval;
+	}
+
+	/**
+	 * Sets a maximum number of authorizations removed in one chunk. Defaults to
+	 * {@code 1000}.
+	 *
+	 * @param chunkSize the chunk size
+	 */
+	public void setChunkSize(int chunkSize) {
+		Assert.isTrue(chunkSize > 0, "chunkSize must be positive");
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Sets a {@link Clock} used to resolve a current time. Defaults to
+	 * {@link Clock#systemUTC()}.
+	 *
+	 * @param clock the clock
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	@Override
+	public synchronized void start() {
+		if (this.executor != null) {
+			return;
+		}
+		this.executor = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+			Thread thread = new Thread(runnable, "pat-authorization-purger");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long millis = this.interval.toMillis();
+		this.executor.scheduleWithFixedDelay(this::purgeSafely, millis, millis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+			this.executor = null;
+		}
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return this.executor != null;
+	}
+
+	private void purgeSafely() {
+		try {
+			purge();
+		}
+		catch (RuntimeException ex) {
+			this.logger.warn("Failed to purge expired authorizations", ex);
+		}
+	}
+
+}
@@ -16,7 +16,15 @@
 
 package com.github.jvalkeal.secpat.pat.authorization;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Repository interface storing {@link PatAuthorization}s.
@@ -25,6 +33,15 @@ import java.util.List;
  */
 public interface PatAuthorizationRepository {
 
+	/**
+	 * Order of {@link PatAuthorization}s in pages returned from
+	 * {@link #findByPrincipal(String, PatAuthorization, int)}, by
+	 * {@code issuedAt} and then by {@code id}.
+	 */
+	Comparator<PatAuthorization> PAGE_ORDER = Comparator
+		.comparing(PatAuthorization::getIssuedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+		.thenComparing(PatAuthorization::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
 	/**
 	 * Save a {@link PatAuthorization}.
 	 *
@@ -33,12 +50,121 @@ public interface PatAuthorizationRepository {
 	void save(PatAuthorization authorization);
 
 	/**
-	 * Remove a {@link PatAuthorization}.
+	 * Remove a {@link PatAuthorization}. Implementations supporting it publish a
+	 * {@link PatAuthorizationsRemovedEvent} so that caches can evict a token.
 	 *
 	 * @param authorization the pat authorization
 	 */
 	void remove(PatAuthorization authorization);
 
+	/**
+	 * Save many {@link PatAuthorization}s. Default implementation saves each
+	 * authorization separately, implementations should override this if they can
+	 * write in batches.
+	 *
+	 * @param authorizations the pat authorizations
+	 */
+	default void saveAll(Collection<PatAuthorization> authorizations) {
+		for (PatAuthorization authorization : authorizations) {
+			save(authorization);
+		}
+	}
+
+	/**
+	 * Remove many {@link PatAuthorization}s. Default implementation removes each
+	 * authorization separately.
+	 *
+	 * @param authorizations the pat authorizations
+	 */
+	default void removeAll(Collection<PatAuthorization> authorizations) {
+		for (PatAuthorization authorization : authorizations) {
+			remove(authorization);
+		}
+	}
+
+	/**
+	 * Remove {@link PatAuthorization}s with given ids. Implementations supporting it
+	 * publish a single {@link PatAuthorizationsRemovedEvent}. Default
+	 * implementation finds and removes each authorization separately.
+	 *
+	 * @param ids the ids
+	 */
+	default void removeByIds(Collection<String> ids) {
+		for (String id : ids) {
+			PatAuthorization authorization = findById(id);
+			if (authorization != null) {
+				remove(authorization);
+			}
+		}
+	}
+
+	/**
+	 * Remove all {@link PatAuthorization}s of a principal. Implementations
+	 * supporting it publish a single {@link PatAuthorizationsRevokedEvent} so that
+	 * caches can evict entries of a principal. Default implementation finds and
+	 * removes authorizations with {@link #findByPrincipal(String)} and
+	 * {@link #removeAll(Collection)}.
+	 *
+	 * @param principal the principal
+	 * @return the number of removed authorizations
+	 */
+	default int removeByPrincipal(String principal) {
+		List<PatAuthorization> authorizations = findByPrincipal(principal);
+		removeAll(authorizations);
+		return authorizations.size();
+	}
+
+	/**
+	 * Remove at most {@code limit} {@link PatAuthorization}s which expired before a
+	 * given time. Default implementation calls
+	 * {@link #removeExpired(Instant, int, Consumer)} ignoring removed
+	 * authorizations.
+	 *
+	 * @param expiredBefore the time authorizations have expired before
+	 * @param limit the maximum number of authorizations to remove
+	 * @return the number of removed authorizations
+	 */
+	default int removeExpired(Instant expiredBefore, int limit) {
+		return removeExpired(expiredBefore, limit, (authorization) -> {
+		});
+	}
+
+	/**
+	 * Remove at most {@code limit} {@link PatAuthorization}s which expired before a
+	 * given time and pass each removed authorization, as it was stored, to a given
+	 * consumer. Default implementation scans all authorizations with
+	 * {@link #forEach(Consumer)}, thus fails if it's not supported, implementations
+	 * should override this if they can find expired authorizations directly.
+	 *
+	 * @param expiredBefore the time authorizations have expired before
+	 * @param limit the maximum number of authorizations to remove
+	 * @param removed the consumer of removed authorizations
+	 * @return the number of removed authorizations
+	 */
+	default int removeExpired(Instant expiredBefore, int limit, Consumer<PatAuthorization> removed) {
+		List<PatAuthorization> expired = new ArrayList<>();
+		forEach((authorization) -> {
+			if (expired.size() < limit && authorization.getExpiresAt() != null
+					&& authorization.getExpiresAt().isBefore(expiredBefore)) {
+				expired.add(authorization);
+			}
+		});
+		removeAll(expired);
+		expired.forEach(removed);
+		return expired.size();
+	}
+
+	/**
+	 * Update {@link PatAuthorization#getLastUsedAt() lastUsedAt} of authorizations
+	 * with given ids. A stored time is never moved backwards and unknown ids are
+	 * ignored. Default implementation does nothing meaning usage is not stored.
+	 *
+	 * @param lastUsedAtById the last used at times keyed by an authorization id
+	 * @see PatUsageTracker
+	 */
+	default void updateLastUsedAt(Map<String, Instant> lastUsedAtById) {
+	}
+
 	/**
 	 * Find a {@link PatAuthorization} with given id.
 	 *
@@ -55,6 +181,24 @@ public interface PatAuthorizationRepository {
 	 */
 	PatAuthorization findByToken(String token);
 
+	/**
+	 * Find {@link PatAuthorization}s with given tokens. Default implementation
+	 * finds each token separately.
+	 *
+	 * @param tokens the tokens
+	 * @return pat authorizations keyed by a requested token, unknown tokens are absent
+	 */
+	default Map<String, PatAuthorization> findByTokens(Collection<String> tokens) {
+		Map<String, PatAuthorization> authorizations = new LinkedHashMap<>();
+		for (String token : tokens) {
+			PatAuthorization authorization = findByToken(token);
+			if (authorization != null) {
+				authorizations.put(token, authorization);
+			}
+		}
+		return authorizations;
+	}
+
 	/**
 	 * Find a {@link PatAuthorization}s with given principal.
 	 *
@@ -63,4 +207,51 @@ public interface PatAuthorizationRepository {
 	 */
 	List<PatAuthorization> findByPrincipal(String principal);
 
+	/**
+	 * Find a page of {@link PatAuthorization}s with given principal ordered by
+	 * {@link #PAGE_ORDER}. Pages are keyset based, a next page is requested with a
+	 * last authorization of a previous page. Default implementation sorts all
+	 * authorizations from {@link #findByPrincipal(String)}, implementations should
+	 * override this if they can seek directly.
+	 *
+	 * @param principal the principal
+	 * @param after the last authorization of a previous page, {@code null} for a first page
+	 * @param limit the maximum number of authorizations in a page
+	 * @return a pat authorizations
+	 */
+	default List<PatAuthorization> findByPrincipal(String principal, PatAuthorization after, int limit) {
+		return findByPrincipal(principal).stream()
+			.filter((authorization) -> after == null || PAGE_ORDER.compare(authorization, after) > 0)
+			.sorted(PAGE_ORDER)
+			.limit(limit)
+			.toList();
+	}
+
+	/**
+	 * Stream {@link PatAuthorization}s with given principal without materializing
+	 * all of them. A returned stream may hold resources and should be closed.
+	 * Default implementation streams a result of {@link #findByPrincipal(String)}.
+	 *
+	 * @param principal the principal
+	 * @return a stream of pat authorizations
+	 */
+	default Stream<PatAuthorization> streamByPrincipal(String principal) {
+		return findByPrincipal(principal).stream();
+	}
+
+	/**
+	 * Perform an action for each stored {@link PatAuthorization}. Authorizations are
+	 * passed as they are stored, meaning a token may be a digest if repository
+	 * stores digests. Used by a default
+	 * {@link #removeExpired(Instant, int, Consumer)} and usually given as a loader
+	 * to a {@link BloomFilterPatAuthorizationRepository}. Default implementation
+	 * throws {@link UnsupportedOperationException} as there's no generic way to
+	 * iterate a store.
+	 *
+	 * @param action the action for each pat authorization
+	 */
+	default void forEach(Consumer<PatAuthorization> action) {
+		throw new UnsupportedOperationException(getClass().getName() + " does not support forEach");
+	}
+
 }
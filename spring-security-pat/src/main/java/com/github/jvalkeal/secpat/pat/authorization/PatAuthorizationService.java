@@ -16,6 +16,10 @@
 
 package com.github.jvalkeal.secpat.pat.authorization;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Service store keeping relationship between a PAT token
  * and {@link PatAuthorization}.
@@ -33,6 +37,25 @@ public interface PatAuthorizationService {
 	 */
 	PatAuthorization acquire(AcquireContext context);
 
+	/**
+	 * Acquire {@link PatAuthorization}s for many tokens at once. Default
+	 * implementation acquires each token separately, implementations should
+	 * override this if they can do a lookup in one go.
+	 *
+	 * @param tokens the tokens
+	 * @return pat authorizations keyed by a requested token, unknown tokens are absent
+	 */
+	default Map<String, PatAuthorization> acquireAll(Collection<String> tokens) {
+		Map<String, PatAuthorization> authorizations = new LinkedHashMap<>();
+		for (String token : tokens) {
+			PatAuthorization authorization = acquire(AcquireContext.ofToken(token));
+			if (authorization != null) {
+				authorizations.put(token, authorization);
+			}
+		}
+		return authorizations;
+	}
+
 	/**
 	 * Context interface used with acquiring pat authorization.
 	 */
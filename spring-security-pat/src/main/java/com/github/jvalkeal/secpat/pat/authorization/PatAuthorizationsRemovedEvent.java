@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Event published by a {@link PatAuthorizationRepository} when individual
+ * {@link PatAuthorization}s have been removed with
+ * {@link PatAuthorizationRepository#remove(PatAuthorization)} or
+ * {@link PatAuthorizationRepository#removeByIds(Collection)}. Removed
+ * authorizations are identified by their ids and, when known, by their tokens.
+ * A token may be a digest if a repository stores digests.
+ *
+ * @author Janne Valkealahti
+ * @see CachingPatAuthorizationService
+ */
+public class PatAuthorizationsRemovedEvent extends AbstractPatAuthorizationEvent {
+
+	private final List<String> ids;
+
+	private final List<String> tokens;
+
+	/**
+	 * Create a new {@link PatAuthorizationsRemovedEvent}.
+	 *
+	 * @param source the repository which removed authorizations
+	 * @param ids the ids of removed authorizations
+	 * @param tokens the tokens of removed authorizations
+	 */
+	public PatAuthorizationsRemovedEvent(Object source, Collection<String> ids, Collection<String> tokens) {
+		super(source);
+		this.ids = List.copyOf(ids);
+		this.tokens = List.copyOf(tokens);
+	}
+
+	/**
+	 * Get ids of removed authorizations.
+	 *
+	 * @return the ids
+	 */
+	public List<String> getIds() {
+		return this.ids;
+	}
+
+	/**
+	 * Get tokens of removed authorizations.
+	 *
+	 * @return the tokens
+	 */
+	public List<String> getTokens() {
+		return this.tokens;
+	}
+
+}
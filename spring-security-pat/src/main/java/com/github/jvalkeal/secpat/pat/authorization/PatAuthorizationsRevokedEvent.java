@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+/**
+ * Event published by a {@link PatAuthorizationRepository} when all
+ * {@link PatAuthorization}s of a principal have been removed with
+ * {@link PatAuthorizationRepository#removeByPrincipal(String)}. Caching layers
+ * listen to it to evict entries of a principal.
+ *
+ * @author Janne Valkealahti
+ * @see CachingPatAuthorizationService
+ */
+public class PatAuthorizationsRevokedEvent extends AbstractPatAuthorizationEvent {
+
+	private final String principal;
+
+	private final int count;
+
+	/**
+	 * Create a new {@link PatAuthorizationsRevokedEvent}.
+	 *
+	 * @param source the repository which removed authorizations
+	 * @param principal the principal
+	 * @param count the number of removed authorizations
+	 */
+	public PatAuthorizationsRevokedEvent(Object source, String principal, int count) {
+		super(source);
+		this.principal = principal;
+		this.count = count;
+	}
+
+	/**
+	 * Get a principal whose authorizations were removed.
+	 *
+	 * @return the principal
+	 */
+	public String getPrincipal() {
+		return this.principal;
+	}
+
+	/**
+	 * Get a number of removed authorizations.
+	 *
+	 * @return the number of removed authorizations
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.springframework.util.Assert;
+
+/**
+ * Strategy creating a fixed width digest out from a {@code PAT} token. Used by
+ * repositories which should store and look up a digest instead of a raw token.
+ *
+ * @author Janne Valkealahti
+ * @see JdbcPatAuthorizationRepository
+ */
+@FunctionalInterface
+public interface PatTokenDigester {
+
+	/**
+	 * Create a digest of a token.
+	 *
+	 * @param token the token
+	 * @return the token digest
+	 */
+	String digest(String token);
+
+	/**
+	 * Create a {@link PatTokenDigester} using {@code SHA-256} and producing a
+	 * lowercase hex encoded digest of 64 characters.
+	 *
+	 * @return a sha-256 token digester
+	 */
+	static PatTokenDigester sha256() {
+		return (token) -> {
+			Assert.notNull(token, "token cannot be null");
+			MessageDigest messageDigest;
+			try {
+				messageDigest = MessageDigest.getInstance("SHA-256");
+			}
+			catch (NoSuchAlgorithmException ex) {
+				throw new IllegalStateException("SHA-256 algorithm not available", ex);
+			}
+			byte[] digest = messageDigest.digest(token.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest);
+		};
+	}
+
+}
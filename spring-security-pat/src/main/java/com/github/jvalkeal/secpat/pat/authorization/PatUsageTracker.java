@@ -0,0 +1,169 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.Assert;
+
+/**
+ * Tracks when {@link PatAuthorization}s were last used and writes it behind to a
+ * {@link PatAuthorizationRepository} with
+ * {@link PatAuthorizationRepository#updateLastUsedAt(Map)}.
+ *
+ * Usage is recorded into a concurrent map keyed by an authorization id, whose
+ * bins are locked separately, with second precision. Repeated use of a token
+ * within a same second is only a read, so a hot token doesn't contend on a
+ * write. A flush coalesces all recorded usage into a single batch and removes
+ * only entries which didn't change meanwhile, so usage recorded during a flush
+ * is written with a next one. If a flush fails entries are kept for a next one.
+ *
+ * When started as a {@link SmartLifecycle} a flush runs periodically in a
+ * dedicated daemon thread and once more when stopped, {@link #flush()} can also
+ * be called directly.
+ *
+ * @author Janne Valkealahti
+ */
+public class PatUsageTracker implements SmartLifecycle {
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final PatAuthorizationRepository repository;
+
+	private final Map<String, Long> lastUsed = new ConcurrentHashMap<>();
+
+	private Duration interval = Duration.ofMinutes(1);
+
+	private Clock clock = Clock.systemUTC();
+
+	private ScheduledExecutorService executor;
+
+	public PatUsageTracker(PatAuthorizationRepository repository) {
+		Assert.notNull(repository, "repository cannot be null");
+		this.repository = repository;
+	}
+
+	/**
+	 * Record usage of an authorization. Authorizations without an id are ignored.
+	 *
+	 * @param authorization the pat authorization
+	 */
+	public void record(PatAuthorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		String id = authorization.getId();
+		if (id == null) {
+			return;
+		}
+		long millis = this.clock.millis();
+		long second = millis - Math.floorMod(millis, 1000L);
+		Long previous = this.lastUsed.get(id);
+		if (previous == null || previous < second) {
+			this.lastUsed.merge(id, second, Math::max);
+		}
+	}
+
+	/**
+	 * Write recorded usage to a repository.
+	 *
+	 * @return the number of written authorizations
+	 */
+	public int flush() {
+		if (this.lastUsed.isEmpty()) {
+			return 0;
+		}
+		Map<String, Long> snapshot = new HashMap<>(this.lastUsed);
+		Map<String, Instant> lastUsedAtById = new HashMap<>(snapshot.size());
+		snapshot.forEach((id, millis) -> lastUsedAtById.put(id, Instant.ofEpochMilli(millis)));
+		this.repository.updateLastUsedAt(lastUsedAtById);
+		snapshot.forEach(this.lastUsed::remove);
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Flushed last usage of " + snapshot.size() + " authorizations");
+		}
+		return snapshot.size();
+	}
+
+	/**
+	 * Sets an interval between periodic flushes. Defaults to one minute.
+	 *
+	 * @param interval the interval
+	 */
+	public void setInterval(Duration interval) {
+		Assert.notNull(interval, "interval cannot be null");
+		Assert.isTrue(!interval.isNegative() && !interval.isZero(), "interval must be positive");
+		this.interval = interval;
+	}
+
+	/**
+	 * Sets a {@link Clock} used to resolve a usage time. Defaults to
+	 * {@link Clock#systemUTC()}.
+	 *
+	 * @param clock the clock
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	@Override
+	public synchronized void start() {
+		if (this.executor != null) {
+			return;
+		}
+		this.executor = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+			Thread thread = new Thread(runnable, "pat-usage-tracker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long millis = this.interval.toMillis();
+		this.executor.scheduleWithFixedDelay(this::flushSafely, millis, millis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+			this.executor = null;
+			flushSafely();
+		}
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return this.executor != null;
+	}
+
+	private void flushSafely() {
+		try {
+			flush();
+		}
+		catch (RuntimeException ex) {
+			this.logger.warn("Failed to flush last usage of authorizations", ex);
+		}
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC implementation of a {@link ReactivePatAuthorizationRepository} using
+ * same {@code pat_authorizations} table as {@link JdbcPatAuthorizationRepository}.
+ *
+ * When constructed with a {@link PatTokenDigester}, a raw token is never stored
+ * and schema from {@code pat-authorization-service-digest-schema.sql} is
+ * expected. Timestamps are stored in a system default time zone, same as with
+ * {@link JdbcPatAuthorizationRepository}, so that both can share a table.
+ *
+ * @author Janne Valkealahti
+ */
+public class R2dbcPatAuthorizationRepository implements ReactivePatAuthorizationRepository {
+
+	private static final String TOKEN_COLUMN_NAME = "token";
+
+	private static final String TOKEN_DIGEST_COLUMN_NAME = "token_digest";
+
+	private static final String TABLE_NAME = "pat_authorizations";
+
+	private final DatabaseClient databaseClient;
+
+	private final PatTokenDigester tokenDigester;
+
+	private final String tokenColumnName;
+
+	private final String loadPatAuthorizationSql;
+
+	private final String insertPatAuthorizationSql;
+
+	private final String deletePatAuthorizationSql;
+
+	public R2dbcPatAuthorizationRepository(DatabaseClient databaseClient) {
+		this(databaseClient, null);
+	}
+
+	/**
+	 * Constructs a {@code R2dbcPatAuthorizationRepository} storing token digests
+	 * created with a given {@link PatTokenDigester}. If digester is {@code null}
+	 * raw tokens are stored.
+	 *
+	 * @param databaseClient the database client
+	 * @param tokenDigester the token digester
+	 */
+	public R2dbcPatAuthorizationRepository(DatabaseClient databaseClient, PatTokenDigester tokenDigester) {
+		Assert.notNull(databaseClient, "databaseClient cannot be null");
+		this.databaseClient = databaseClient;
+		this.tokenDigester = tokenDigester;
+		this.tokenColumnName = tokenDigester != null ? TOKEN_DIGEST_COLUMN_NAME : TOKEN_COLUMN_NAME;
+		this.loadPatAuthorizationSql = "SELECT id, name, description, " + this.tokenColumnName
+				+ ", principal, scopes, issued_at, expires_at, not_before FROM " + TABLE_NAME + " WHERE ";
+		this.insertPatAuthorizationSql = "INSERT INTO " + TABLE_NAME + "(id, name, description, "
+				+ this.tokenColumnName + ", principal, scopes, issued_at, expires_at, not_before) "
+				+ "VALUES (:id, :name, :description, :token, :principal, :scopes, :issuedAt, :expiresAt, :notBefore)";
+		this.deletePatAuthorizationSql = "DELETE FROM " + TABLE_NAME + " WHERE ";
+	}
+
+	@Override
+	public Mono<Void> save(PatAuthorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		String id = StringUtils.hasText(authorization.getId()) ? authorization.getId() : UUID.randomUUID().toString();
+		GenericExecuteSpec spec = this.databaseClient.sql(this.insertPatAuthorizationSql)
+			.bind("id", id)
+			.bind("name", authorization.getName())
+			.bind("token", tokenValue(authorization.getToken()))
+			.bind("principal", authorization.getPrincipal())
+			.bind("scopes", StringUtils.collectionToCommaDelimitedString(authorization.getScopes()))
+			.bind("issuedAt", toLocalDateTime(authorization.getIssuedAt()))
+			.bind("expiresAt", toLocalDateTime(authorization.getExpiresAt()))
+			.bind("notBefore", toLocalDateTime(authorization.getNotBefore()));
+		spec = authorization.getDescription() != null ? spec.bind("description", authorization.getDescription())
+				: spec.bindNull("description", String.class);
+		return spec.fetch().rowsUpdated().then();
+	}
+
+	@Override
+	public Mono<Void> remove(PatAuthorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		if (this.tokenDigester != null && StringUtils.hasText(authorization.getId())) {
+			// loaded authorizations carry a digest as a token, thus use id
+			return deleteBy("id", authorization.getId());
+		}
+		return deleteBy(this.tokenColumnName, tokenValue(authorization.getToken()));
+	}
+
+	@Override
+	public Mono<PatAuthorization> findById(String id) {
+		Assert.notNull(id, "id cannot be null");
+		return findBy("id", id).next();
+	}
+
+	@Override
+	public Mono<PatAuthorization> findByToken(String token) {
+		Assert.notNull(token, "token cannot be null");
+		return findBy(this.tokenColumnName, tokenValue(token)).next();
+	}
+
+	@Override
+	public Flux<PatAuthorization> findByPrincipal(String principal) {
+		Assert.notNull(principal, "principal cannot be null");
+		return findBy("principal", principal);
+	}
+
+	protected final DatabaseClient getDatabaseClient() {
+		return this.databaseClient;
+	}
+
+	private String tokenValue(String token) {
+		return this.tokenDigester != null ? this.tokenDigester.digest(token) : token;
+	}
+
+	private Flux<PatAuthorization> findBy(String column, String value) {
+		return this.databaseClient.sql(this.loadPatAuthorizationSql + column + " = :value")
+			.bind("value", value)
+			.map(this::mapRow)
+			.all();
+	}
+
+	private Mono<Void> deleteBy(String column, String value) {
+		return this.databaseClient.sql(this.deletePatAuthorizationSql + column + " = :value")
+			.bind("value", value)
+			.fetch()
+			.rowsUpdated()
+			.then();
+	}
+
+	private PatAuthorization mapRow(Readable row) {
+		return PatAuthorization.builder()
+			.id(row.get("id", String.class))
+			.name(row.get("name", String.class))
+			.description(row.get("description", String.class))
+			.token(row.get(this.tokenColumnName, String.class))
+			.principal(row.get("principal", String.class))
+			.scopes(StringUtils.commaDelimitedListToSet(row.get("scopes", String.class)))
+			.issuedAt(toInstant(row.get("issued_at", LocalDateTime.class)))
+			.expiresAt(toInstant(row.get("expires_at", LocalDateTime.class)))
+			.notBefore(toInstant(row.get("not_before", LocalDateTime.class)))
+			.build();
+	}
+
+	private static LocalDateTime toLocalDateTime(Instant instant) {
+		return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+	}
+
+	private static Instant toInstant(LocalDateTime dateTime) {
+		return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+	}
+
+}
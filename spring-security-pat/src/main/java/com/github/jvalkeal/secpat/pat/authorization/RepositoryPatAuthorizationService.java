@@ -16,6 +16,9 @@
 
 package com.github.jvalkeal.secpat.pat.authorization;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.springframework.util.Assert;
 
 /**
@@ -37,4 +40,9 @@ public class RepositoryPatAuthorizationService implements PatAuthorizationServic
 		return repository.findByToken(context.token());
 	}
 
+	@Override
+	public Map<String, PatAuthorization> acquireAll(Collection<String> tokens) {
+		return repository.findByTokens(tokens);
+	}
+
 }
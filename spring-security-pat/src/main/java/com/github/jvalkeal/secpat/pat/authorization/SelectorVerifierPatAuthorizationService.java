@@ -0,0 +1,115 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link PatAuthorizationService} using a selector/verifier token layout. A
+ * token has a format {@code selector.verifier} where {@code selector} is an
+ * authorization {@link PatAuthorization#getId() id} and {@code verifier} a
+ * random secret. A repository stores a digest of a verifier as an
+ * authorization token, thus acquiring a token is a {@code findById} primary key
+ * lookup followed by a constant time comparison of verifier digests, and a raw
+ * secret is never stored.
+ *
+ * A backing repository should itself not digest tokens as those are already
+ * digests.
+ *
+ * @author Janne Valkealahti
+ */
+public class SelectorVerifierPatAuthorizationService implements PatAuthorizationService {
+
+	private static final char SEPARATOR = '.';
+
+	private static final int VERIFIER_BYTES = 32;
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	private final PatAuthorizationRepository repository;
+
+	private final PatTokenDigester tokenDigester;
+
+	public SelectorVerifierPatAuthorizationService(PatAuthorizationRepository repository) {
+		this(repository, PatTokenDigester.sha256());
+	}
+
+	public SelectorVerifierPatAuthorizationService(PatAuthorizationRepository repository,
+			PatTokenDigester tokenDigester) {
+		Assert.notNull(repository, "repository cannot be null");
+		Assert.notNull(tokenDigester, "tokenDigester cannot be null");
+		this.repository = repository;
+		this.tokenDigester = tokenDigester;
+	}
+
+	/**
+	 * Store an authorization with a new verifier and return a token to be handed
+	 * out to a user. A token of a given authorization is ignored and its id is used
+	 * as a selector, a random id is created if it doesn't have one.
+	 *
+	 * @param authorization the pat authorization
+	 * @return a token in a format {@code selector.verifier}
+	 */
+	public String save(PatAuthorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		String selector = StringUtils.hasText(authorization.getId()) ? authorization.getId()
+				: UUID.randomUUID().toString();
+		Assert.isTrue(selector.indexOf(SEPARATOR) < 0, "id cannot contain '.'");
+		byte[] secret = new byte[VERIFIER_BYTES];
+		RANDOM.nextBytes(secret);
+		String verifier = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+		this.repository.save(PatAuthorization.builder()
+			.id(selector)
+			.name(authorization.getName())
+			.description(authorization.getDescription())
+			.principal(authorization.getPrincipal())
+			.scopes(authorization.getScopes())
+			.token(this.tokenDigester.digest(verifier))
+			.issuedAt(authorization.getIssuedAt())
+			.expiresAt(authorization.getExpiresAt())
+			.notBefore(authorization.getNotBefore())
+			.build());
+		return selector + SEPARATOR + verifier;
+	}
+
+	@Override
+	public PatAuthorization acquire(AcquireContext context) {
+		String token = context.token();
+		if (token == null) {
+			return null;
+		}
+		int index = token.lastIndexOf(SEPARATOR);
+		if (index < 1 || index == token.length() - 1) {
+			return null;
+		}
+		PatAuthorization authorization = this.repository.findById(token.substring(0, index));
+		if (authorization == null || authorization.getToken() == null) {
+			return null;
+		}
+		byte[] expected = authorization.getToken().getBytes(StandardCharsets.UTF_8);
+		byte[] actual = this.tokenDigester.digest(token.substring(index + 1)).getBytes(StandardCharsets.UTF_8);
+		return MessageDigest.isEqual(expected, actual) ? authorization : null;
+	}
+
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel scheduling values to a deadline. Wheels have
+ * {@code 64} slots on {@code 4} levels, each level covering {@code 64} times a
+ * range of a previous one, so that with a one second tick deadlines up to about
+ * {@code 194} days are placed directly. Later deadlines are parked on a top
+ * level and placed again when it's cascaded.
+ *
+ * Scheduling, cancelling and expiring a value is {@code O(1)}. Advancing moves
+ * values from a wheel into a due list from where those are polled. A wheel is
+ * advanced up to a whole tick containing a given time, thus a due list may hold
+ * values not yet expired and polling compares exact deadlines, so ticks don't
+ * limit precision of an expiry. Time is only
+ * read by a caller of {@link #advance(long)}, last advanced time is available
+ * from {@link #currentTimeMillis()} without touching a clock.
+ *
+ * @author Janne Valkealahti
+ */
+final class TimingWheel<T> {
+
+	private static final int WHEEL_BITS = 6;
+
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+	private static final int LEVELS = 4;
+
+	private static final long HORIZON = 1L << (WHEEL_BITS * LEVELS);
+
+	private final long tickMillis;
+
+	private final Node<T>[][] buckets;
+
+	private final Node<T> due = Node.head();
+
+	private long currentTick;
+
+	private long scheduled;
+
+	private volatile long currentTimeMillis;
+
+	@SuppressWarnings("unchecked")
+	TimingWheel(long tickMillis, long startMillis) {
+		this.tickMillis = tickMillis;
+		this.buckets = new Node[LEVELS][WHEEL_SIZE];
+		for (int level = 0; level < LEVELS; level++) {
+			for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+				this.buckets[level][slot] = Node.head();
+			}
+		}
+		this.currentTick = Math.floorDiv(startMillis, tickMillis);
+		this.currentTimeMillis = startMillis;
+	}
+
+	/**
+	 * Schedule a value to a deadline.
+	 *
+	 * @param value the value
+	 * @param deadlineMillis the deadline in epoch millis
+	 * @return a node which can be cancelled
+	 */
+	synchronized Node<T> schedule(T value, long deadlineMillis) {
+		Node<T> node = new Node<>(value, deadlineMillis);
+		place(node);
+		return node;
+	}
+
+	/**
+	 * Cancel a scheduled node, does nothing if node is already cancelled or
+	 * polled.
+	 *
+	 * @param node the node
+	 */
+	synchronized void cancel(Node<T> node) {
+		if (node.prev != null) {
+			if (!node.due) {
+				this.scheduled--;
+			}
+			unlink(node);
+		}
+	}
+
+	/**
+	 * Advance a wheel to a given time moving all values with a passed deadline into
+	 * a due list. Advancing backwards does nothing.
+	 *
+	 * @param nowMillis the time in epoch millis
+	 */
+	synchronized void advance(long nowMillis) {
+		// a tick containing a given time is included, values in it with a later
+		// deadline are skipped when polled
+		long target = Math.floorDiv(nowMillis + this.tickMillis - 1, this.tickMillis);
+		if (nowMillis > this.currentTimeMillis) {
+			this.currentTimeMillis = nowMillis;
+		}
+		if (target <= this.currentTick) {
+			return;
+		}
+		if (this.scheduled == 0) {
+			this.currentTick = target;
+		}
+		else if (target - this.currentTick >= HORIZON) {
+			rebase(target);
+		}
+		while (this.currentTick < target) {
+			this.currentTick++;
+			int level = 1;
+			while (level < LEVELS && (this.currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+				level++;
+			}
+			// cascade from a highest level so that values land in lower levels
+			// before those are cascaded
+			for (int cascade = level - 1; cascade > 0; cascade--) {
+				for (Node<T> node : detach(bucket(cascade, this.currentTick))) {
+					this.scheduled--;
+					place(node);
+				}
+			}
+			for (Node<T> node : detach(bucket(0, this.currentTick))) {
+				this.scheduled--;
+				node.due = true;
+				append(this.due, node);
+			}
+		}
+	}
+
+	/**
+	 * Poll due nodes with a deadline before a given time.
+	 *
+	 * @param expiredBeforeMillis the time in epoch millis
+	 * @param limit maximum number of nodes
+	 * @return polled nodes
+	 */
+	synchronized List<Node<T>> poll(long expiredBeforeMillis, int limit) {
+		List<Node<T>> polled = new ArrayList<>();
+		Node<T> node = this.due.next;
+		while (node != this.due && polled.size() < limit) {
+			Node<T> next = node.next;
+			if (node.deadline < expiredBeforeMillis) {
+				unlink(node);
+				polled.add(node);
+			}
+			node = next;
+		}
+		return polled;
+	}
+
+	/**
+	 * Get a time this wheel was last advanced to.
+	 *
+	 * @return the time in epoch millis
+	 */
+	long currentTimeMillis() {
+		return this.currentTimeMillis;
+	}
+
+	private void place(Node<T> node) {
+		long tick = Math.floorDiv(node.deadline + this.tickMillis - 1, this.tickMillis);
+		long delta = tick - this.currentTick;
+		node.due = delta <= 0;
+		if (node.due) {
+			append(this.due, node);
+			return;
+		}
+		this.scheduled++;
+		for (int level = 0; level < LEVELS; level++) {
+			if (delta < (1L << (WHEEL_BITS * (level + 1)))) {
+				append(bucket(level, tick), node);
+				return;
+			}
+		}
+		// beyond a horizon, park on a top level and place again once cascaded
+		append(bucket(LEVELS - 1, this.currentTick + HORIZON - 1), node);
+	}
+
+	private void rebase(long target) {
+		List<Node<T>> nodes = new ArrayList<>();
+		for (int level = 0; level < LEVELS; level++) {
+			for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+				nodes.addAll(detach(this.buckets[level][slot]));
+			}
+		}
+		this.scheduled = 0;
+		this.currentTick = target - 1;
+		nodes.forEach(this::place);
+	}
+
+	private Node<T> bucket(int level, long tick) {
+		return this.buckets[level][(int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK)];
+	}
+
+	private static <T> List<Node<T>> detach(Node<T> head) {
+		if (head.next == head) {
+			return Collections.emptyList();
+		}
+		List<Node<T>> nodes = new ArrayList<>();
+		Node<T> node = head.next;
+		while (node != head) {
+			Node<T> next = node.next;
+			unlink(node);
+			nodes.add(node);
+			node = next;
+		}
+		return nodes;
+	}
+
+	private static <T> void append(Node<T> head, Node<T> node) {
+		node.prev = head.prev;
+		node.next = head;
+		head.prev.next = node;
+		head.prev = node;
+	}
+
+	private static <T> void unlink(Node<T> node) {
+		node.prev.next = node.next;
+		node.next.prev = node.prev;
+		node.prev = null;
+		node.next = null;
+	}
+
+	/**
+	 * Scheduled value in a wheel.
+	 */
+	static final class Node<T> {
+
+		private final T value;
+
+		private final long deadline;
+
+		private Node<T> prev;
+
+		private Node<T> next;
+
+		private boolean due;
+
+		private Node(T value, long deadline) {
+			this.value = value;
+			this.deadline = deadline;
+		}
+
+		private static <T> Node<T> head() {
+			Node<T> head = new Node<>(null, 0);
+			head.prev = head;
+			head.next = head;
+			return head;
+		}
+
+		T getValue() {
+			return this.value;
+		}
+
+	}
+
+}
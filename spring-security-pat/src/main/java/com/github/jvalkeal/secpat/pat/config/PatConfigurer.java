@@ -16,10 +16,14 @@
 
 package com.github.jvalkeal.secpat.pat.config;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.Customizer;
@@ -30,15 +34,27 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import com.github.jvalkeal.secpat.pat.PatAuthenticationConverter;
 import com.github.jvalkeal.secpat.pat.PatAuthenticationProvider;
 import com.github.jvalkeal.secpat.pat.PatTokenAuthenticationFilter;
+import com.github.jvalkeal.secpat.pat.authorization.CachingPatAuthorizationService;
 import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationService;
+import com.github.jvalkeal.secpat.pat.authorization.PatUsageTracker;
 import com.github.jvalkeal.secpat.pat.introspect.PatAuthorizationServicePatIntrospector;
 import com.github.jvalkeal.secpat.pat.introspect.PatIntrospector;
+import com.github.jvalkeal.secpat.pat.introspect.SpringAuthServerPatIntrospector;
+import com.github.jvalkeal.secpat.pat.keygen.PatMatcher;
+import com.github.jvalkeal.secpat.pat.keygen.PatService;
+import com.github.jvalkeal.secpat.pat.ratelimit.PatRateLimiter;
+
+import io.micrometer.observation.ObservationRegistry;
 
 public class PatConfigurer extends AbstractHttpConfigurer<PatConfigurer, HttpSecurity> {
 
 	private final Map<Class<? extends AbstractPatConfigurer>, AbstractPatConfigurer> configurers = createConfigurers();
 	PatIntrospector patIntrospector;
 	AuthenticationManager authenticationManager;
+	Customizer<CachingPatAuthorizationService.Builder> authorizationServiceCacheCustomizer;
+	ObservationRegistry observationRegistry;
+	PatRateLimiter rateLimiter;
+	final List<PatMatcher> patMatchers = new ArrayList<>();
 
 	@Override
 	public void init(HttpSecurity builder) {
@@ -58,6 +74,81 @@ public class PatConfigurer extends AbstractHttpConfigurer<PatConfigurer, HttpSec
 		return this;
 	}
 
+	/**
+	 * Enables caching of authorizations acquired from a {@link PatAuthorizationService}
+	 * bean by wrapping it into a {@link CachingPatAuthorizationService}. A caching
+	 * service is registered as an application listener so that repository removal
+	 * and revocation events evict its entries.
+	 *
+	 * @param authorizationServiceCacheCustomizer the customizer for a caching service builder
+	 * @return the configurer for further customization
+	 */
+	public PatConfigurer authorizationServiceCache(
+			Customizer<CachingPatAuthorizationService.Builder> authorizationServiceCacheCustomizer) {
+		this.authorizationServiceCacheCustomizer = authorizationServiceCacheCustomizer;
+		return this;
+	}
+
+	/**
+	 * Adds {@link PatMatcher}s used to reject tokens before any lookup or remote
+	 * introspection. A token is accepted if any of added matchers matches it.
+	 * Tokens are matched in a filter before authentication, so matchers apply
+	 * also with a custom {@link #authenticationManager(AuthenticationManager)}.
+	 *
+	 * @param patMatchers the pat matchers
+	 * @return the configurer for further customization
+	 */
+	public PatConfigurer patMatcher(PatMatcher... patMatchers) {
+		this.patMatchers.addAll(Arrays.asList(patMatchers));
+		return this;
+	}
+
+	/**
+	 * Adds {@link PatMatcher}s of given {@link PatService}s.
+	 *
+	 * @param patServices the pat services
+	 * @return the configurer for further customization
+	 * @see #patMatcher(PatMatcher...)
+	 */
+	public PatConfigurer patService(PatService... patServices) {
+		Arrays.stream(patServices).map(PatService::matcher).forEach(this.patMatchers::add);
+		return this;
+	}
+
+	/**
+	 * Sets an {@link ObservationRegistry} used to observe a filter, a provider
+	 * and built-in introspectors. If not set, a unique {@link ObservationRegistry}
+	 * bean is used if it exists.
+	 *
+	 * A registry is only passed to components created by this configurer and to a
+	 * {@link SpringAuthServerPatIntrospector}, unless a registry is a no-op.
+	 * Other introspectors given with {@link #introspector(PatIntrospector)} or
+	 * used from a bean, like a
+	 * {@link com.github.jvalkeal.secpat.pat.introspect.SignedPatIntrospector}, and
+	 * repositories behind a {@link PatAuthorizationService} need a registry set
+	 * on them directly.
+	 *
+	 * @param observationRegistry the observation registry
+	 * @return the configurer for further customization
+	 */
+	public PatConfigurer observationRegistry(ObservationRegistry observationRegistry) {
+		this.observationRegistry = observationRegistry;
+		return this;
+	}
+
+	/**
+	 * Sets a {@link PatRateLimiter} used to limit requests per authenticated
+	 * token. If not set, a unique {@link PatRateLimiter} bean is used if it
+	 * exists.
+	 *
+	 * @param rateLimiter the rate limiter
+	 * @return the configurer for further customization
+	 */
+	public PatConfigurer rateLimiter(PatRateLimiter rateLimiter) {
+		this.rateLimiter = rateLimiter;
+		return this;
+	}
+
 	public PatConfigurer authenticationConverter(PatAuthenticationConverter authenticationConverter) {
 		return this;
 	}
@@ -105,7 +196,24 @@ public class PatConfigurer extends AbstractHttpConfigurer<PatConfigurer, HttpSec
 
 		if (context.getBeanNamesForType(PatAuthorizationService.class).length > 0) {
 			PatAuthorizationService patAuthorizationService = context.getBean(PatAuthorizationService.class);
-			return new PatAuthorizationServicePatIntrospector(patAuthorizationService);
+			if (this.authorizationServiceCacheCustomizer != null
+					&& !(patAuthorizationService instanceof CachingPatAuthorizationService)) {
+				CachingPatAuthorizationService.Builder builder = CachingPatAuthorizationService
+					.builder(patAuthorizationService);
+				this.authorizationServiceCacheCustomizer.customize(builder);
+				CachingPatAuthorizationService cachingPatAuthorizationService = builder.build();
+				cachingPatAuthorizationService.setObservationRegistry(getObservationRegistry(http));
+				// not a bean, thus needs to be registered to receive removal events
+				if (context instanceof ConfigurableApplicationContext configurableContext) {
+					configurableContext.addApplicationListener(cachingPatAuthorizationService);
+				}
+				patAuthorizationService = cachingPatAuthorizationService;
+			}
+			PatAuthorizationServicePatIntrospector introspector = new PatAuthorizationServicePatIntrospector(
+					patAuthorizationService);
+			introspector.setObservationRegistry(getObservationRegistry(http));
+			context.getBeanProvider(PatUsageTracker.class).ifUnique(introspector::setUsageTracker);
+			return introspector;
 		}
 
 		return context.getBean(PatIntrospector.class);
@@ -120,16 +228,48 @@ public class PatConfigurer extends AbstractHttpConfigurer<PatConfigurer, HttpSec
 
 	AuthenticationProvider getAuthenticationProvider(HttpSecurity http) {
 		PatIntrospector patIntrospector = getIntrospector(http);
+		if (patIntrospector instanceof SpringAuthServerPatIntrospector springAuthServerPatIntrospector
+				&& !getObservationRegistry(http).isNoop()) {
+			springAuthServerPatIntrospector.setObservationRegistry(getObservationRegistry(http));
+		}
 		PatAuthenticationProvider provider = new PatAuthenticationProvider(patIntrospector);
+		provider.setObservationRegistry(getObservationRegistry(http));
 		return provider;
 	}
 
+	ObservationRegistry getObservationRegistry(HttpSecurity http) {
+		if (this.observationRegistry == null) {
+			ApplicationContext context = http.getSharedObject(ApplicationContext.class);
+			this.observationRegistry = context != null
+					? context.getBeanProvider(ObservationRegistry.class).getIfUnique(() -> ObservationRegistry.NOOP)
+					: ObservationRegistry.NOOP;
+		}
+		return this.observationRegistry;
+	}
+
+	PatRateLimiter getRateLimiter(HttpSecurity http) {
+		if (this.rateLimiter == null) {
+			ApplicationContext context = http.getSharedObject(ApplicationContext.class);
+			if (context != null) {
+				this.rateLimiter = context.getBeanProvider(PatRateLimiter.class).getIfUnique();
+			}
+		}
+		return this.rateLimiter;
+	}
 
 	@Override
 	public void configure(HttpSecurity http) {
 		// AuthenticationManager authenticationManager = http.getSharedObject(AuthenticationManager.class);
 		AuthenticationManager authenticationManager = getAuthenticationManager(http);
 		PatTokenAuthenticationFilter filter = new PatTokenAuthenticationFilter(authenticationManager);
+		filter.setObservationRegistry(getObservationRegistry(http));
+		PatRateLimiter rateLimiter = getRateLimiter(http);
+		if (rateLimiter != null) {
+			filter.setRateLimiter(rateLimiter);
+		}
+		if (!this.patMatchers.isEmpty()) {
+			filter.setPatMatcher(PatMatcher.anyOf(this.patMatchers));
+		}
 		http.addFilterBefore(filter, UsernamePasswordAuthenticationFilter.class);
 
 		this.configurers.values().forEach((configurer) -> configurer.configure(http));
@@ -1,5 +1,7 @@
 package com.github.jvalkeal.secpat.pat.config;
 
+import java.time.Duration;
+
 import org.springframework.security.config.ObjectPostProcessor;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.util.matcher.RequestMatcher;
@@ -15,6 +17,24 @@ public class PatIntrospectionEndpointConfigurer extends AbstractPatConfigurer {
 
 	private String clientSecret;
 
+	private Long cacheMaximumSize;
+
+	private Duration cacheTimeToLive;
+
+	private Duration cacheInactiveTimeToLive;
+
+	private String batchIntrospectionUri;
+
+	private Duration batchWindow;
+
+	private Integer batchMaxSize;
+
+	private Duration connectTimeout;
+
+	private Duration readTimeout;
+
+	private Integer maxConnections;
+
 	private PatIntrospector patIntrospector;
 
 	PatIntrospector getPatIntrospector() {
@@ -32,11 +52,38 @@ public class PatIntrospectionEndpointConfigurer extends AbstractPatConfigurer {
 	@Override
 	public void configure(HttpSecurity httpSecurity) {
 		if (this.introspectionUri != null) {
-			SpringAuthServerPatIntrospector springAuthServerPatIntrospector = SpringAuthServerPatIntrospector.builder()
+			SpringAuthServerPatIntrospector.Builder builder = SpringAuthServerPatIntrospector.builder()
 				.introspectionUri(introspectionUri)
 				.clientId(clientId)
-				.clientSecret(clientSecret)
-				.build();
+				.clientSecret(clientSecret);
+			if (cacheMaximumSize != null) {
+				builder.cacheMaximumSize(cacheMaximumSize);
+			}
+			if (cacheTimeToLive != null) {
+				builder.cacheTimeToLive(cacheTimeToLive);
+			}
+			if (cacheInactiveTimeToLive != null) {
+				builder.cacheInactiveTimeToLive(cacheInactiveTimeToLive);
+			}
+			if (batchIntrospectionUri != null) {
+				builder.batchIntrospectionUri(batchIntrospectionUri);
+			}
+			if (batchWindow != null) {
+				builder.batchWindow(batchWindow);
+			}
+			if (batchMaxSize != null) {
+				builder.batchMaxSize(batchMaxSize);
+			}
+			if (connectTimeout != null) {
+				builder.connectTimeout(connectTimeout);
+			}
+			if (readTimeout != null) {
+				builder.readTimeout(readTimeout);
+			}
+			if (maxConnections != null) {
+				builder.maxConnections(maxConnections);
+			}
+			SpringAuthServerPatIntrospector springAuthServerPatIntrospector = builder.build();
 			this.patIntrospector = springAuthServerPatIntrospector;
 		}
 	}
@@ -61,4 +108,105 @@ public class PatIntrospectionEndpointConfigurer extends AbstractPatConfigurer {
 		return this;
 	}
 
+	/**
+	 * Sets a maximum number of cached introspection results.
+	 *
+	 * @param cacheMaximumSize the maximum size
+	 * @return the configurer for further customization
+	 */
+	public PatIntrospectionEndpointConfigurer cacheMaximumSize(long cacheMaximumSize) {
+		this.cacheMaximumSize = cacheMaximumSize;
+		return this;
+	}
+
+	/**
+	 * Enables caching of introspection results by setting a maximum time to live
+	 * of an active result. Actual time is capped by token expiry.
+	 *
+	 * @param cacheTimeToLive the time to live
+	 * @return the configurer for further customization
+	 */
+	public PatIntrospectionEndpointConfigurer cacheTimeToLive(Duration cacheTimeToLive) {
+		this.cacheTimeToLive = cacheTimeToLive;
+		return this;
+	}
+
+	/**
+	 * Sets a time to live of an inactive introspection result.
+	 *
+	 * @param cacheInactiveTimeToLive the time to live
+	 * @return the configurer for further customization
+	 */
+	public PatIntrospectionEndpointConfigurer cacheInactiveTimeToLive(Duration cacheInactiveTimeToLive) {
+		this.cacheInactiveTimeToLive = cacheInactiveTimeToLive;
+		return this;
+	}
+
+	/**
+	 * Enables batching of concurrent introspections by setting a batch
+	 * introspection endpoint uri.
+	 *
+	 * @param batchIntrospectionUri the batch introspection uri
+	 * @return the configurer for further customization
+	 */
+	public PatIntrospectionEndpointConfigurer batchIntrospectionUri(String batchIntrospectionUri) {
+		this.batchIntrospectionUri = batchIntrospectionUri;
+		return this;
+	}
+
+	/**
+	 * Sets a maximum time a batch of introspections is collected.
+	 *
+	 * @param batchWindow the batch window
+	 * @return the configurer for further customization
+	 */
+	public PatIntrospectionEndpointConfigurer batchWindow(Duration batchWindow) {
+		this.batchWindow = batchWindow;
+		return this;
+	}
+
+	/**
+	 * Sets a maximum number of tokens in a batch of introspections.
+	 *
+	 * @param batchMaxSize the batch max size
+	 * @return the configurer for further customization
+	 */
+	public PatIntrospectionEndpointConfigurer batchMaxSize(int batchMaxSize) {
+		this.batchMaxSize = batchMaxSize;
+		return this;
+	}
+
+	/**
+	 * Sets a connect timeout of an introspection endpoint.
+	 *
+	 * @param connectTimeout the connect timeout
+	 * @return the configurer for further customization
+	 */
+	public PatIntrospectionEndpointConfigurer connectTimeout(Duration connectTimeout) {
+		this.connectTimeout = connectTimeout;
+		return this;
+	}
+
+	/**
+	 * Sets a read timeout of an introspection endpoint.
+	 *
+	 * @param readTimeout the read timeout
+	 * @return the configurer for further customization
+	 */
+	public PatIntrospectionEndpointConfigurer readTimeout(Duration readTimeout) {
+		this.readTimeout = readTimeout;
+		return this;
+	}
+
+	/**
+	 * Sets a maximum number of concurrent requests to an introspection endpoint.
+	 *
+	 * @param maxConnections the max connections
+	 * @return the configurer for further customization
+	 */
+	public PatIntrospectionEndpointConfigurer maxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+		return this;
+	}
+
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.util.Assert;
+
+import com.github.jvalkeal.secpat.pat.PatReactiveAuthenticationManager;
+import com.github.jvalkeal.secpat.pat.ServerPatAuthenticationConverter;
+import com.github.jvalkeal.secpat.pat.authorization.ReactivePatAuthorizationRepository;
+import com.github.jvalkeal.secpat.pat.introspect.PatIntrospector;
+import com.github.jvalkeal.secpat.pat.introspect.ReactivePatAuthorizationRepositoryPatIntrospector;
+import com.github.jvalkeal.secpat.pat.introspect.ReactivePatIntrospector;
+import com.github.jvalkeal.secpat.pat.introspect.SpringAuthServerReactivePatIntrospector;
+import com.github.jvalkeal.secpat.pat.keygen.PatMatcher;
+import com.github.jvalkeal.secpat.pat.keygen.PatService;
+import com.github.jvalkeal.secpat.pat.resolver.ServerPatTokenResolver;
+
+/**
+ * Configurer for {@code PAT} authentication with {@link ServerHttpSecurity}, a
+ * reactive counterpart of {@link PatConfigurer}.
+ *
+ * Introspection is done with a configured {@link ReactiveAuthenticationManager},
+ * a {@link ReactivePatIntrospector}, a {@link ReactivePatAuthorizationRepository}
+ * or with a remote introspection endpoint using
+ * a non-blocking {@link SpringAuthServerReactivePatIntrospector}. As with
+ * servlet stack a failed authentication doesn't end a request, it continues
+ * unauthenticated and is left to authorization rules.
+ *
+ * @author Janne Valkealahti
+ */
+public class ReactivePatConfigurer {
+
+	private ReactiveAuthenticationManager authenticationManager;
+
+	private ReactivePatIntrospector introspector;
+
+	private ServerPatTokenResolver tokenResolver;
+
+	private String introspectionUri;
+
+	private String clientId;
+
+	private String clientSecret;
+
+	private final List<PatMatcher> patMatchers = new ArrayList<>();
+
+	public ReactivePatConfigurer authenticationManager(ReactiveAuthenticationManager authenticationManager) {
+		this.authenticationManager = authenticationManager;
+		return this;
+	}
+
+	public ReactivePatConfigurer introspector(ReactivePatIntrospector introspector) {
+		this.introspector = introspector;
+		return this;
+	}
+
+	/**
+	 * Sets a blocking {@link PatIntrospector} which is adapted with
+	 * {@link ReactivePatIntrospector#fromBlocking(PatIntrospector)}.
+	 *
+	 * @param introspector the blocking introspector
+	 * @return the configurer for further customization
+	 */
+	public ReactivePatConfigurer introspector(PatIntrospector introspector) {
+		this.introspector = ReactivePatIntrospector.fromBlocking(introspector);
+		return this;
+	}
+
+	/**
+	 * Sets a {@link ReactivePatAuthorizationRepository} used with a
+	 * {@link ReactivePatAuthorizationRepositoryPatIntrospector}.
+	 *
+	 * @param authorizationRepository the reactive authorization repository
+	 * @return the configurer for further customization
+	 */
+	public ReactivePatConfigurer authorizationRepository(ReactivePatAuthorizationRepository authorizationRepository) {
+		this.introspector = new ReactivePatAuthorizationRepositoryPatIntrospector(authorizationRepository);
+		return this;
+	}
+
+	public ReactivePatConfigurer tokenResolver(ServerPatTokenResolver tokenResolver) {
+		this.tokenResolver = tokenResolver;
+		return this;
+	}
+
+	public ReactivePatConfigurer introspectionUri(String introspectionUri) {
+		this.introspectionUri = introspectionUri;
+		return this;
+	}
+
+	public ReactivePatConfigurer clientId(String clientId) {
+		this.clientId = clientId;
+		return this;
+	}
+
+	public ReactivePatConfigurer clientSecret(String clientSecret) {
+		this.clientSecret = clientSecret;
+		return this;
+	}
+
+	/**
+	 * Adds {@link PatMatcher}s used to reject tokens before introspection. A token
+	 * is accepted if any of added matchers matches it.
+	 *
+	 * @param patMatchers the pat matchers
+	 * @return the configurer for further customization
+	 */
+	public ReactivePatConfigurer patMatcher(PatMatcher... patMatchers) {
+		this.patMatchers.addAll(Arrays.asList(patMatchers));
+		return this;
+	}
+
+	/**
+	 * Adds {@link PatMatcher}s of given {@link PatService}s.
+	 *
+	 * @param patServices the pat services
+	 * @return the configurer for further customization
+	 */
+	public ReactivePatConfigurer patService(PatService... patServices) {
+		Arrays.stream(patServices).map(PatService::matcher).forEach(this.patMatchers::add);
+		return this;
+	}
+
+	/**
+	 * Add {@code PAT} authentication into a {@link ServerHttpSecurity}.
+	 *
+	 * @param http the server http security
+	 */
+	public void configure(ServerHttpSecurity http) {
+		AuthenticationWebFilter filter = new AuthenticationWebFilter(getAuthenticationManager());
+		ServerPatAuthenticationConverter authenticationConverter = new ServerPatAuthenticationConverter();
+		if (this.tokenResolver != null) {
+			authenticationConverter.setPatResolver(this.tokenResolver);
+		}
+		filter.setServerAuthenticationConverter(authenticationConverter);
+		filter.setAuthenticationFailureHandler(
+				(webFilterExchange, ex) -> webFilterExchange.getChain().filter(webFilterExchange.getExchange()));
+		http.addFilterAt(filter, SecurityWebFiltersOrder.AUTHENTICATION);
+	}
+
+	ReactiveAuthenticationManager getAuthenticationManager() {
+		if (this.authenticationManager != null) {
+			return this.authenticationManager;
+		}
+		PatReactiveAuthenticationManager authenticationManager = new PatReactiveAuthenticationManager(
+				getIntrospector());
+		if (!this.patMatchers.isEmpty()) {
+			authenticationManager.setPatMatcher(PatMatcher.anyOf(this.patMatchers));
+		}
+		return authenticationManager;
+	}
+
+	ReactivePatIntrospector getIntrospector() {
+		if (this.introspector != null) {
+			return this.introspector;
+		}
+		Assert.state(this.introspectionUri != null, "Either introspector or introspectionUri needs to be set");
+		return SpringAuthServerReactivePatIntrospector.builder()
+			.introspectionUri(this.introspectionUri)
+			.clientId(this.clientId)
+			.clientSecret(this.clientSecret)
+			.build();
+	}
+
+	public static ReactivePatConfigurer dsl() {
+		return new ReactivePatConfigurer();
+	}
+
+}
@@ -23,26 +23,48 @@ import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
-import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.util.Assert;
 
 import com.github.jvalkeal.secpat.pat.PatAuthenticatedPrincipal;
+import com.github.jvalkeal.secpat.pat.PatAuthenticationException;
+import com.github.jvalkeal.secpat.pat.PatError;
+import com.github.jvalkeal.secpat.pat.PatErrorCodes;
+import com.github.jvalkeal.secpat.pat.PatObservations;
 import com.github.jvalkeal.secpat.pat.authorization.PatAuthorization;
 import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationService;
+import com.github.jvalkeal.secpat.pat.authorization.PatUsageTracker;
 import com.github.jvalkeal.secpat.pat.authorization.RepositoryPatAuthorizationService;
 
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.ObservationRegistry;
+
 /**
  * {@link PatIntrospector} implementation using {@link PatAuthorizationService}.
  *
+ * Concurrent introspections of a same token share one lookup from
+ * {@link PatAuthorizationService}.
+ *
+ * Successful introspections are recorded into a {@link PatUsageTracker} if one
+ * is set.
+ *
  * @author Janne Valkealahti
  * @see RepositoryPatAuthorizationService
  */
 public class PatAuthorizationServicePatIntrospector implements PatIntrospector {
 
+	private static final KeyValues OBSERVATION_KEY_VALUES = KeyValues.of(PatObservations.INTROSPECTOR, "local",
+			PatObservations.CACHE, PatObservations.NONE);
+
 	private final PatAuthorizationService authorizationService;
 
+	private final SingleFlight<String, PatAuthorization> acquires = new SingleFlight<>();
+
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+	private PatUsageTracker usageTracker;
+
 	public PatAuthorizationServicePatIntrospector(PatAuthorizationService authorizationService) {
 		Assert.notNull(authorizationService, "authorizationService cannot be null");
 		this.authorizationService = authorizationService;
@@ -50,33 +72,74 @@ public class PatAuthorizationServicePatIntrospector implements PatIntrospector {
 
 	@Override
 	public PatAuthenticatedPrincipal introspect(String token) {
-		PatAuthorization patAuthorization = authorizationService
-				.acquire(PatAuthorizationService.AcquireContext.ofToken(token));
+		return PatObservations.observe(this.observationRegistry, PatObservations.INTROSPECT, OBSERVATION_KEY_VALUES,
+				(observation) -> doIntrospect(token));
+	}
+
+	/**
+	 * Sets an {@link ObservationRegistry} used to observe introspection.
+	 * Defaults to {@link ObservationRegistry#NOOP}.
+	 *
+	 * @param observationRegistry the observation registry
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * Sets a {@link PatUsageTracker} recording usage of introspected tokens.
+	 *
+	 * @param usageTracker the usage tracker
+	 */
+	public void setUsageTracker(PatUsageTracker usageTracker) {
+		this.usageTracker = usageTracker;
+	}
+
+	private PatAuthenticatedPrincipal doIntrospect(String token) {
+		PatAuthorization patAuthorization = token != null ? acquires.execute(token, () -> acquire(token))
+				: acquire(token);
 		if (patAuthorization == null) {
-			throw new BadCredentialsException("no token match");
+			throw tokenNotFound();
 		}
 		else {
 			validate(patAuthorization);
 		}
+		if (this.usageTracker != null) {
+			this.usageTracker.record(patAuthorization);
+		}
+		return toPrincipal(patAuthorization);
+	}
+
+	private PatAuthorization acquire(String token) {
+		return authorizationService.acquire(PatAuthorizationService.AcquireContext.ofToken(token));
+	}
+
+	static PatAuthenticationException tokenNotFound() {
+		return new PatAuthenticationException(new PatError(PatErrorCodes.TOKEN_NOT_FOUND, "no token match"));
+	}
+
+	static PatAuthenticatedPrincipal toPrincipal(PatAuthorization patAuthorization) {
 		Collection<? extends GrantedAuthority> authorities = patAuthorization.getScopes().stream()
 			.map(role -> new SimpleGrantedAuthority(role))
 			.collect(Collectors.toList());
 		return PatAuthenticatedPrincipal.of(patAuthorization.getPrincipal(), authorities);
 	}
 
-	private void validate(PatAuthorization patAuthorization) {
+	static void validate(PatAuthorization patAuthorization) {
 		Clock clock = Clock.systemUTC();
 		Duration clockSkew = Duration.of(60, ChronoUnit.SECONDS);
 		Instant expiry = patAuthorization.getExpiresAt();
 		if (expiry != null) {
 			if (Instant.now(clock).minus(clockSkew).isAfter(expiry)) {
-				throw new BadCredentialsException("token time not valid");
+				throw new PatAuthenticationException(new PatError(PatErrorCodes.TOKEN_EXPIRED, "token time not valid"));
 			}
 		}
 		Instant before = patAuthorization.getNotBefore();
 		if (before != null) {
 			if (Instant.now(clock).plus(clockSkew).isBefore(before)) {
-				throw new BadCredentialsException("token not yet valid");
+				throw new PatAuthenticationException(
+						new PatError(PatErrorCodes.TOKEN_NOT_YET_VALID, "token not yet valid"));
 			}
 		}
 	}
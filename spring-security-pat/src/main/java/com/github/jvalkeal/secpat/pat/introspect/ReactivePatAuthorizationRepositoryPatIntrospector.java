@@ -0,0 +1,53 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.introspect;
+
+import org.springframework.util.Assert;
+
+import com.github.jvalkeal.secpat.pat.PatAuthenticatedPrincipal;
+import com.github.jvalkeal.secpat.pat.authorization.ReactivePatAuthorizationRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactivePatIntrospector} implementation doing a non-blocking lookup
+ * from a {@link ReactivePatAuthorizationRepository}. Validation rules are same
+ * as with {@link PatAuthorizationServicePatIntrospector}.
+ *
+ * @author Janne Valkealahti
+ * @see com.github.jvalkeal.secpat.pat.authorization.R2dbcPatAuthorizationRepository
+ */
+public class ReactivePatAuthorizationRepositoryPatIntrospector implements ReactivePatIntrospector {
+
+	private final ReactivePatAuthorizationRepository repository;
+
+	public ReactivePatAuthorizationRepositoryPatIntrospector(ReactivePatAuthorizationRepository repository) {
+		Assert.notNull(repository, "repository cannot be null");
+		this.repository = repository;
+	}
+
+	@Override
+	public Mono<PatAuthenticatedPrincipal> introspect(String token) {
+		return this.repository.findByToken(token)
+			.switchIfEmpty(Mono.error(PatAuthorizationServicePatIntrospector::tokenNotFound))
+			.map((patAuthorization) -> {
+				PatAuthorizationServicePatIntrospector.validate(patAuthorization);
+				return PatAuthorizationServicePatIntrospector.toPrincipal(patAuthorization);
+			});
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.introspect;
+
+import org.springframework.util.Assert;
+
+import com.github.jvalkeal.secpat.pat.PatAuthenticatedPrincipal;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A reactive contract for introspecting and verifying a PAT token.
+ *
+ * @author Janne Valkealahti
+ * @see PatIntrospector
+ */
+@FunctionalInterface
+public interface ReactivePatIntrospector {
+
+	/**
+	 * Introspect and verify the given token, returning its attributes.
+	 *
+	 * Emitting a {@link PatAuthenticatedPrincipal} is indicative that the token is
+	 * valid.
+	 *
+	 * @param token the token to introspect
+	 * @return the token's attributes
+	 */
+	Mono<PatAuthenticatedPrincipal> introspect(String token);
+
+	/**
+	 * Adapt a blocking {@link PatIntrospector} into a {@link ReactivePatIntrospector}.
+	 * Introspection is done on a {@link Schedulers#boundedElastic()} so that it
+	 * never blocks an event loop thread.
+	 *
+	 * @param introspector the blocking introspector
+	 * @return a reactive introspector
+	 */
+	static ReactivePatIntrospector fromBlocking(PatIntrospector introspector) {
+		Assert.notNull(introspector, "introspector cannot be null");
+		return (token) -> Mono.fromCallable(() -> introspector.introspect(token))
+			.subscribeOn(Schedulers.boundedElastic());
+	}
+
+}
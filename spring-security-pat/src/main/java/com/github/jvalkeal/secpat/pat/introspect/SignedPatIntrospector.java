@@ -0,0 +1,121 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.introspect;
+
+import java.util.function.Predicate;
+
+import org.springframework.util.Assert;
+
+import com.github.jvalkeal.secpat.pat.PatAuthenticatedPrincipal;
+import com.github.jvalkeal.secpat.pat.PatAuthenticationException;
+import com.github.jvalkeal.secpat.pat.PatError;
+import com.github.jvalkeal.secpat.pat.PatErrorCodes;
+import com.github.jvalkeal.secpat.pat.PatObservations;
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorization;
+import com.github.jvalkeal.secpat.pat.keygen.PatMatcher;
+import com.github.jvalkeal.secpat.pat.keygen.SignedPatService;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * {@link PatIntrospector} implementation verifying tokens issued by a
+ * {@link SignedPatService} locally without a repository lookup.
+ *
+ * An optional revocation check is consulted with a decoded
+ * {@link PatAuthorization} after its signature and validity times have been
+ * verified. Tokens not in a signed format can be delegated to a fallback
+ * introspector.
+ *
+ * @author Janne Valkealahti
+ */
+public class SignedPatIntrospector implements PatIntrospector {
+
+	private static final KeyValues OBSERVATION_KEY_VALUES = KeyValues.of(PatObservations.INTROSPECTOR, "signed",
+			PatObservations.CACHE, PatObservations.NONE);
+
+	private final SignedPatService signedPatService;
+
+	private final PatMatcher signedPatMatcher;
+
+	private Predicate<PatAuthorization> revocationCheck = (authorization) -> false;
+
+	private PatIntrospector fallback;
+
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
+	public SignedPatIntrospector(SignedPatService signedPatService) {
+		Assert.notNull(signedPatService, "signedPatService cannot be null");
+		this.signedPatService = signedPatService;
+		this.signedPatMatcher = signedPatService.matcher();
+	}
+
+	@Override
+	public PatAuthenticatedPrincipal introspect(String token) {
+		if (this.fallback != null && !this.signedPatMatcher.matches(token)) {
+			return this.fallback.introspect(token);
+		}
+		return PatObservations.observe(this.observationRegistry, PatObservations.INTROSPECT, OBSERVATION_KEY_VALUES,
+				(observation) -> doIntrospect(token));
+	}
+
+	/**
+	 * Sets a revocation check returning {@code true} if an authorization decoded
+	 * from a token has been revoked. Defaults to never revoked.
+	 *
+	 * @param revocationCheck the revocation check
+	 */
+	public void setRevocationCheck(Predicate<PatAuthorization> revocationCheck) {
+		Assert.notNull(revocationCheck, "revocationCheck cannot be null");
+		this.revocationCheck = revocationCheck;
+	}
+
+	/**
+	 * Sets a {@link PatIntrospector} used with tokens which are not in a signed
+	 * format, for example opaque tokens still backed by a repository.
+	 *
+	 * @param fallback the fallback introspector
+	 */
+	public void setFallback(PatIntrospector fallback) {
+		this.fallback = fallback;
+	}
+
+	/**
+	 * Sets an {@link ObservationRegistry} used to observe introspection.
+	 * Defaults to {@link ObservationRegistry#NOOP}.
+	 *
+	 * @param observationRegistry the observation registry
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
+	private PatAuthenticatedPrincipal doIntrospect(String token) {
+		PatAuthorization patAuthorization = this.signedPatService.verify(token);
+		if (patAuthorization == null) {
+			throw new PatAuthenticationException(
+					new PatError(PatErrorCodes.TOKEN_INVALID_SIGNATURE, "token signature not valid"));
+		}
+		PatAuthorizationServicePatIntrospector.validate(patAuthorization);
+		if (this.revocationCheck.test(patAuthorization)) {
+			throw new PatAuthenticationException(new PatError(PatErrorCodes.TOKEN_REVOKED, "token revoked"));
+		}
+		return PatAuthorizationServicePatIntrospector.toPrincipal(patAuthorization);
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.introspect;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for a same key so that only a first caller runs a
+ * call while others wait for it and receive its result or failure. A key is
+ * released as soon as a call completes, thus results are never cached.
+ *
+ * @author Janne Valkealahti
+ */
+final class SingleFlight<K, V> {
+
+	private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+	V execute(K key, Supplier<V> supplier) {
+		CompletableFuture<V> call = new CompletableFuture<>();
+		CompletableFuture<V> existing = this.calls.putIfAbsent(key, call);
+		if (existing != null) {
+			return await(existing);
+		}
+		try {
+			V value = supplier.get();
+			call.complete(value);
+			return value;
+		}
+		catch (RuntimeException | Error ex) {
+			call.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.calls.remove(key, call);
+		}
+	}
+
+	int size() {
+		return this.calls.size();
+	}
+
+	private V await(CompletableFuture<V> call) {
+		try {
+			return call.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (ex.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+	}
+
+}
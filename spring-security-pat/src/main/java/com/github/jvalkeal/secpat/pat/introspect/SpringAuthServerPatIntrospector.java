@@ -16,10 +16,15 @@
 
 package com.github.jvalkeal.secpat.pat.introspect;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serial;
 import java.net.URI;
 import java.net.URLEncoder;
+import java.net.http.HttpClient;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -28,6 +33,13 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -35,10 +47,16 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.http.client.support.BasicAuthenticationInterceptor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -48,7 +66,17 @@ import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestOperations;
 import org.springframework.web.client.RestTemplate;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.github.jvalkeal.secpat.pat.PatAuthenticatedPrincipal;
+import com.github.jvalkeal.secpat.pat.PatAuthenticationException;
+import com.github.jvalkeal.secpat.pat.PatError;
+import com.github.jvalkeal.secpat.pat.PatErrorCodes;
+import com.github.jvalkeal.secpat.pat.PatObservations;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.ObservationRegistry;
 
 /**
  * {@link PatIntrospector} implementation able to use Spring Authorization
@@ -57,10 +85,35 @@ import com.github.jvalkeal.secpat.pat.PatAuthenticatedPrincipal;
  * Essentially this is a facade to talk to {@link PatAuthorizationServicePatIntrospector}
  * running within a Spring Authorization Server.
  *
+ * Introspection results can be cached with
+ * {@link #setCache(long, Duration, Duration)}. An active result is kept at most
+ * for a given time to live capped by token's {@code exp} claim and an inactive
+ * result for its own time to live. Caching is disabled by default. Concurrent
+ * introspections of a same token share one remote call. Results are kept as
+ * futures in an asynchronous cache which a first caller completes outside of
+ * any cache lock, thus a slow remote call never blocks introspection of other
+ * tokens.
+ *
+ * With {@link #setBatching(String, Duration, int)} distinct tokens introspected
+ * concurrently within a short window are sent as one request to a batch
+ * introspection endpoint. A first token of a batch waits for the window to pass
+ * or the batch to fill up, thus batching trades a small latency for fewer round
+ * trips.
+ *
+ * {@link Builder} creates a transport on top of a shared {@link HttpClient}
+ * which keeps connections alive and pools them, negotiates {@code HTTP/2} when
+ * available and applies connect and read timeouts. Idle connection keep-alive
+ * time is a JDK wide setting {@code jdk.httpclient.keepalive.timeout}.
+ *
  * @author Janne Valkealahti
  */
 public class SpringAuthServerPatIntrospector implements PatIntrospector {
 
+	private static final KeyValues OBSERVATION_KEY_VALUES = KeyValues.of(PatObservations.INTROSPECTOR, "remote",
+			PatObservations.CACHE, PatObservations.NONE);
+
+	private static final Duration BATCH_RESULT_TIMEOUT = Duration.ofSeconds(30);
+
 	private final Log logger = LogFactory.getLog(getClass());
 
 	private final RestOperations restOperations;
@@ -69,6 +122,19 @@ public class SpringAuthServerPatIntrospector implements PatIntrospector {
 
 	private Converter<PatTokenIntrospectionClaimAccessor, ? extends PatAuthenticatedPrincipal> authenticationConverter = this::defaultAuthenticationConverter;
 
+	private Clock clock = Clock.systemUTC();
+
+	// without caching results are only kept while in flight
+	private AsyncCache<String, IntrospectionResult> cache = Caffeine.newBuilder()
+		.expireAfter(new IntrospectionResultExpiry(Duration.ZERO, Duration.ZERO))
+		.buildAsync();
+
+	private boolean caching;
+
+	private IntrospectionBatcher batcher;
+
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
 	public SpringAuthServerPatIntrospector(String introspectionUri, RestOperations restOperations) {
 		Assert.notNull(introspectionUri, "introspectionUri cannot be null");
 		Assert.notNull(restOperations, "restOperations cannot be null");
@@ -114,16 +180,128 @@ public class SpringAuthServerPatIntrospector implements PatIntrospector {
 		return body;
 	}
 
+	/**
+	 * Enables caching of introspection results. A time to live of zero disables
+	 * caching of either active or inactive results.
+	 *
+	 * @param maximumSize the maximum number of cached tokens
+	 * @param timeToLive the maximum time to live of an active result
+	 * @param inactiveTimeToLive the time to live of an inactive result
+	 */
+	public void setCache(long maximumSize, Duration timeToLive, Duration inactiveTimeToLive) {
+		Assert.isTrue(maximumSize >= 0, "maximumSize cannot be negative");
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.notNull(inactiveTimeToLive, "inactiveTimeToLive cannot be null");
+		Assert.isTrue(!timeToLive.isNegative(), "timeToLive cannot be negative");
+		Assert.isTrue(!inactiveTimeToLive.isNegative(), "inactiveTimeToLive cannot be negative");
+		this.cache = Caffeine.newBuilder()
+			.maximumSize(maximumSize)
+			.expireAfter(new IntrospectionResultExpiry(timeToLive, inactiveTimeToLive))
+			.buildAsync();
+		this.caching = true;
+	}
+
+	/**
+	 * Enables batching of concurrent introspections into requests to a batch
+	 * introspection endpoint.
+	 *
+	 * @param batchIntrospectionUri the batch introspection endpoint uri
+	 * @param window the maximum time a batch is collected
+	 * @param maxSize the maximum number of tokens in a batch
+	 */
+	public void setBatching(String batchIntrospectionUri, Duration window, int maxSize) {
+		Assert.notNull(batchIntrospectionUri, "batchIntrospectionUri cannot be null");
+		Assert.notNull(window, "window cannot be null");
+		Assert.isTrue(!window.isNegative(), "window cannot be negative");
+		Assert.isTrue(maxSize > 0, "maxSize must be positive");
+		this.batcher = new IntrospectionBatcher(URI.create(batchIntrospectionUri), window, maxSize);
+	}
+
+	/**
+	 * Sets a {@link Clock} used to compare against token expiry. Defaults to
+	 * {@link Clock#systemUTC()}.
+	 *
+	 * @param clock the clock
+	 */
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * Sets an {@link ObservationRegistry} used to observe introspection. Cache
+	 * hits and misses are recorded with a {@code cache} key. Defaults to
+	 * {@link ObservationRegistry#NOOP}.
+	 *
+	 * @param observationRegistry the observation registry
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
+		this.observationRegistry = observationRegistry;
+	}
+
 	@Override
 	public PatAuthenticatedPrincipal introspect(String token) {
+		return PatObservations.observe(this.observationRegistry, PatObservations.INTROSPECT, OBSERVATION_KEY_VALUES,
+				(observation) -> {
+					CompletableFuture<IntrospectionResult> created = new CompletableFuture<>();
+					CompletableFuture<IntrospectionResult> future = this.cache.get(token, (key, executor) -> created);
+					boolean loaded = future == created;
+					if (loaded) {
+						// load on a calling thread, a failed future is removed from a cache
+						try {
+							created.complete(introspectRemote(token));
+						}
+						catch (Throwable ex) {
+							created.completeExceptionally(ex);
+						}
+					}
+					if (this.caching) {
+						observation.lowCardinalityKeyValue(PatObservations.CACHE,
+								loaded ? PatObservations.MISS : PatObservations.HIT);
+					}
+					IntrospectionResult result = join(future);
+					if (result.principal() == null) {
+						throw new PatAuthenticationException(
+								new PatError(PatErrorCodes.TOKEN_INACTIVE, "Provided token isn't active"));
+					}
+					return result.principal();
+				});
+	}
+
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (ex.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+	}
+
+	private IntrospectionResult introspectRemote(String token) {
+		if (this.batcher != null) {
+			return this.batcher.introspect(token);
+		}
 		RequestEntity<?> requestEntity = this.requestEntityConverter.convert(token);
 		if (requestEntity == null) {
 			throw new PatIntrospectionException("requestEntityConverter returned a null entity");
 		}
 		ResponseEntity<Map<String, Object>> responseEntity = makeRequest(requestEntity);
-		Map<String, Object> claims = adaptToNimbusResponse(responseEntity);
+		return toResult(adaptToNimbusResponse(responseEntity));
+	}
+
+	private IntrospectionResult toResult(Map<String, Object> claims) {
+		if (claims == null) {
+			return IntrospectionResult.INACTIVE;
+		}
 		PatTokenIntrospectionClaimAccessor accessor = convertClaimsSet(claims);
-		return this.authenticationConverter.convert(accessor);
+		return new IntrospectionResult(this.authenticationConverter.convert(accessor), accessor.getExpiresAt());
 	}
 
 	private Map<String, Object> adaptToNimbusResponse(ResponseEntity<Map<String, Object>> responseEntity) {
@@ -131,7 +309,10 @@ public class SpringAuthServerPatIntrospector implements PatIntrospector {
 			throw new PatIntrospectionException(
 					"Introspection endpoint responded with " + responseEntity.getStatusCode());
 		}
-		Map<String, Object> claims = responseEntity.getBody();
+		return activeClaims(responseEntity.getBody());
+	}
+
+	private Map<String, Object> activeClaims(Map<String, Object> claims) {
 		// relying solely on the authorization server to validate this token (not checking
 		// 'exp', for example)
 		if (claims == null) {
@@ -149,7 +330,7 @@ public class SpringAuthServerPatIntrospector implements PatIntrospector {
 		});
 		if (!active) {
 			this.logger.trace("Did not validate token since it is inactive");
-			throw new PatIntrospectionException("Provided token isn't active");
+			return null;
 		}
 		return claims;
 	}
@@ -187,6 +368,185 @@ public class SpringAuthServerPatIntrospector implements PatIntrospector {
 		}
 	}
 
+	private static final ParameterizedTypeReference<List<Map<String, Object>>> STRING_OBJECT_MAP_LIST = new ParameterizedTypeReference<>() {
+	};
+
+	/**
+	 * Collects concurrently introspected tokens into batches. A caller creating a
+	 * batch waits until the window passes or the batch is full and then sends it,
+	 * other callers wait for their result from that request. A sending caller
+	 * always completes every result, and waiting callers give up after a window
+	 * and a result timeout longer than default transport timeouts.
+	 */
+	private final class IntrospectionBatcher {
+
+		private final URI batchIntrospectionUri;
+
+		private final Duration window;
+
+		private final int maxSize;
+
+		private final Object monitor = new Object();
+
+		private Batch current;
+
+		IntrospectionBatcher(URI batchIntrospectionUri, Duration window, int maxSize) {
+			this.batchIntrospectionUri = batchIntrospectionUri;
+			this.window = window;
+			this.maxSize = maxSize;
+		}
+
+		IntrospectionResult introspect(String token) {
+			Batch batch;
+			CompletableFuture<IntrospectionResult> result;
+			boolean leader = false;
+			synchronized (this.monitor) {
+				if (this.current == null) {
+					this.current = new Batch();
+					leader = true;
+				}
+				batch = this.current;
+				result = batch.results.computeIfAbsent(token, (key) -> new CompletableFuture<>());
+				if (batch.results.size() >= this.maxSize) {
+					this.current = null;
+					batch.full.countDown();
+				}
+			}
+			if (leader) {
+				awaitFull(batch);
+				synchronized (this.monitor) {
+					if (this.current == batch) {
+						this.current = null;
+					}
+				}
+				send(batch);
+			}
+			try {
+				return result.get(this.window.plus(BATCH_RESULT_TIMEOUT).toNanos(), TimeUnit.NANOSECONDS);
+			}
+			catch (ExecutionException ex) {
+				if (ex.getCause() instanceof RuntimeException cause) {
+					throw cause;
+				}
+				if (ex.getCause() instanceof Error cause) {
+					throw cause;
+				}
+				throw new PatIntrospectionException("Batch introspection failed", ex.getCause());
+			}
+			catch (TimeoutException ex) {
+				throw new PatIntrospectionException("Timed out waiting for batch introspection result", ex);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new PatIntrospectionException("Interrupted waiting for batch introspection result", ex);
+			}
+		}
+
+		private void awaitFull(Batch batch) {
+			try {
+				batch.full.await(this.window.toNanos(), TimeUnit.NANOSECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private void send(Batch batch) {
+			List<String> tokens = new ArrayList<>(batch.results.keySet());
+			try {
+				MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
+				body.put("token", tokens);
+				RequestEntity<?> requestEntity = new RequestEntity<>(body, requestHeaders(), HttpMethod.POST,
+						this.batchIntrospectionUri);
+				ResponseEntity<List<Map<String, Object>>> responseEntity = makeBatchRequest(requestEntity);
+				if (responseEntity.getStatusCode() != HttpStatus.OK) {
+					throw new PatIntrospectionException(
+							"Batch introspection endpoint responded with " + responseEntity.getStatusCode());
+				}
+				List<Map<String, Object>> claims = responseEntity.getBody();
+				if (claims == null || claims.size() != tokens.size()) {
+					throw new PatIntrospectionException("Batch introspection response doesn't match request");
+				}
+				for (int i = 0; i < tokens.size(); i++) {
+					batch.results.get(tokens.get(i)).complete(toResult(activeClaims(claims.get(i))));
+				}
+			}
+			catch (Throwable ex) {
+				// never leave waiting callers behind, whatever went wrong
+				batch.results.values().forEach((result) -> result.completeExceptionally(ex));
+			}
+		}
+
+		private ResponseEntity<List<Map<String, Object>>> makeBatchRequest(RequestEntity<?> requestEntity) {
+			try {
+				return SpringAuthServerPatIntrospector.this.restOperations.exchange(requestEntity,
+						STRING_OBJECT_MAP_LIST);
+			}
+			catch (Exception ex) {
+				throw new PatIntrospectionException(ex.getMessage(), ex);
+			}
+		}
+
+	}
+
+	private static final class Batch {
+
+		private final Map<String, CompletableFuture<IntrospectionResult>> results = new LinkedHashMap<>();
+
+		private final CountDownLatch full = new CountDownLatch(1);
+
+	}
+
+	private record IntrospectionResult(PatAuthenticatedPrincipal principal, Instant expiresAt) {
+
+		static final IntrospectionResult INACTIVE = new IntrospectionResult(null, null);
+
+	}
+
+	private final class IntrospectionResultExpiry implements Expiry<String, IntrospectionResult> {
+
+		private final Duration timeToLive;
+
+		private final Duration inactiveTimeToLive;
+
+		IntrospectionResultExpiry(Duration timeToLive, Duration inactiveTimeToLive) {
+			this.timeToLive = timeToLive;
+			this.inactiveTimeToLive = inactiveTimeToLive;
+		}
+
+		@Override
+		public long expireAfterCreate(String key, IntrospectionResult value, long currentTime) {
+			if (value.principal() == null) {
+				return this.inactiveTimeToLive.toNanos();
+			}
+			Duration duration = this.timeToLive;
+			if (value.expiresAt() != null) {
+				Duration untilExpiry = Duration.between(Instant.now(SpringAuthServerPatIntrospector.this.clock),
+						value.expiresAt());
+				if (untilExpiry.isNegative()) {
+					return 0;
+				}
+				if (untilExpiry.compareTo(duration) < 0) {
+					duration = untilExpiry;
+				}
+			}
+			return duration.toNanos();
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, IntrospectionResult value, long currentTime,
+				long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, IntrospectionResult value, long currentTime,
+				long currentDuration) {
+			return currentDuration;
+		}
+
+	}
+
 	private static final class ArrayListFromString extends ArrayList<String> {
 
 		@Serial
@@ -223,6 +583,28 @@ public class SpringAuthServerPatIntrospector implements PatIntrospector {
 
 		private String clientSecret;
 
+		private long cacheMaximumSize = 10000;
+
+		private Duration cacheTimeToLive;
+
+		private Duration cacheInactiveTimeToLive = Duration.ZERO;
+
+		private String batchIntrospectionUri;
+
+		private Duration batchWindow = Duration.ofMillis(2);
+
+		private int batchMaxSize = 64;
+
+		private HttpClient httpClient;
+
+		private HttpClient.Version httpVersion = HttpClient.Version.HTTP_2;
+
+		private Duration connectTimeout = Duration.ofSeconds(5);
+
+		private Duration readTimeout = Duration.ofSeconds(10);
+
+		private int maxConnections;
+
 		public Builder introspectionUri(String introspectionUri) {
 			Assert.notNull(introspectionUri, "introspectionUri cannot be null");
 			this.introspectionUri = introspectionUri;
@@ -241,11 +623,254 @@ public class SpringAuthServerPatIntrospector implements PatIntrospector {
 			return this;
 		}
 
+		/**
+		 * Sets a maximum number of cached introspection results. Defaults to
+		 * {@code 10000}.
+		 *
+		 * @param cacheMaximumSize the maximum size
+		 * @return this builder
+		 */
+		public Builder cacheMaximumSize(long cacheMaximumSize) {
+			this.cacheMaximumSize = cacheMaximumSize;
+			return this;
+		}
+
+		/**
+		 * Sets a maximum time to live for an active introspection result, capped by
+		 * token expiry. Setting this enables caching.
+		 *
+		 * @param cacheTimeToLive the time to live
+		 * @return this builder
+		 */
+		public Builder cacheTimeToLive(Duration cacheTimeToLive) {
+			Assert.notNull(cacheTimeToLive, "cacheTimeToLive cannot be null");
+			this.cacheTimeToLive = cacheTimeToLive;
+			return this;
+		}
+
+		/**
+		 * Sets a time to live for an inactive introspection result. Defaults to
+		 * {@link Duration#ZERO} meaning inactive results are not cached.
+		 *
+		 * @param cacheInactiveTimeToLive the time to live
+		 * @return this builder
+		 */
+		public Builder cacheInactiveTimeToLive(Duration cacheInactiveTimeToLive) {
+			Assert.notNull(cacheInactiveTimeToLive, "cacheInactiveTimeToLive cannot be null");
+			this.cacheInactiveTimeToLive = cacheInactiveTimeToLive;
+			return this;
+		}
+
+		/**
+		 * Sets a batch introspection endpoint uri. Setting this enables batching of
+		 * concurrent introspections.
+		 *
+		 * @param batchIntrospectionUri the batch introspection uri
+		 * @return this builder
+		 */
+		public Builder batchIntrospectionUri(String batchIntrospectionUri) {
+			Assert.notNull(batchIntrospectionUri, "batchIntrospectionUri cannot be null");
+			this.batchIntrospectionUri = batchIntrospectionUri;
+			return this;
+		}
+
+		/**
+		 * Sets a maximum time a batch is collected. Defaults to {@code 2ms}.
+		 *
+		 * @param batchWindow the batch window
+		 * @return this builder
+		 */
+		public Builder batchWindow(Duration batchWindow) {
+			Assert.notNull(batchWindow, "batchWindow cannot be null");
+			this.batchWindow = batchWindow;
+			return this;
+		}
+
+		/**
+		 * Sets a maximum number of tokens in a batch. Defaults to {@code 64}.
+		 *
+		 * @param batchMaxSize the batch max size
+		 * @return this builder
+		 */
+		public Builder batchMaxSize(int batchMaxSize) {
+			this.batchMaxSize = batchMaxSize;
+			return this;
+		}
+
+		/**
+		 * Sets a {@link HttpClient} to use instead of one created by this builder.
+		 * When set, {@link #httpVersion(HttpClient.Version)} and
+		 * {@link #connectTimeout(Duration)} are not used.
+		 *
+		 * @param httpClient the http client
+		 * @return this builder
+		 */
+		public Builder httpClient(HttpClient httpClient) {
+			Assert.notNull(httpClient, "httpClient cannot be null");
+			this.httpClient = httpClient;
+			return this;
+		}
+
+		/**
+		 * Sets a preferred http version. Defaults to {@code HTTP_2} which falls back
+		 * to {@code HTTP_1_1} if not supported by a server.
+		 *
+		 * @param httpVersion the http version
+		 * @return this builder
+		 */
+		public Builder httpVersion(HttpClient.Version httpVersion) {
+			Assert.notNull(httpVersion, "httpVersion cannot be null");
+			this.httpVersion = httpVersion;
+			return this;
+		}
+
+		/**
+		 * Sets a connect timeout. Defaults to {@code 5s}.
+		 *
+		 * @param connectTimeout the connect timeout
+		 * @return this builder
+		 */
+		public Builder connectTimeout(Duration connectTimeout) {
+			Assert.notNull(connectTimeout, "connectTimeout cannot be null");
+			this.connectTimeout = connectTimeout;
+			return this;
+		}
+
+		/**
+		 * Sets a read timeout. Defaults to {@code 10s}.
+		 *
+		 * @param readTimeout the read timeout
+		 * @return this builder
+		 */
+		public Builder readTimeout(Duration readTimeout) {
+			Assert.notNull(readTimeout, "readTimeout cannot be null");
+			this.readTimeout = readTimeout;
+			return this;
+		}
+
+		/**
+		 * Sets a maximum number of concurrent requests to an introspection endpoint,
+		 * which with {@code HTTP/1.1} bounds a number of pooled connections. Callers
+		 * exceeding it wait for a request to complete. Defaults to {@code 0} meaning
+		 * no limit.
+		 *
+		 * @param maxConnections the max connections
+		 * @return this builder
+		 */
+		public Builder maxConnections(int maxConnections) {
+			Assert.isTrue(maxConnections >= 0, "maxConnections cannot be negative");
+			this.maxConnections = maxConnections;
+			return this;
+		}
+
 		public SpringAuthServerPatIntrospector build() {
-			RestTemplate restTemplate = new RestTemplate();
+			HttpClient httpClient = this.httpClient;
+			if (httpClient == null) {
+				httpClient = HttpClient.newBuilder()
+					.version(this.httpVersion)
+					.connectTimeout(this.connectTimeout)
+					.build();
+			}
+			JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+			requestFactory.setReadTimeout(this.readTimeout);
+			RestTemplate restTemplate = new RestTemplate(requestFactory);
+			// credentials are encoded once and reused for every request
 			restTemplate.getInterceptors().add(new BasicAuthenticationInterceptor(this.clientId, this.clientSecret));
-			return new SpringAuthServerPatIntrospector(this.introspectionUri, restTemplate);
+			if (this.maxConnections > 0) {
+				restTemplate.getInterceptors().add(new ConcurrencyLimitingInterceptor(this.maxConnections));
+			}
+			SpringAuthServerPatIntrospector introspector = new SpringAuthServerPatIntrospector(this.introspectionUri,
+					restTemplate);
+			if (this.cacheTimeToLive != null) {
+				introspector.setCache(this.cacheMaximumSize, this.cacheTimeToLive, this.cacheInactiveTimeToLive);
+			}
+			if (this.batchIntrospectionUri != null) {
+				introspector.setBatching(this.batchIntrospectionUri, this.batchWindow, this.batchMaxSize);
+			}
+			return introspector;
 		}
 
 	}
+
+	/**
+	 * Limits concurrent requests. A permit is held until a response is closed so
+	 * that a connection is not counted free while its body is still read.
+	 */
+	private static final class ConcurrencyLimitingInterceptor implements ClientHttpRequestInterceptor {
+
+		private final Semaphore permits;
+
+		ConcurrencyLimitingInterceptor(int maxConcurrency) {
+			this.permits = new Semaphore(maxConcurrency);
+		}
+
+		@Override
+		public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+				throws IOException {
+			try {
+				this.permits.acquire();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while waiting for a connection", ex);
+			}
+			try {
+				return new PermitReleasingResponse(execution.execute(request, body), this.permits);
+			}
+			catch (IOException | RuntimeException ex) {
+				this.permits.release();
+				throw ex;
+			}
+		}
+
+	}
+
+	private static final class PermitReleasingResponse implements ClientHttpResponse {
+
+		private final ClientHttpResponse delegate;
+
+		private final Semaphore permits;
+
+		private boolean released;
+
+		PermitReleasingResponse(ClientHttpResponse delegate, Semaphore permits) {
+			this.delegate = delegate;
+			this.permits = permits;
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return this.delegate.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return this.delegate.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.delegate.getHeaders();
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			return this.delegate.getBody();
+		}
+
+		@Override
+		public void close() {
+			try {
+				this.delegate.close();
+			}
+			finally {
+				if (!this.released) {
+					this.released = true;
+					this.permits.release();
+				}
+			}
+		}
+
+	}
+
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.introspect;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.github.jvalkeal.secpat.pat.PatAuthenticatedPrincipal;
+import com.github.jvalkeal.secpat.pat.PatAuthenticationException;
+import com.github.jvalkeal.secpat.pat.PatError;
+import com.github.jvalkeal.secpat.pat.PatErrorCodes;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactivePatIntrospector} implementation using Spring Authorization
+ * Server's PAT introspection endpoint with a non-blocking {@link WebClient}.
+ *
+ * @author Janne Valkealahti
+ * @see SpringAuthServerPatIntrospector
+ */
+public class SpringAuthServerReactivePatIntrospector implements ReactivePatIntrospector {
+
+	private static final ParameterizedTypeReference<Map<String, Object>> STRING_OBJECT_MAP = new ParameterizedTypeReference<>() {
+	};
+
+	private final String introspectionUri;
+
+	private final WebClient webClient;
+
+	public SpringAuthServerReactivePatIntrospector(String introspectionUri, WebClient webClient) {
+		Assert.notNull(introspectionUri, "introspectionUri cannot be null");
+		Assert.notNull(webClient, "webClient cannot be null");
+		this.introspectionUri = introspectionUri;
+		this.webClient = webClient;
+	}
+
+	@Override
+	public Mono<PatAuthenticatedPrincipal> introspect(String token) {
+		return this.webClient.post()
+			.uri(this.introspectionUri)
+			.accept(MediaType.APPLICATION_JSON)
+			.body(BodyInserters.fromFormData("token", token))
+			.retrieve()
+			.bodyToMono(STRING_OBJECT_MAP)
+			.onErrorMap((ex) -> !(ex instanceof PatIntrospectionException),
+					(ex) -> new PatIntrospectionException(ex.getMessage(), ex))
+			.defaultIfEmpty(Collections.emptyMap())
+			.flatMap(this::convert);
+	}
+
+	private Mono<PatAuthenticatedPrincipal> convert(Map<String, Object> claims) {
+		Object active = claims.get(PatTokenIntrospectionClaimNames.ACTIVE);
+		if (!(Boolean.TRUE.equals(active) || "true".equals(active))) {
+			return Mono.error(new PatAuthenticationException(
+					new PatError(PatErrorCodes.TOKEN_INACTIVE, "Provided token isn't active")));
+		}
+		Object username = claims.get(PatTokenIntrospectionClaimNames.USERNAME);
+		return Mono.just(PatAuthenticatedPrincipal.of(username != null ? username.toString() : null,
+				authorities(claims.get(PatTokenIntrospectionClaimNames.SCOPE))));
+	}
+
+	private Collection<GrantedAuthority> authorities(Object scope) {
+		List<String> scopes = new ArrayList<>();
+		if (scope instanceof String s) {
+			scopes.addAll(Arrays.asList(StringUtils.delimitedListToStringArray(s, " ")));
+		}
+		else if (scope instanceof Collection<?> c) {
+			c.forEach((value) -> scopes.add(value.toString()));
+		}
+		Collection<GrantedAuthority> authorities = new ArrayList<>();
+		for (String value : scopes) {
+			if (StringUtils.hasText(value)) {
+				authorities.add(new SimpleGrantedAuthority(value));
+			}
+		}
+		return authorities;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static final class Builder {
+
+		private String introspectionUri;
+
+		private String clientId;
+
+		private String clientSecret;
+
+		private WebClient.Builder webClientBuilder = WebClient.builder();
+
+		public Builder introspectionUri(String introspectionUri) {
+			Assert.notNull(introspectionUri, "introspectionUri cannot be null");
+			this.introspectionUri = introspectionUri;
+			return this;
+		}
+
+		public Builder clientId(String clientId) {
+			Assert.notNull(clientId, "clientId cannot be null");
+			this.clientId = URLEncoder.encode(clientId, StandardCharsets.UTF_8);
+			return this;
+		}
+
+		public Builder clientSecret(String clientSecret) {
+			Assert.notNull(clientSecret, "clientSecret cannot be null");
+			this.clientSecret = URLEncoder.encode(clientSecret, StandardCharsets.UTF_8);
+			return this;
+		}
+
+		/**
+		 * Sets a {@link WebClient.Builder} used to build a client, for example to
+		 * customize an underlying connector.
+		 *
+		 * @param webClientBuilder the web client builder
+		 * @return this builder
+		 */
+		public Builder webClientBuilder(WebClient.Builder webClientBuilder) {
+			Assert.notNull(webClientBuilder, "webClientBuilder cannot be null");
+			this.webClientBuilder = webClientBuilder;
+			return this;
+		}
+
+		public SpringAuthServerReactivePatIntrospector build() {
+			WebClient webClient = this.webClientBuilder
+				.defaultHeaders((headers) -> headers.setBasicAuth(this.clientId, this.clientSecret))
+				.build();
+			return new SpringAuthServerReactivePatIntrospector(this.introspectionUri, webClient);
+		}
+
+	}
+
+}
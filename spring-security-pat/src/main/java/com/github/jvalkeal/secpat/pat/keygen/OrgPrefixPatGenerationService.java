@@ -16,46 +16,52 @@
 
 package com.github.jvalkeal.secpat.pat.keygen;
 
-import java.nio.ByteBuffer;
-import java.security.SecureRandom;
-import java.util.zip.CRC32;
+import java.util.List;
 
 import org.springframework.util.Assert;
 
 /**
- * Default implementation of a {@link PatGenerationService}.
+ * Default implementation of a {@link PatGenerationService}. Tokens are encoded
+ * and validated with a {@link PatTokenCodec} which draws random bytes from a
+ * small striped pool of {@code DRBG}s, so generation scales with concurrent
+ * callers. Batches are generated from random bytes drawn in bulk.
  *
  * @author Janne Valkealahti
  */
 public final class OrgPrefixPatGenerationService implements PatGenerationService, PatService {
 
-	private static final String BASE62_CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
-	private static final SecureRandom RANDOM = new SecureRandom();
-	private static final String PAT_FORMAT = "%s_%s_%s_%s";
-	private static final String PAT_FORMAT_VERSION = "%s_%s_%s_%s_%s";
-	private final String org;
-	private final String type;
-	private final int length;
-	private final String version;
+	private final PatTokenCodec codec;
 
 	public OrgPrefixPatGenerationService(String org, String type, int length) {
 		this(org, type, length, null);
 	}
 
 	public OrgPrefixPatGenerationService(String org, String type, int length, String version) {
+		this(org, type, length, version, PatTokenCodec.Checksum.CRC32);
+	}
+
+	public OrgPrefixPatGenerationService(String org, String type, int length, String version,
+			PatTokenCodec.Checksum checksum) {
 		Assert.hasText(org, "org must have a value");
 		Assert.hasText(type, "type must have a value");
 		Assert.isTrue(length > 50, "length must be higher than 50");
-		this.org = org;
-		this.type = type;
-		this.length = length;
-		this.version = version;
+		this.codec = new PatTokenCodec(org, type, length, version, checksum);
 	}
 
 	@Override
 	public PatGenerator generator() {
-		return (source) -> {
-			return generate(source);
+		return new PatGenerator() {
+
+			@Override
+			public String apply(Object source) {
+				return generate(source);
+			}
+
+			@Override
+			public List<String> generateBatch(Object source, int count) {
+				return OrgPrefixPatGenerationService.this.generateBatch(source, count);
+			}
+
 		};
 	}
 
@@ -68,68 +74,17 @@ public final class OrgPrefixPatGenerationService implements PatGenerationService
 
 	@Override
 	public String generate(Object source) {
-		return generatePat(org, type, length, version);
+		return codec.generate();
 	}
 
 	@Override
-	public boolean validate(String pat) {
-		if (pat == null) {
-			return false;
-		}
-		String[] fields = pat.split("_");
-		if (fields.length != 4) {
-			return false;
-		}
-		if (!fields[0].equals(org)) {
-			return false;
-		}
-		if (!fields[1].equals(type)) {
-			return false;
-		}
-		if (checksum(fields[3]).equals(fields[2])) {
-			return true;
-		}
-		if (version != null && !fields[0].equals(version)) {
-			return true;
-		}
-		return false;
-	}
-
-	private static String generatePat(String org, String type, int length, String version) {
-		String rand = randomize(length, BASE62_CHARS);
-		String enc = checksum(rand);
-		if (version == null) {
-			return String.format(PAT_FORMAT, org, type, enc, rand);
-		}
-		else {
-			return String.format(PAT_FORMAT_VERSION, org, type, enc, rand, version);
-		}
-	}
-
-	private static String checksum(String data) {
-		CRC32 crc = new CRC32();
-		ByteBuffer buf = ByteBuffer.allocate(data.length());
-		buf.put(data.getBytes());
-		crc.update(buf.array());
-		return base62Encode(crc.getValue());
+	public List<String> generateBatch(Object source, int count) {
+		return codec.generate(count);
 	}
 
-	private static String randomize(int n, String chars) {
-		StringBuilder buf = new StringBuilder();
-		for (int i = 0; i < n; i++) {
-			buf.append(chars.charAt(RANDOM.nextInt(chars.length())));
-		}
-		return buf.toString();
-	}
-
-	private static String base62Encode(long l) {
-		final int base = 62;
-		StringBuilder buf = new StringBuilder(1);
-		do {
-			buf.insert(0, BASE62_CHARS.charAt((int) (l % base)));
-			l /= base;
-		} while (l > 0);
-		return buf.toString();
+	@Override
+	public boolean validate(String pat) {
+		return codec.matches(pat);
 	}
 
 }
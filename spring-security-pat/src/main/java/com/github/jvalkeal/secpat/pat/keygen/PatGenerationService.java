@@ -16,6 +16,9 @@
 
 package com.github.jvalkeal.secpat.pat.keygen;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * {@code PatGenerationService} works in two ways, firstly it can create a new
  * {@code PAT} token and secondly it can validate if {@code PAT} token can ever
@@ -37,6 +40,21 @@ public interface PatGenerationService {
 	 */
 	String generate(Object source);
 
+	/**
+	 * Generate a batch of {@code PAT}s.
+	 *
+	 * @param source the source
+	 * @param count the number of tokens
+	 * @return generated {@code PAT}s
+	 */
+	default List<String> generateBatch(Object source, int count) {
+		List<String> tokens = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			tokens.add(generate(source));
+		}
+		return tokens;
+	}
+
 	/**
 	 * Validate {@code PAT} to be able to skip false positives.
 	 *
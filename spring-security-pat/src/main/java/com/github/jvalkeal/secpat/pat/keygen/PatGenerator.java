@@ -16,7 +16,25 @@
 
 package com.github.jvalkeal.secpat.pat.keygen;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
 
 public interface PatGenerator extends Function<Object, String> {
+
+	/**
+	 * Generate a batch of tokens from a same source.
+	 *
+	 * @param source the source
+	 * @param count the number of tokens
+	 * @return generated tokens
+	 */
+	default List<String> generateBatch(Object source, int count) {
+		List<String> tokens = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			tokens.add(apply(source));
+		}
+		return tokens;
+	}
+
 }
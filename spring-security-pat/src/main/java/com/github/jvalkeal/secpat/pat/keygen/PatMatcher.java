@@ -16,7 +16,62 @@
 
 package com.github.jvalkeal.secpat.pat.keygen;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.function.Function;
 
+import org.springframework.util.Assert;
+
+/**
+ * Cheap check whether a token is in a format a {@link PatGenerator} would
+ * produce, used to reject obviously invalid tokens before expensive validation.
+ *
+ * @author Janne Valkealahti
+ */
 public interface PatMatcher extends Function<String, Boolean> {
+
+	/**
+	 * Check whether a token matches.
+	 *
+	 * @param token the token
+	 * @return {@code true} if token matches
+	 */
+	default boolean matches(String token) {
+		return Boolean.TRUE.equals(apply(token));
+	}
+
+	/**
+	 * Create a {@link PatMatcher} matching a token if any of given matchers
+	 * matches it.
+	 *
+	 * @param matchers the matchers
+	 * @return a composite matcher
+	 */
+	static PatMatcher anyOf(PatMatcher... matchers) {
+		return anyOf(Arrays.asList(matchers));
+	}
+
+	/**
+	 * Create a {@link PatMatcher} matching a token if any of given matchers
+	 * matches it.
+	 *
+	 * @param matchers the matchers
+	 * @return a composite matcher
+	 */
+	static PatMatcher anyOf(Collection<? extends PatMatcher> matchers) {
+		Assert.notEmpty(matchers, "matchers cannot be empty");
+		PatMatcher[] delegates = matchers.toArray(new PatMatcher[0]);
+		if (delegates.length == 1) {
+			return delegates[0];
+		}
+		return (token) -> {
+			for (PatMatcher delegate : delegates) {
+				if (delegate.matches(token)) {
+					return true;
+				}
+			}
+			return false;
+		};
+	}
+
 }
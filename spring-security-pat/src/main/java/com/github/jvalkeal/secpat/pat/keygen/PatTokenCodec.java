@@ -0,0 +1,395 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.keygen;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.random.RandomGenerator;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+import org.springframework.util.Assert;
+
+/**
+ * Codec encoding and verifying prefix style tokens in a format
+ * {@code org_type_checksum_random[_version]} where {@code random} is a base62
+ * string of a fixed length and {@code checksum} is a base62 encoded checksum of
+ * {@code random}.
+ *
+ * Verification is done in a single pass over a {@link CharSequence} and
+ * encoding writes directly into a reusable buffer, so neither allocates
+ * anything besides a generated token itself. Buffers are borrowed from a small
+ * striped pool instead of being bound to threads, which keeps retained memory
+ * bounded with virtual threads, and a buffer is only allocated if its stripe is
+ * momentarily in use. Random characters are mapped from bytes filled in bulk
+ * using rejection sampling to avoid modulo bias. By default bytes come from a
+ * fixed set of thread safe {@code DRBG} instances striped by a calling thread,
+ * so concurrent generation neither contends on a single {@link SecureRandom}
+ * nor seeds a new one per thread. {@link #generate(int)} draws random bytes for
+ * a whole batch at once.
+ *
+ * @author Janne Valkealahti
+ * @see OrgPrefixPatGenerationService
+ */
+public final class PatTokenCodec {
+
+	/**
+	 * Checksum algorithm used with a token.
+	 */
+	public enum Checksum {
+
+		/**
+		 * {@code CRC-32}, compatible with tokens generated by earlier versions.
+		 */
+		CRC32,
+
+		/**
+		 * {@code CRC-32C} which is hardware accelerated on most platforms.
+		 */
+		CRC32C
+
+	}
+
+	private static final byte[] BASE62 = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz"
+		.getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] BASE62_VALUES = new byte[128];
+
+	// 62^6 is the first power exceeding 2^32
+	private static final int MAX_CHECKSUM_LENGTH = 6;
+
+	private static final char SEPARATOR = '_';
+
+	// lower six bits of a byte give a uniform value in 0..63, values 62 and 63
+	// are rejected
+	private static final int RANDOM_MASK = 0x3F;
+
+	// power of two at least the number of processors
+	private static final int STRIPES = Integer
+		.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+	// upper bound of random bytes drawn at once for a batch
+	private static final int MAX_BATCH_RANDOM_BYTES = 1 << 16;
+
+	private static final SecureRandom[] RANDOMS = new SecureRandom[STRIPES];
+
+	static {
+		Arrays.fill(BASE62_VALUES, (byte) -1);
+		for (int i = 0; i < BASE62.length; i++) {
+			BASE62_VALUES[BASE62[i]] = (byte) i;
+		}
+		for (int i = 0; i < STRIPES; i++) {
+			RANDOMS[i] = createRandom();
+		}
+	}
+
+	private final byte[] prefix;
+
+	private final byte[] suffix;
+
+	private final int length;
+
+	private final Checksum checksum;
+
+	private final int capacity;
+
+	private final AtomicReferenceArray<Scratch> scratches = new AtomicReferenceArray<>(STRIPES);
+
+	/**
+	 * Create a new {@link PatTokenCodec}.
+	 *
+	 * @param org the organisation part
+	 * @param type the type part
+	 * @param length the length of a random part
+	 * @param version the optional version part
+	 * @param checksum the checksum algorithm
+	 */
+	public PatTokenCodec(String org, String type, int length, String version, Checksum checksum) {
+		assertPart(org, "org");
+		assertPart(type, "type");
+		if (version != null) {
+			assertPart(version, "version");
+		}
+		Assert.isTrue(length > 0, "length must be positive");
+		Assert.notNull(checksum, "checksum cannot be null");
+		this.prefix = (org + SEPARATOR + type + SEPARATOR).getBytes(StandardCharsets.US_ASCII);
+		this.suffix = (version != null) ? (SEPARATOR + version).getBytes(StandardCharsets.US_ASCII) : new byte[0];
+		this.length = length;
+		this.checksum = checksum;
+		this.capacity = this.prefix.length + MAX_CHECKSUM_LENGTH + 1 + length + this.suffix.length;
+	}
+
+	/**
+	 * Generate a new token using a shared {@link SecureRandom} of a calling
+	 * thread's stripe.
+	 *
+	 * @return a generated token
+	 */
+	public String generate() {
+		return generate(RANDOMS[stripe()]);
+	}
+
+	/**
+	 * Generate a batch of tokens using a shared {@link SecureRandom} of a calling
+	 * thread's stripe. Random bytes for a batch are drawn in bulk instead of once
+	 * per token.
+	 *
+	 * @param count the number of tokens
+	 * @return generated tokens
+	 */
+	public List<String> generate(int count) {
+		Assert.isTrue(count >= 0, "count cannot be negative");
+		List<String> tokens = new ArrayList<>(count);
+		if (count == 0) {
+			return tokens;
+		}
+		SecureRandom random = RANDOMS[stripe()];
+		// rejection keeps 62 of 64 values, one spare token length covers it on average
+		byte[] randomBytes = new byte[(int) Math.min((long) (count + 1) * this.length, MAX_BATCH_RANDOM_BYTES)];
+		random.nextBytes(randomBytes);
+		int offset = 0;
+		Scratch scratch = acquireScratch();
+		try {
+			byte[] buffer = scratch.buffer;
+			int randomStart = randomStart();
+			for (int i = 0; i < count; i++) {
+				int filled = 0;
+				while (filled < this.length) {
+					if (offset == randomBytes.length) {
+						random.nextBytes(randomBytes);
+						offset = 0;
+					}
+					int value = randomBytes[offset++] & RANDOM_MASK;
+					if (value < BASE62.length) {
+						buffer[randomStart + filled++] = BASE62[value];
+					}
+				}
+				tokens.add(encode(scratch));
+			}
+		}
+		finally {
+			releaseScratch(scratch);
+		}
+		return tokens;
+	}
+
+	/**
+	 * Generate a new token using given random source.
+	 *
+	 * @param random the random source
+	 * @return a generated token
+	 */
+	public String generate(RandomGenerator random) {
+		Assert.notNull(random, "random cannot be null");
+		Scratch scratch = acquireScratch();
+		try {
+			byte[] buffer = scratch.buffer;
+			int randomStart = randomStart();
+			byte[] randomBytes = scratch.randomBytes;
+			int count = 0;
+			while (count < this.length) {
+				random.nextBytes(randomBytes);
+				for (int i = 0; i < randomBytes.length && count < this.length; i++) {
+					int value = randomBytes[i] & RANDOM_MASK;
+					if (value < BASE62.length) {
+						buffer[randomStart + count++] = BASE62[value];
+					}
+				}
+			}
+			return encode(scratch);
+		}
+		finally {
+			releaseScratch(scratch);
+		}
+	}
+
+	// random part is written to its final position, the rest is laid out
+	// backwards from it once checksum width is known
+	private int randomStart() {
+		return this.prefix.length + MAX_CHECKSUM_LENGTH + 1;
+	}
+
+	private String encode(Scratch scratch) {
+		byte[] buffer = scratch.buffer;
+		int randomStart = randomStart();
+		long value = scratch.checksum(buffer, randomStart, this.length);
+		int position = randomStart - 1;
+		buffer[position] = SEPARATOR;
+		do {
+			buffer[--position] = BASE62[(int) (value % BASE62.length)];
+			value /= BASE62.length;
+		}
+		while (value > 0);
+		position -= this.prefix.length;
+		System.arraycopy(this.prefix, 0, buffer, position, this.prefix.length);
+		System.arraycopy(this.suffix, 0, buffer, randomStart + this.length, this.suffix.length);
+		return new String(buffer, position, randomStart + this.length + this.suffix.length - position,
+				StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Check whether a token is in an expected format and has a valid checksum.
+	 *
+	 * @param token the token
+	 * @return {@code true} if token matches
+	 */
+	public boolean matches(CharSequence token) {
+		if (token == null) {
+			return false;
+		}
+		int tokenLength = token.length();
+		int minLength = this.prefix.length + 2 + this.length + this.suffix.length;
+		if (tokenLength < minLength || tokenLength > minLength + MAX_CHECKSUM_LENGTH - 1) {
+			return false;
+		}
+		if (!regionMatches(token, 0, this.prefix)
+				|| !regionMatches(token, tokenLength - this.suffix.length, this.suffix)) {
+			return false;
+		}
+		int randomStart = tokenLength - this.suffix.length - this.length;
+		if (token.charAt(randomStart - 1) != SEPARATOR) {
+			return false;
+		}
+		long expected = decode(token, this.prefix.length, randomStart - 1);
+		if (expected < 0) {
+			return false;
+		}
+		Scratch scratch = acquireScratch();
+		try {
+			byte[] buffer = scratch.buffer;
+			for (int i = 0; i < this.length; i++) {
+				char c = token.charAt(randomStart + i);
+				if (c >= BASE62_VALUES.length || BASE62_VALUES[c] < 0) {
+					return false;
+				}
+				buffer[i] = (byte) c;
+			}
+			return scratch.checksum(buffer, 0, this.length) == expected;
+		}
+		finally {
+			releaseScratch(scratch);
+		}
+	}
+
+	/**
+	 * Check whether a token is a {@code UUID} in its canonical 36 character form.
+	 *
+	 * @param token the token
+	 * @return {@code true} if token is a uuid
+	 */
+	public static boolean isUuid(CharSequence token) {
+		if (token == null || token.length() != 36) {
+			return false;
+		}
+		for (int i = 0; i < 36; i++) {
+			char c = token.charAt(i);
+			if (i == 8 || i == 13 || i == 18 || i == 23) {
+				if (c != '-') {
+					return false;
+				}
+			}
+			else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Scratch acquireScratch() {
+		Scratch scratch = this.scratches.getAndSet(stripe(), null);
+		return scratch != null ? scratch : new Scratch(this.checksum, this.capacity, this.length);
+	}
+
+	private void releaseScratch(Scratch scratch) {
+		// dropped if a stripe was refilled meanwhile
+		this.scratches.compareAndSet(stripe(), null, scratch);
+	}
+
+	private static int stripe() {
+		return (int) Thread.currentThread().getId() & (STRIPES - 1);
+	}
+
+	private static long decode(CharSequence token, int start, int end) {
+		if (end - start > 1 && token.charAt(start) == '0') {
+			return -1;
+		}
+		long value = 0;
+		for (int i = start; i < end; i++) {
+			char c = token.charAt(i);
+			if (c >= BASE62_VALUES.length || BASE62_VALUES[c] < 0) {
+				return -1;
+			}
+			value = value * BASE62.length + BASE62_VALUES[c];
+		}
+		return value;
+	}
+
+	private static boolean regionMatches(CharSequence token, int offset, byte[] expected) {
+		for (int i = 0; i < expected.length; i++) {
+			if (token.charAt(offset + i) != expected[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static SecureRandom createRandom() {
+		try {
+			return SecureRandom.getInstance("DRBG");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			return new SecureRandom();
+		}
+	}
+
+	private static void assertPart(String part, String name) {
+		Assert.hasText(part, name + " must have a value");
+		for (int i = 0; i < part.length(); i++) {
+			char c = part.charAt(i);
+			Assert.isTrue(c > ' ' && c < 127 && c != SEPARATOR,
+					name + " must only contain printable ascii characters other than '_'");
+		}
+	}
+
+	private static final class Scratch {
+
+		private final java.util.zip.Checksum checksum;
+
+		private final byte[] buffer;
+
+		private final byte[] randomBytes;
+
+		Scratch(Checksum checksum, int capacity, int length) {
+			this.checksum = (checksum == Checksum.CRC32C) ? new CRC32C() : new CRC32();
+			this.buffer = new byte[capacity];
+			this.randomBytes = new byte[length];
+		}
+
+		long checksum(byte[] data, int offset, int length) {
+			this.checksum.reset();
+			this.checksum.update(data, offset, length);
+			return this.checksum.getValue();
+		}
+
+	}
+
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.keygen;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorization;
+
+/**
+ * {@link PatService} issuing self-contained signed tokens which can be verified
+ * locally without a repository lookup. A token has a format
+ * {@code prefix.payload.signature} where {@code payload} carries authorization
+ * id, principal, scopes and {@code iat}, {@code exp} and {@code nbf} times in
+ * epoch seconds, and
+ * {@code signature} is either {@code HmacSHA256} or {@code Ed25519} over
+ * {@code prefix.payload}. Both parts are base64url encoded without padding.
+ *
+ * A {@link PatGenerator} from this service expects a {@link PatAuthorization}
+ * as its source.
+ *
+ * @author Janne Valkealahti
+ * @see com.github.jvalkeal.secpat.pat.introspect.SignedPatIntrospector
+ */
+public final class SignedPatService implements PatService {
+
+	private static final char SEPARATOR = '.';
+
+	private static final char FIELD_SEPARATOR = '\n';
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final String prefix;
+
+	private final Signer signer;
+
+	private SignedPatService(String prefix, Signer signer) {
+		Assert.hasText(prefix, "prefix must have a value");
+		Assert.isTrue(prefix.indexOf(SEPARATOR) < 0, "prefix cannot contain '.'");
+		this.prefix = prefix;
+		this.signer = signer;
+	}
+
+	/**
+	 * Create a {@link SignedPatService} signing tokens with {@code HmacSHA256}.
+	 *
+	 * @param prefix the token prefix
+	 * @param secret the shared secret, at least 32 bytes
+	 * @return a signed pat service
+	 */
+	public static SignedPatService hmac(String prefix, byte[] secret) {
+		Assert.notNull(secret, "secret cannot be null");
+		Assert.isTrue(secret.length >= 32, "secret must be at least 32 bytes");
+		return new SignedPatService(prefix, new HmacSigner(secret));
+	}
+
+	/**
+	 * Create a {@link SignedPatService} signing tokens with {@code Ed25519}. If
+	 * {@code privateKey} is {@code null} a service can only verify tokens.
+	 *
+	 * @param prefix the token prefix
+	 * @param privateKey the private key, may be {@code null}
+	 * @param publicKey the public key
+	 * @return a signed pat service
+	 */
+	public static SignedPatService ed25519(String prefix, PrivateKey privateKey, PublicKey publicKey) {
+		Assert.notNull(publicKey, "publicKey cannot be null");
+		return new SignedPatService(prefix, new Ed25519Signer(privateKey, publicKey));
+	}
+
+	@Override
+	public PatGenerator generator() {
+		return (source) -> {
+			Assert.isInstanceOf(PatAuthorization.class, source, "source must be a PatAuthorization");
+			return generate((PatAuthorization) source);
+		};
+	}
+
+	@Override
+	public PatMatcher matcher() {
+		return (token) -> matches(token);
+	}
+
+	/**
+	 * Generate a signed token from an authorization.
+	 *
+	 * @param authorization the authorization
+	 * @return a signed token
+	 */
+	public String generate(PatAuthorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		Assert.hasText(authorization.getPrincipal(), "principal must have a value");
+		StringJoiner payload = new StringJoiner(String.valueOf(FIELD_SEPARATOR));
+		payload.add(field(authorization.getId()));
+		payload.add(field(authorization.getPrincipal()));
+		payload.add(field(StringUtils.collectionToDelimitedString(authorization.getScopes(), " ")));
+		payload.add(epoch(authorization.getIssuedAt()));
+		payload.add(epoch(authorization.getExpiresAt()));
+		payload.add(epoch(authorization.getNotBefore()));
+		String signingInput = this.prefix + SEPARATOR
+				+ ENCODER.encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+		byte[] signature = this.signer.sign(signingInput.getBytes(StandardCharsets.US_ASCII));
+		return signingInput + SEPARATOR + ENCODER.encodeToString(signature);
+	}
+
+	/**
+	 * Verify a token signature and decode it into a {@link PatAuthorization}.
+	 * A signature which is not canonically encoded is rejected. Validity times
+	 * are not checked.
+	 *
+	 * @param token the token
+	 * @return a decoded authorization or {@code null} if token is not valid
+	 */
+	public PatAuthorization verify(String token) {
+		if (!matches(token)) {
+			return null;
+		}
+		int signatureStart = token.lastIndexOf(SEPARATOR);
+		String encodedSignature = token.substring(signatureStart + 1);
+		byte[] signature;
+		byte[] payload;
+		try {
+			signature = DECODER.decode(encodedSignature);
+			payload = DECODER.decode(token.substring(this.prefix.length() + 1, signatureStart));
+		}
+		catch (IllegalArgumentException ex) {
+			return null;
+		}
+		// decoder ignores trailing bits and accepts padding, only a canonical
+		// encoding is valid so that one signature maps to exactly one token
+		if (!ENCODER.encodeToString(signature).equals(encodedSignature)) {
+			return null;
+		}
+		byte[] signingInput = token.substring(0, signatureStart).getBytes(StandardCharsets.US_ASCII);
+		if (!this.signer.verify(signingInput, signature)) {
+			return null;
+		}
+		String[] fields = new String(payload, StandardCharsets.UTF_8).split(String.valueOf(FIELD_SEPARATOR), -1);
+		if (fields.length != 6) {
+			return null;
+		}
+		try {
+			return PatAuthorization.builder()
+				.id(value(fields[0]))
+				.principal(fields[1])
+				.scopes(new LinkedHashSet<>(Arrays.asList(StringUtils.tokenizeToStringArray(fields[2], " "))))
+				.token(token)
+				.issuedAt(instant(fields[3]))
+				.expiresAt(instant(fields[4]))
+				.notBefore(instant(fields[5]))
+				.build();
+		}
+		catch (IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+	private boolean matches(String token) {
+		if (token == null || token.length() < this.prefix.length() + 4 || !token.startsWith(this.prefix)
+				|| token.charAt(this.prefix.length()) != SEPARATOR) {
+			return false;
+		}
+		int signatureStart = token.lastIndexOf(SEPARATOR);
+		return signatureStart > this.prefix.length() + 1 && signatureStart < token.length() - 1;
+	}
+
+	private static String field(String value) {
+		if (value == null) {
+			return "";
+		}
+		Assert.isTrue(value.indexOf(FIELD_SEPARATOR) < 0, "token fields cannot contain a newline");
+		return value;
+	}
+
+	private static String value(String field) {
+		return field.isEmpty() ? null : field;
+	}
+
+	private static String epoch(Instant instant) {
+		Assert.notNull(instant, "token times cannot be null");
+		return Long.toString(instant.getEpochSecond());
+	}
+
+	private static Instant instant(String field) {
+		return Instant.ofEpochSecond(Long.parseLong(field));
+	}
+
+	private interface Signer {
+
+		byte[] sign(byte[] data);
+
+		boolean verify(byte[] data, byte[] signature);
+
+	}
+
+	private static final class HmacSigner implements Signer {
+
+		private static final String ALGORITHM = "HmacSHA256";
+
+		// power of two at least the number of processors
+		private static final int STRIPES = Integer
+			.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+		private final SecretKeySpec key;
+
+		// initialized instances borrowed by a stripe of a calling thread, a new
+		// one is created if a stripe is momentarily in use
+		private final AtomicReferenceArray<Mac> macs = new AtomicReferenceArray<>(STRIPES);
+
+		HmacSigner(byte[] secret) {
+			this.key = new SecretKeySpec(secret.clone(), ALGORITHM);
+			release(create());
+		}
+
+		@Override
+		public byte[] sign(byte[] data) {
+			Mac mac = acquire();
+			byte[] signature = mac.doFinal(data);
+			release(mac);
+			return signature;
+		}
+
+		@Override
+		public boolean verify(byte[] data, byte[] signature) {
+			return MessageDigest.isEqual(sign(data), signature);
+		}
+
+		private Mac acquire() {
+			Mac mac = this.macs.getAndSet(stripe(), null);
+			return mac != null ? mac : create();
+		}
+
+		private void release(Mac mac) {
+			// dropped if a stripe was refilled meanwhile
+			this.macs.compareAndSet(stripe(), null, mac);
+		}
+
+		private Mac create() {
+			try {
+				Mac mac = Mac.getInstance(ALGORITHM);
+				mac.init(this.key);
+				return mac;
+			}
+			catch (GeneralSecurityException ex) {
+				throw new IllegalStateException("Unable to initialize " + ALGORITHM, ex);
+			}
+		}
+
+		private static int stripe() {
+			return (int) Thread.currentThread().getId() & (STRIPES - 1);
+		}
+
+	}
+
+	private static final class Ed25519Signer implements Signer {
+
+		private static final String ALGORITHM = "Ed25519";
+
+		private final PrivateKey privateKey;
+
+		private final PublicKey publicKey;
+
+		Ed25519Signer(PrivateKey privateKey, PublicKey publicKey) {
+			this.privateKey = privateKey;
+			this.publicKey = publicKey;
+		}
+
+		@Override
+		public byte[] sign(byte[] data) {
+			Assert.state(this.privateKey != null, "privateKey is needed to generate tokens");
+			try {
+				Signature signature = Signature.getInstance(ALGORITHM);
+				signature.initSign(this.privateKey);
+				signature.update(data);
+				return signature.sign();
+			}
+			catch (GeneralSecurityException ex) {
+				throw new IllegalStateException("Unable to sign token", ex);
+			}
+		}
+
+		@Override
+		public boolean verify(byte[] data, byte[] signature) {
+			try {
+				Signature verifier = Signature.getInstance(ALGORITHM);
+				verifier.initVerify(this.publicKey);
+				verifier.update(data);
+				return verifier.verify(signature);
+			}
+			catch (GeneralSecurityException ex) {
+				return false;
+			}
+		}
+
+	}
+
+}
@@ -17,15 +17,9 @@
 package com.github.jvalkeal.secpat.pat.keygen;
 
 import java.util.UUID;
-import java.util.regex.Pattern;
-
-import org.springframework.util.StringUtils;
 
 public class UUIDPatService implements PatService {
 
-	Pattern UUID_PATTERN = Pattern
-			.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
-
 	@Override
 	public PatGenerator generator() {
 		return (source) -> UUID.randomUUID().toString();
@@ -33,12 +27,7 @@ public class UUIDPatService implements PatService {
 
 	@Override
 	public PatMatcher matcher() {
-		return (token) -> {
-			if (StringUtils.hasText(token) && token.length() == 36) {
-				return UUID_PATTERN.matcher(token).matches();
-			}
-			return false;
-		};
+		return (token) -> PatTokenCodec.isUuid(token);
 	}
 
 }
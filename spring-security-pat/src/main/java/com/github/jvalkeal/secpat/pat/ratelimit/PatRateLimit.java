@@ -0,0 +1,96 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.ratelimit;
+
+import java.time.Duration;
+
+import org.springframework.util.Assert;
+
+/**
+ * Rate limit of a token as a number of permits per a period, with a burst
+ * defining how many permits can be used at once after a token has been idle.
+ *
+ * @author Janne Valkealahti
+ * @see PatRateLimiter
+ */
+public final class PatRateLimit {
+
+	private final long permits;
+
+	private final Duration period;
+
+	private final long burst;
+
+	private PatRateLimit(long permits, Duration period, long burst) {
+		this.permits = permits;
+		this.period = period;
+		this.burst = burst;
+	}
+
+	/**
+	 * Create a {@link PatRateLimit} of permits per period with a burst of all
+	 * permits.
+	 *
+	 * @param permits the number of permits
+	 * @param period the period
+	 * @return a rate limit
+	 */
+	public static PatRateLimit of(long permits, Duration period) {
+		Assert.isTrue(permits > 0, "permits must be positive");
+		Assert.notNull(period, "period cannot be null");
+		Assert.isTrue(!period.isNegative() && !period.isZero(), "period must be positive");
+		return new PatRateLimit(permits, period, permits);
+	}
+
+	/**
+	 * Create a copy of this rate limit with a given burst.
+	 *
+	 * @param burst the burst
+	 * @return a rate limit
+	 */
+	public PatRateLimit withBurst(long burst) {
+		Assert.isTrue(burst > 0, "burst must be positive");
+		return new PatRateLimit(this.permits, this.period, burst);
+	}
+
+	public long getPermits() {
+		return this.permits;
+	}
+
+	public Duration getPeriod() {
+		return this.period;
+	}
+
+	public long getBurst() {
+		return this.burst;
+	}
+
+	/**
+	 * Get a time between permits in nanoseconds.
+	 *
+	 * @return the emission interval
+	 */
+	long emissionInterval() {
+		return Math.max(1, this.period.toNanos() / this.permits);
+	}
+
+	@Override
+	public String toString() {
+		return this.permits + " per " + this.period + " with burst " + this.burst;
+	}
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.ratelimit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.jvalkeal.secpat.pat.authorization.PatTokenDigester;
+
+/**
+ * Rate limiter of authenticated {@code PAT} tokens.
+ *
+ * Every token has its own token bucket implemented as a generic cell rate
+ * algorithm, a bucket is a single {@link AtomicLong} holding a theoretical
+ * arrival time of a next permit. Refill is lazy and computed from a time of a
+ * request, acquiring is a compare and set without locks. Buckets are kept in a
+ * size bounded cache keyed by a digest of a token, so that raw tokens are not
+ * retained, and forgotten when idle longer than it takes to refill them.
+ *
+ * A limit of a token is a default limit unless a token has scopes with limits,
+ * in which case a most generous of those is used.
+ *
+ * @author Janne Valkealahti
+ */
+public class PatRateLimiter {
+
+	private final PatRateLimit defaultLimit;
+
+	private final Map<String, PatRateLimit> scopeLimits;
+
+	private final Cache<String, Bucket> buckets;
+
+	private final Clock clock;
+
+	private final PatTokenDigester tokenDigester = PatTokenDigester.sha256();
+
+	private PatRateLimiter(PatRateLimit defaultLimit, Map<String, PatRateLimit> scopeLimits,
+			Cache<String, Bucket> buckets, Clock clock) {
+		this.defaultLimit = defaultLimit;
+		this.scopeLimits = scopeLimits;
+		this.buckets = buckets;
+		this.clock = clock;
+	}
+
+	/**
+	 * Try to acquire a permit for a token.
+	 *
+	 * @param token the token
+	 * @param authorities the authorities of an authenticated token
+	 * @return {@link Duration#ZERO} if permit was acquired, otherwise a time
+	 * until a next permit is available
+	 */
+	public Duration tryAcquire(String token, Collection<? extends GrantedAuthority> authorities) {
+		Assert.notNull(token, "token cannot be null");
+		Bucket bucket = this.buckets.get(this.tokenDigester.digest(token),
+				(key) -> new Bucket(resolveLimit(authorities)));
+		long wait = bucket.tryAcquire(this.clock.millis() * 1_000_000L);
+		return wait > 0 ? Duration.ofNanos(wait) : Duration.ZERO;
+	}
+
+	private PatRateLimit resolveLimit(Collection<? extends GrantedAuthority> authorities) {
+		PatRateLimit limit = null;
+		if (authorities != null && !this.scopeLimits.isEmpty()) {
+			for (GrantedAuthority authority : authorities) {
+				PatRateLimit scopeLimit = this.scopeLimits.get(authority.getAuthority());
+				if (scopeLimit != null && (limit == null || moreGenerous(scopeLimit, limit))) {
+					limit = scopeLimit;
+				}
+			}
+		}
+		return limit != null ? limit : this.defaultLimit;
+	}
+
+	private static boolean moreGenerous(PatRateLimit limit, PatRateLimit other) {
+		return limit.emissionInterval() < other.emissionInterval()
+				|| (limit.emissionInterval() == other.emissionInterval() && limit.getBurst() > other.getBurst());
+	}
+
+	/**
+	 * Create a new {@link Builder} for a {@link PatRateLimiter}.
+	 *
+	 * @param defaultLimit the limit of tokens without a scope limit
+	 * @return a new builder
+	 */
+	public static Builder builder(PatRateLimit defaultLimit) {
+		return new Builder(defaultLimit);
+	}
+
+	/**
+	 * Builder for {@link PatRateLimiter}.
+	 */
+	public static final class Builder {
+
+		private final PatRateLimit defaultLimit;
+
+		private final Map<String, PatRateLimit> scopeLimits = new LinkedHashMap<>();
+
+		private long maximumSize = 100000;
+
+		private Clock clock = Clock.systemUTC();
+
+		private Builder(PatRateLimit defaultLimit) {
+			Assert.notNull(defaultLimit, "defaultLimit cannot be null");
+			this.defaultLimit = defaultLimit;
+		}
+
+		/**
+		 * Sets a limit of tokens having a scope.
+		 *
+		 * @param scope the scope
+		 * @param limit the limit
+		 * @return this builder
+		 */
+		public Builder scopeLimit(String scope, PatRateLimit limit) {
+			Assert.hasText(scope, "scope cannot be empty");
+			Assert.notNull(limit, "limit cannot be null");
+			this.scopeLimits.put(scope, limit);
+			return this;
+		}
+
+		/**
+		 * Sets a maximum number of tracked tokens. Defaults to {@code 100000}.
+		 *
+		 * @param maximumSize the maximum size
+		 * @return this builder
+		 */
+		public Builder maximumSize(long maximumSize) {
+			Assert.isTrue(maximumSize > 0, "maximumSize must be positive");
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/**
+		 * Sets a {@link Clock} used to refill buckets.
+		 *
+		 * @param clock the clock
+		 * @return this builder
+		 */
+		public Builder clock(Clock clock) {
+			Assert.notNull(clock, "clock cannot be null");
+			this.clock = clock;
+			return this;
+		}
+
+		/**
+		 * Builds a {@link PatRateLimiter}.
+		 *
+		 * @return a rate limiter
+		 */
+		public PatRateLimiter build() {
+			// an idle bucket is forgotten only after it would have been refilled
+			long idleNanos = refillNanos(this.defaultLimit);
+			for (PatRateLimit limit : this.scopeLimits.values()) {
+				idleNanos = Math.max(idleNanos, refillNanos(limit));
+			}
+			Cache<String, Bucket> buckets = Caffeine.newBuilder()
+				.maximumSize(this.maximumSize)
+				.expireAfterAccess(Duration.ofNanos(idleNanos))
+				.build();
+			return new PatRateLimiter(this.defaultLimit, Map.copyOf(this.scopeLimits), buckets, this.clock);
+		}
+
+		private static long refillNanos(PatRateLimit limit) {
+			return Math.max(1_000_000_000L, limit.emissionInterval() * limit.getBurst());
+		}
+
+	}
+
+	private static final class Bucket {
+
+		private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+		private final long emissionInterval;
+
+		private final long tolerance;
+
+		Bucket(PatRateLimit limit) {
+			this.emissionInterval = limit.emissionInterval();
+			this.tolerance = this.emissionInterval * (limit.getBurst() - 1);
+		}
+
+		/**
+		 * Try to take a permit.
+		 *
+		 * @param now the current time in nanoseconds
+		 * @return zero if taken, otherwise nanoseconds until a next permit
+		 */
+		long tryAcquire(long now) {
+			while (true) {
+				long current = this.theoreticalArrival.get();
+				long arrival = Math.max(current, now);
+				long wait = arrival - this.tolerance - now;
+				if (wait > 0) {
+					return wait;
+				}
+				if (this.theoreticalArrival.compareAndSet(current, arrival + this.emissionInterval)) {
+					return 0;
+				}
+			}
+		}
+
+	}
+
+}
@@ -19,7 +19,9 @@ package com.github.jvalkeal.secpat.pat.resolver;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import com.github.jvalkeal.secpat.pat.PatAuthenticationException;
+import com.github.jvalkeal.secpat.pat.PatError;
+import com.github.jvalkeal.secpat.pat.PatErrorCodes;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -50,7 +52,7 @@ public final class DefaultPatTokenResolver implements PatTokenResolver {
 		Matcher matcher = authorizationPattern.matcher(authorization);
 		if (!matcher.matches()) {
 			// BearerTokenError error = BearerTokenErrors.invalidToken("Api Key is malformed");
-			throw new OAuth2AuthenticationException("Api Key is malformed");
+			throw new PatAuthenticationException(new PatError(PatErrorCodes.MALFORMED_TOKEN, "Api Key is malformed"));
 		}
 		return matcher.group("token");
 	}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.resolver;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.web.server.ServerWebExchange;
+
+import com.github.jvalkeal.secpat.pat.PatAuthenticationException;
+import com.github.jvalkeal.secpat.pat.PatError;
+import com.github.jvalkeal.secpat.pat.PatErrorCodes;
+
+/**
+ * Reactive counterpart of {@link DefaultPatTokenResolver} resolving a token from
+ * an {@code X-Pat} header.
+ *
+ * @author Janne Valkealahti
+ */
+public final class DefaultServerPatTokenResolver implements ServerPatTokenResolver {
+
+	private static final Pattern authorizationPattern = Pattern.compile("^(?<token>[a-zA-Z0-9-._~+/]+=*)$",
+			Pattern.CASE_INSENSITIVE);
+
+	private String apiKeyHeaderName = "X-Pat";
+
+	@Override
+	public String resolve(ServerWebExchange exchange) {
+		String authorization = exchange.getRequest().getHeaders().getFirst(this.apiKeyHeaderName);
+		if (authorization == null) {
+			return null;
+		}
+		Matcher matcher = authorizationPattern.matcher(authorization);
+		if (!matcher.matches()) {
+			throw new PatAuthenticationException(new PatError(PatErrorCodes.MALFORMED_TOKEN, "Api Key is malformed"));
+		}
+		return matcher.group("token");
+	}
+
+}
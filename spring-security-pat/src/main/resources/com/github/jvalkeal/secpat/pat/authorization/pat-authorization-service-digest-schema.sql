@@ -0,0 +1,16 @@
+CREATE TABLE pat_authorizations (
+    id varchar(100) NOT NULL,
+    name varchar(100) NOT NULL,
+    description varchar(100),
+    token_digest varchar(64) NOT NULL,
+    principal varchar(100) NOT NULL,
+    scopes varchar(1000) NOT NULL,
+    issued_at timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    expires_at timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    not_before timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    last_used_at timestamp,
+    PRIMARY KEY (id)
+);
+CREATE UNIQUE INDEX pat_authorizations_token_digest_idx ON pat_authorizations (token_digest);
+CREATE INDEX pat_authorizations_expires_at_idx ON pat_authorizations (expires_at);
+CREATE INDEX pat_authorizations_principal_idx ON pat_authorizations (principal, issued_at, id);
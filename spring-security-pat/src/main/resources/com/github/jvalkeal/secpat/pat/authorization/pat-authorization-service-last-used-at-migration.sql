@@ -0,0 +1 @@
+ALTER TABLE pat_authorizations ADD COLUMN last_used_at timestamp;
@@ -8,5 +8,8 @@ CREATE TABLE pat_authorizations (
     issued_at timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL,
     expires_at timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL,
     not_before timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    last_used_at timestamp,
     PRIMARY KEY (id)
 );
+CREATE INDEX pat_authorizations_expires_at_idx ON pat_authorizations (expires_at);
+CREATE INDEX pat_authorizations_principal_idx ON pat_authorizations (principal, issued_at, id);
@@ -1,17 +1,56 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
 package com.github.jvalkeal.secpat.pat;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.Authentication;
 
 import com.github.jvalkeal.secpat.pat.introspect.PatIntrospector;
+import com.github.jvalkeal.secpat.pat.keygen.PatMatcher;
 
 public class PatAuthenticationProviderTests {
 
+	@Test
+	public void authenticateWhenTokenNotMatchingThenRejectedBeforeIntrospection() {
+		PatIntrospector introspector = mock(PatIntrospector.class);
+		PatAuthenticationProvider provider = new PatAuthenticationProvider(introspector);
+		provider.setPatMatcher((token) -> token.startsWith("pat_"));
+
+		assertThatExceptionOfType(PatAuthenticationException.class)
+			.isThrownBy(() -> provider.authenticate(PatTokenAuthenticationToken.unauthenticated("xxx_token")))
+			.satisfies((ex) -> assertThat(ex.getError().getErrorCode()).isEqualTo(PatErrorCodes.TOKEN_REJECTED));
+		verify(introspector, never()).introspect(any());
+	}
+
+	@Test
+	public void anyOfMatchesWhenOneDelegateMatches() {
+		PatMatcher matcher = PatMatcher.anyOf((token) -> token.startsWith("a_"), (token) -> token.startsWith("b_"));
+		assertThat(matcher.matches("b_token")).isTrue();
+		assertThat(matcher.matches("c_token")).isFalse();
+	}
+
 	@Test
 	public void authenticateWhenActiveTokenThenOk() throws Exception {
 		PatAuthenticatedPrincipal principal = PatAuthenticatedPrincipal.of("user", null);
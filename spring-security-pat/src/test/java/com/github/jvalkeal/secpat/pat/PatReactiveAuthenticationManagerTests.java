@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import com.github.jvalkeal.secpat.pat.introspect.PatIntrospectionException;
+import com.github.jvalkeal.secpat.pat.introspect.ReactivePatIntrospector;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class PatReactiveAuthenticationManagerTests {
+
+	@Test
+	public void authenticateWhenActiveTokenThenOk() {
+		PatAuthenticatedPrincipal principal = PatAuthenticatedPrincipal.of("user", null);
+		ReactivePatIntrospector introspector = mock(ReactivePatIntrospector.class);
+		given(introspector.introspect(any())).willReturn(Mono.just(principal));
+
+		PatReactiveAuthenticationManager manager = new PatReactiveAuthenticationManager(introspector);
+		StepVerifier.create(manager.authenticate(PatTokenAuthenticationToken.unauthenticated("token")))
+			.assertNext((result) -> {
+				assertThat(result.isAuthenticated()).isTrue();
+				assertThat(result.getPrincipal()).isSameAs(principal);
+			})
+			.verifyComplete();
+	}
+
+	@Test
+	public void authenticateWhenInactiveTokenThenBadCredentials() {
+		ReactivePatIntrospector introspector = mock(ReactivePatIntrospector.class);
+		given(introspector.introspect(any())).willReturn(Mono.error(new BadCredentialsException("inactive")));
+
+		PatReactiveAuthenticationManager manager = new PatReactiveAuthenticationManager(introspector);
+		StepVerifier.create(manager.authenticate(PatTokenAuthenticationToken.unauthenticated("token")))
+			.expectError(BadCredentialsException.class)
+			.verify();
+	}
+
+	@Test
+	public void authenticateWhenIntrospectionFailsThenServiceException() {
+		ReactivePatIntrospector introspector = mock(ReactivePatIntrospector.class);
+		given(introspector.introspect(any())).willReturn(Mono.error(new PatIntrospectionException("failed")));
+
+		PatReactiveAuthenticationManager manager = new PatReactiveAuthenticationManager(introspector);
+		StepVerifier.create(manager.authenticate(PatTokenAuthenticationToken.unauthenticated("token")))
+			.expectError(AuthenticationServiceException.class)
+			.verify();
+	}
+
+	@Test
+	public void authenticateWhenNotPatTokenThenEmpty() {
+		ReactivePatIntrospector introspector = mock(ReactivePatIntrospector.class);
+		PatReactiveAuthenticationManager manager = new PatReactiveAuthenticationManager(introspector);
+		StepVerifier.create(manager.authenticate(new UsernamePasswordAuthenticationToken("user", "password")))
+			.verifyComplete();
+	}
+
+}
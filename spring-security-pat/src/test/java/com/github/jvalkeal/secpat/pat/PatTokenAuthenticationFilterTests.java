@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+
+import com.github.jvalkeal.secpat.pat.ratelimit.PatRateLimit;
+import com.github.jvalkeal.secpat.pat.ratelimit.PatRateLimiter;
+
+class PatTokenAuthenticationFilterTests {
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void rateLimitedTokenRejectedBeforeChain() throws Exception {
+		AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+		given(authenticationManager.authenticate(any())).willReturn(PatTokenAuthenticationToken
+			.authenticated("user", "token", List.of(new SimpleGrantedAuthority("read"))));
+		PatTokenAuthenticationFilter filter = new PatTokenAuthenticationFilter(authenticationManager);
+		filter.setRateLimiter(PatRateLimiter.builder(PatRateLimit.of(1, Duration.ofMinutes(1))).build());
+
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request(), response, chain);
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(chain.getRequest()).isNotNull();
+		SecurityContextHolder.clearContext();
+
+		chain = new MockFilterChain();
+		response = new MockHttpServletResponse();
+		MockHttpServletRequest request = request();
+		filter.doFilter(request, response, chain);
+		assertThat(response.getStatus()).isEqualTo(429);
+		assertThat(response.getHeader("Retry-After")).isEqualTo("60");
+		assertThat(chain.getRequest()).isNull();
+		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+		assertThat(new RequestAttributeSecurityContextRepository().containsContext(request)).isFalse();
+	}
+
+	@Test
+	void unmatchedTokenNeverReachesAuthenticationManager() throws Exception {
+		AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+		PatTokenAuthenticationFilter filter = new PatTokenAuthenticationFilter(authenticationManager);
+		filter.setPatMatcher((token) -> token.startsWith("pat_"));
+
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request(), new MockHttpServletResponse(), chain);
+		assertThat(chain.getRequest()).isNotNull();
+		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+		verify(authenticationManager, never()).authenticate(any());
+	}
+
+	private static MockHttpServletRequest request() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("X-Pat", "token");
+		return request;
+	}
+
+}
@@ -19,12 +19,19 @@ package com.github.jvalkeal.secpat.pat.authorization;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisherAware;
 
 abstract class BasePatAuthorizationRepositoryTests {
 
@@ -87,6 +94,143 @@ abstract class BasePatAuthorizationRepositoryTests {
 		assertThat(repository.findByPrincipal("user3")).hasSize(0);
 	}
 
+	@Test
+	void findByPrincipalInKeysetPages() {
+		Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+		repository.save(ofIssuedAt("id3", now.plusSeconds(1)));
+		repository.save(ofIssuedAt("id1", now.plusSeconds(2)));
+		repository.save(ofIssuedAt("id2", now.plusSeconds(2)));
+		repository.save(ofIssuedAt("id0", now));
+		repository.save(ofIssuedAt("id4", now.plusSeconds(3)));
+		List<String> ids = new ArrayList<>();
+		PatAuthorization after = null;
+		List<PatAuthorization> page;
+		do {
+			page = repository.findByPrincipal("user1", after, 2);
+			page.forEach((authorization) -> ids.add(authorization.getId()));
+			after = !page.isEmpty() ? page.get(page.size() - 1) : null;
+		}
+		while (page.size() == 2);
+		assertThat(ids).containsExactly("id0", "id3", "id1", "id2", "id4");
+		assertThat(repository.findByPrincipal("user2", null, 2)).isEmpty();
+		try (Stream<PatAuthorization> authorizations = repository.streamByPrincipal("user1")) {
+			assertThat(authorizations.map(PatAuthorization::getId)).containsExactlyInAnyOrder("id0", "id1", "id2",
+					"id3", "id4");
+		}
+	}
+
+	@Test
+	void forEachVisitsAllAuthorizations() {
+		repository.save(ofPrincipal("user1"));
+		repository.save(ofPrincipal("user2"));
+		List<PatAuthorization> authorizations = new ArrayList<>();
+		repository.forEach(authorizations::add);
+		assertThat(authorizations).extracting(PatAuthorization::getPrincipal).containsExactlyInAnyOrder("user1", "user2");
+	}
+
+	@Test
+	void findByTokensReturnsOnlyKnownTokens() {
+		repository.save(ofToken("pat1"));
+		Map<String, PatAuthorization> authorizations = repository.findByTokens(List.of("pat1", "pat2"));
+		assertThat(authorizations).containsOnlyKeys("pat1");
+		assertThat(authorizations.get("pat1").getId()).isEqualTo("id");
+	}
+
+	@Test
+	void saveAllAndRemoveAll() {
+		List<PatAuthorization> authorizations = new ArrayList<>();
+		for (int i = 0; i < 250; i++) {
+			authorizations.add(ofPrincipal("user" + (i % 2)));
+		}
+		repository.saveAll(authorizations);
+		assertThat(repository.findByPrincipal("user0")).hasSize(125);
+		assertThat(repository.findById(authorizations.get(249).getId())).isNotNull();
+		repository.removeAll(authorizations.subList(0, 200));
+		List<PatAuthorization> remaining = new ArrayList<>();
+		repository.forEach(remaining::add);
+		assertThat(remaining).hasSize(50);
+		assertThat(repository.findById(authorizations.get(0).getId())).isNull();
+	}
+
+	@Test
+	void removeByIds() {
+		PatAuthorization pa1 = ofPrincipal("user1");
+		PatAuthorization pa2 = ofPrincipal("user1");
+		PatAuthorization pa3 = ofPrincipal("user1");
+		repository.saveAll(List.of(pa1, pa2, pa3));
+		repository.removeByIds(List.of(pa1.getId(), pa3.getId(), "unknown"));
+		assertThat(repository.findByPrincipal("user1")).extracting(PatAuthorization::getId).containsExactly(pa2.getId());
+	}
+
+	@Test
+	void removesPublishRemovedEvents() {
+		List<Object> events = new ArrayList<>();
+		((ApplicationEventPublisherAware) repository).setApplicationEventPublisher(events::add);
+		PatAuthorization pa1 = ofPrincipal("user1");
+		PatAuthorization pa2 = ofPrincipal("user1");
+		repository.saveAll(List.of(pa1, pa2));
+		repository.remove(pa1);
+		repository.removeByIds(List.of(pa2.getId(), "unknown"));
+		repository.removeByIds(List.of("unknown"));
+		assertThat(events).hasSize(2);
+		assertThat(events.get(0)).isInstanceOfSatisfying(PatAuthorizationsRemovedEvent.class,
+				(event) -> assertThat(event.getIds()).containsExactly(pa1.getId()));
+		assertThat(events.get(1)).isInstanceOfSatisfying(PatAuthorizationsRemovedEvent.class,
+				(event) -> assertThat(event.getIds()).contains(pa2.getId()));
+	}
+
+	@Test
+	void updateLastUsedAtNeverMovesBackwards() {
+		Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+		repository.save(ofIssuedAt("id1", now));
+		assertThat(repository.findById("id1").getLastUsedAt()).isNull();
+		repository.updateLastUsedAt(Map.of("id1", now.plusSeconds(10), "unknown", now));
+		assertThat(repository.findById("id1").getLastUsedAt()).isEqualTo(now.plusSeconds(10));
+		repository.updateLastUsedAt(Map.of("id1", now.plusSeconds(5)));
+		assertThat(repository.findById("id1").getLastUsedAt()).isEqualTo(now.plusSeconds(10));
+		assertThat(repository.findByToken("token-id1").getLastUsedAt()).isEqualTo(now.plusSeconds(10));
+	}
+
+	@Test
+	void removeByPrincipal() {
+		repository.save(ofPrincipal("user1"));
+		repository.save(ofPrincipal("user1"));
+		PatAuthorization other = ofPrincipal("user2");
+		repository.save(other);
+		assertThat(repository.removeByPrincipal("user1")).isEqualTo(2);
+		assertThat(repository.removeByPrincipal("user1")).isZero();
+		assertThat(repository.findByPrincipal("user1")).isEmpty();
+		assertThat(repository.findById(other.getId())).isNotNull();
+	}
+
+	@Test
+	void removeExpiredInChunks() {
+		Instant now = Instant.now();
+		for (int i = 0; i < 3; i++) {
+			repository.save(ofExpiresAt("expired" + i, now.minus(Duration.ofHours(2))));
+		}
+		repository.save(ofExpiresAt("valid", now.plus(Duration.ofHours(2))));
+		repository.save(ofExpiresAt("grace", now.minus(Duration.ofMinutes(30))));
+		Instant expiredBefore = now.minus(Duration.ofHours(1));
+		assertThat(repository.removeExpired(expiredBefore, 2)).isEqualTo(2);
+		assertThat(repository.removeExpired(expiredBefore, 2)).isEqualTo(1);
+		assertThat(repository.removeExpired(expiredBefore, 2)).isEqualTo(0);
+		assertThat(repository.findById("valid")).isNotNull();
+		assertThat(repository.findById("grace")).isNotNull();
+		assertThat(repository.findById("expired0")).isNull();
+	}
+
+	@Test
+	void removeExpiredPassesRemovedAuthorizations() {
+		Instant now = Instant.now();
+		repository.save(ofExpiresAt("expired", now.minus(Duration.ofHours(2))));
+		repository.save(ofExpiresAt("valid", now.plus(Duration.ofHours(2))));
+		List<PatAuthorization> removed = new ArrayList<>();
+		assertThat(repository.removeExpired(now.minus(Duration.ofHours(1)), 10, removed::add)).isEqualTo(1);
+		assertThat(removed).extracting(PatAuthorization::getId).containsExactly("expired");
+		assertThat(repository.findById("expired")).isNull();
+	}
+
 	private static PatAuthorization ofId(String id) {
 		Instant now = Instant.now();
 		return PatAuthorization.builder()
@@ -115,6 +259,32 @@ abstract class BasePatAuthorizationRepositoryTests {
 			.build();
 	}
 
+	private static PatAuthorization ofExpiresAt(String id, Instant expiresAt) {
+		return PatAuthorization.builder()
+			.id(id)
+			.name("name")
+			.principal("user1")
+			.scope("test")
+			.token("token-" + id)
+			.issuedAt(expiresAt.minus(Duration.ofDays(1)))
+			.expiresAt(expiresAt)
+			.notBefore(expiresAt.minus(Duration.ofDays(1)))
+			.build();
+	}
+
+	static PatAuthorization ofIssuedAt(String id, Instant issuedAt) {
+		return PatAuthorization.builder()
+			.id(id)
+			.name("name")
+			.principal("user1")
+			.scope("test")
+			.token("token-" + id)
+			.issuedAt(issuedAt)
+			.expiresAt(issuedAt.plus(Duration.ofDays(1)))
+			.notBefore(issuedAt)
+			.build();
+	}
+
 	private static PatAuthorization ofPrincipal(String principal) {
 		Instant now = Instant.now();
 		return PatAuthorization.builder()
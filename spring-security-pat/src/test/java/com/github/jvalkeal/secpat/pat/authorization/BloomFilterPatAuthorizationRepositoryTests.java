@@ -0,0 +1,150 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterPatAuthorizationRepositoryTests extends BasePatAuthorizationRepositoryTests {
+
+	@Override
+	PatAuthorizationRepository createRepository() {
+		InMemoryPatAuthorizationRepository delegate = new InMemoryPatAuthorizationRepository();
+		BloomFilterPatAuthorizationRepository repository = new BloomFilterPatAuthorizationRepository(delegate,
+				delegate::forEach, 1000, 0.01);
+		repository.afterPropertiesSet();
+		return repository;
+	}
+
+	@Override
+	void doSetup() {
+	}
+
+	@Override
+	void doTearDown() {
+	}
+
+	@Test
+	void unknownTokenDoesNotHitDelegate() {
+		PatAuthorizationRepository delegate = spy(new InMemoryPatAuthorizationRepository());
+		BloomFilterPatAuthorizationRepository repository = new BloomFilterPatAuthorizationRepository(delegate,
+				delegate::forEach, 1000, 0.0001);
+		repository.afterPropertiesSet();
+		assertThat(repository.findByToken("unknown")).isNull();
+		verify(delegate, never()).findByToken(any());
+	}
+
+	@Test
+	void rebuildSeesExistingAuthorizations() {
+		PatAuthorizationRepository delegate = new InMemoryPatAuthorizationRepository();
+		delegate.save(of("id1", "pat1"));
+		BloomFilterPatAuthorizationRepository repository = new BloomFilterPatAuthorizationRepository(delegate,
+				delegate::forEach, 1000, 0.01);
+		repository.afterPropertiesSet();
+		assertThat(repository.findByToken("pat1")).isNotNull();
+	}
+
+	@Test
+	void removedTokenDoesNotHitDelegate() {
+		PatAuthorizationRepository delegate = spy(new InMemoryPatAuthorizationRepository());
+		BloomFilterPatAuthorizationRepository repository = new BloomFilterPatAuthorizationRepository(delegate,
+				delegate::forEach, 1000, 0.0001);
+		repository.afterPropertiesSet();
+		PatAuthorization authorization = of("id1", "pat1");
+		repository.save(authorization);
+		repository.remove(authorization);
+		assertThat(repository.findByToken("pat1")).isNull();
+		verify(delegate, never()).findByToken("pat1");
+	}
+
+	@Test
+	void expiredTokenDoesNotHitDelegate() {
+		PatAuthorizationRepository delegate = spy(new InMemoryPatAuthorizationRepository());
+		BloomFilterPatAuthorizationRepository repository = new BloomFilterPatAuthorizationRepository(delegate,
+				delegate::forEach, 1000, 0.0001);
+		repository.afterPropertiesSet();
+		repository.save(of("id1", "pat1"));
+		assertThat(repository.removeExpired(Instant.now().plusSeconds(5), 10)).isEqualTo(1);
+		assertThat(repository.findByToken("pat1")).isNull();
+		verify(delegate, never()).findByToken("pat1");
+	}
+
+	@Test
+	void tokensOfRemovedPrincipalDoNotHitDelegate() {
+		PatAuthorizationRepository delegate = spy(new InMemoryPatAuthorizationRepository());
+		BloomFilterPatAuthorizationRepository repository = new BloomFilterPatAuthorizationRepository(delegate,
+				delegate::forEach, 1000, 0.0001);
+		repository.afterPropertiesSet();
+		repository.save(of("id1", "pat1"));
+		repository.save(of("id2", "pat2"));
+		assertThat(repository.removeByPrincipal("user1")).isEqualTo(2);
+		assertThat(repository.findByToken("pat1")).isNull();
+		assertThat(repository.findByToken("pat2")).isNull();
+		verify(delegate, never()).findByToken(any());
+	}
+
+	@Test
+	void failedSaveDoesNotHitDelegate() {
+		PatAuthorizationRepository delegate = spy(new InMemoryPatAuthorizationRepository());
+		BloomFilterPatAuthorizationRepository repository = new BloomFilterPatAuthorizationRepository(delegate,
+				delegate::forEach, 1000, 0.0001);
+		repository.afterPropertiesSet();
+		doThrow(new IllegalStateException()).when(delegate).save(any());
+		assertThatThrownBy(() -> repository.save(of("id1", "pat1"))).isInstanceOf(IllegalStateException.class);
+		assertThat(repository.findByToken("pat1")).isNull();
+		verify(delegate, never()).findByToken(any());
+	}
+
+	@Test
+	void storedDigestsAreMatched() {
+		PatTokenDigester digester = PatTokenDigester.sha256();
+		PatAuthorizationRepository delegate = spy(new InMemoryPatAuthorizationRepository());
+		delegate.save(of("id1", digester.digest("pat1")));
+		BloomFilterPatAuthorizationRepository repository = new BloomFilterPatAuthorizationRepository(delegate,
+				delegate::forEach, 1000, 0.0001);
+		repository.setTokenDigester(digester);
+		repository.afterPropertiesSet();
+		repository.findByToken("pat1");
+		repository.findByToken("pat2");
+		verify(delegate).findByToken("pat1");
+		verify(delegate, never()).findByToken("pat2");
+	}
+
+	private static PatAuthorization of(String id, String token) {
+		Instant now = Instant.now();
+		return PatAuthorization.builder()
+			.id(id)
+			.name("name")
+			.principal("user1")
+			.scope("test")
+			.token(token)
+			.issuedAt(now)
+			.expiresAt(now)
+			.notBefore(now)
+			.build();
+	}
+
+}
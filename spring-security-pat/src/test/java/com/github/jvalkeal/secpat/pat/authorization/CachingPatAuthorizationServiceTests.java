@@ -0,0 +1,150 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationService.AcquireContext;
+
+class CachingPatAuthorizationServiceTests {
+
+	private final PatAuthorizationService delegate = mock(PatAuthorizationService.class);
+
+	@Test
+	void cachedAuthorizationIsNotAcquiredAgain() {
+		PatAuthorization authorization = of("pat1", Instant.now().plus(Duration.ofHours(1)));
+		given(delegate.acquire(any())).willReturn(authorization);
+		CachingPatAuthorizationService service = CachingPatAuthorizationService.builder(delegate).build();
+		assertThat(service.acquire(AcquireContext.ofToken("pat1"))).isSameAs(authorization);
+		assertThat(service.acquire(AcquireContext.ofToken("pat1"))).isSameAs(authorization);
+		verify(delegate, times(1)).acquire(any());
+	}
+
+	@Test
+	void expiredAuthorizationIsNotCached() {
+		PatAuthorization authorization = of("pat1", Instant.now().minus(Duration.ofHours(1)));
+		given(delegate.acquire(any())).willReturn(authorization);
+		CachingPatAuthorizationService service = CachingPatAuthorizationService.builder(delegate).build();
+		service.acquire(AcquireContext.ofToken("pat1"));
+		service.acquire(AcquireContext.ofToken("pat1"));
+		verify(delegate, times(2)).acquire(any());
+	}
+
+	@Test
+	void unknownTokenIsNotCachedByDefault() {
+		CachingPatAuthorizationService service = CachingPatAuthorizationService.builder(delegate).build();
+		assertThat(service.acquire(AcquireContext.ofToken("pat1"))).isNull();
+		assertThat(service.acquire(AcquireContext.ofToken("pat1"))).isNull();
+		verify(delegate, times(2)).acquire(any());
+	}
+
+	@Test
+	void unknownTokenIsCachedWithNegativeTimeToLive() {
+		CachingPatAuthorizationService service = CachingPatAuthorizationService.builder(delegate)
+			.negativeTimeToLive(Duration.ofMinutes(1))
+			.build();
+		assertThat(service.acquire(AcquireContext.ofToken("pat1"))).isNull();
+		assertThat(service.acquire(AcquireContext.ofToken("pat1"))).isNull();
+		verify(delegate, times(1)).acquire(any());
+	}
+
+	@Test
+	void invalidatedTokenIsAcquiredAgain() {
+		PatAuthorization authorization = of("pat1", Instant.now().plus(Duration.ofHours(1)));
+		given(delegate.acquire(any())).willReturn(authorization);
+		CachingPatAuthorizationService service = CachingPatAuthorizationService.builder(delegate).build();
+		service.acquire(AcquireContext.ofToken("pat1"));
+		service.invalidate("pat1");
+		service.acquire(AcquireContext.ofToken("pat1"));
+		service.invalidateAll();
+		service.acquire(AcquireContext.ofToken("pat1"));
+		verify(delegate, times(3)).acquire(any());
+	}
+
+	@Test
+	void revokedPrincipalIsAcquiredAgain() {
+		Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+		given(delegate.acquire(any()))
+			.willAnswer((invocation) -> of(invocation.<AcquireContext>getArgument(0).token(), expiresAt));
+		CachingPatAuthorizationService service = CachingPatAuthorizationService.builder(delegate).build();
+		service.acquire(AcquireContext.ofToken("pat1"));
+		service.acquire(AcquireContext.ofToken("pat2"));
+		service.onApplicationEvent(new PatAuthorizationsRevokedEvent(this, "other", 1));
+		service.acquire(AcquireContext.ofToken("pat1"));
+		verify(delegate, times(2)).acquire(any());
+		service.onApplicationEvent(new PatAuthorizationsRevokedEvent(this, "user", 2));
+		service.acquire(AcquireContext.ofToken("pat1"));
+		service.acquire(AcquireContext.ofToken("pat2"));
+		verify(delegate, times(4)).acquire(any());
+	}
+
+	@Test
+	void removedAuthorizationIsEvicted() {
+		InMemoryPatAuthorizationRepository repository = new InMemoryPatAuthorizationRepository();
+		CachingPatAuthorizationService service = CachingPatAuthorizationService
+			.builder(new RepositoryPatAuthorizationService(repository))
+			.build();
+		repository.setApplicationEventPublisher(
+				(event) -> service.onApplicationEvent((AbstractPatAuthorizationEvent) event));
+		PatAuthorization authorization = of("pat1", Instant.now().plus(Duration.ofHours(1)));
+		repository.save(authorization);
+		assertThat(service.acquire(AcquireContext.ofToken("pat1"))).isSameAs(authorization);
+
+		repository.remove(authorization);
+		assertThat(service.acquire(AcquireContext.ofToken("pat1"))).isNull();
+	}
+
+	@Test
+	void removedIdIsAcquiredAgain() {
+		PatAuthorization authorization = of("pat1", Instant.now().plus(Duration.ofHours(1)));
+		given(delegate.acquire(any())).willReturn(authorization);
+		CachingPatAuthorizationService service = CachingPatAuthorizationService.builder(delegate).build();
+		service.acquire(AcquireContext.ofToken("pat1"));
+		service.onApplicationEvent(new PatAuthorizationsRemovedEvent(this, List.of("other"), List.of()));
+		service.acquire(AcquireContext.ofToken("pat1"));
+		verify(delegate, times(1)).acquire(any());
+		service.onApplicationEvent(new PatAuthorizationsRemovedEvent(this, List.of("id"), List.of()));
+		service.acquire(AcquireContext.ofToken("pat1"));
+		verify(delegate, times(2)).acquire(any());
+	}
+
+	private static PatAuthorization of(String token, Instant expiresAt) {
+		Instant now = Instant.now();
+		return PatAuthorization.builder()
+			.id("id")
+			.name("name")
+			.principal("user")
+			.scope("test")
+			.token(token)
+			.issuedAt(now)
+			.expiresAt(expiresAt)
+			.notBefore(now)
+			.build();
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+class DigestJdbcPatAuthorizationRepositoryTests extends BasePatAuthorizationRepositoryTests {
+
+	private static final String PAT_AUTHORIZATIONS_SCHEMA_SQL_RESOURCE = "/com/github/jvalkeal/secpat/pat/authorization/pat-authorization-service-digest-schema.sql";
+
+	private EmbeddedDatabase db;
+
+	private JdbcOperations jdbcOperations;
+
+	@Override
+	PatAuthorizationRepository createRepository() {
+		return new JdbcPatAuthorizationRepository(this.jdbcOperations, PatTokenDigester.sha256());
+	}
+
+	@Override
+	void doSetup() {
+		this.db = createDb(PAT_AUTHORIZATIONS_SCHEMA_SQL_RESOURCE);
+		this.jdbcOperations = new JdbcTemplate(this.db);
+	}
+
+	@Override
+	void doTearDown() {
+		this.db.shutdown();
+	}
+
+	@Test
+	void rawTokenIsNotStored() {
+		Instant now = Instant.now();
+		repository.save(PatAuthorization.builder()
+			.id("id1")
+			.name("name")
+			.principal("user1")
+			.scope("test")
+			.token("pat1234")
+			.issuedAt(now)
+			.expiresAt(now)
+			.notBefore(now)
+			.build());
+		List<String> digests = this.jdbcOperations.queryForList("SELECT token_digest FROM pat_authorizations",
+				String.class);
+		assertThat(digests).containsExactly(PatTokenDigester.sha256().digest("pat1234"));
+		assertThat(repository.findByToken("pat1234")).isNotNull();
+		assertThat(repository.findByToken(digests.get(0))).isNull();
+	}
+
+	@Test
+	void removeLoadedAuthorization() {
+		Instant now = Instant.now();
+		repository.save(PatAuthorization.builder()
+			.id("id1")
+			.name("name")
+			.principal("user1")
+			.scope("test")
+			.token("pat1234")
+			.issuedAt(now)
+			.expiresAt(now)
+			.notBefore(now)
+			.build());
+		repository.remove(repository.findById("id1"));
+		assertThat(repository.findByToken("pat1234")).isNull();
+	}
+
+	@Override
+	@Test
+	void updateLastUsedAtNeverMovesBackwards() {
+		Instant now = Instant.now();
+		repository.save(ofIssuedAt("id1", now));
+		assertThatThrownBy(() -> repository.updateLastUsedAt(Map.of("id1", now)))
+			.isInstanceOf(IllegalStateException.class);
+		assertThat(repository.findById("id1").getLastUsedAt()).isNull();
+	}
+
+	private static EmbeddedDatabase createDb(String schema) {
+		// @formatter:off
+		return new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.HSQL)
+				.setScriptEncoding("UTF-8")
+				.addScript(schema)
+				.build();
+		// @formatter:on
+	}
+
+}
@@ -16,6 +16,21 @@
 
 package com.github.jvalkeal.secpat.pat.authorization;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+
+import org.junit.jupiter.api.Test;
+
 class InMemoryPatAuthorizationRepositoryTests extends BasePatAuthorizationRepositoryTests {
 
 	@Override
@@ -31,4 +46,228 @@ class InMemoryPatAuthorizationRepositoryTests extends BasePatAuthorizationReposi
 	void doTearDown() {
 	}
 
+	@Test
+	void cantSaveWithSameIdAndIndexesAreRolledBack() {
+		repository.save(of("id1", "user1", "pat1"));
+		assertThatThrownBy(() -> {
+			repository.save(of("id1", "user2", "pat2"));
+		}).isInstanceOf(IllegalArgumentException.class);
+		assertThat(repository.findByToken("pat2")).isNull();
+		assertThat(repository.findByPrincipal("user2")).isEmpty();
+		assertThat(repository.findById("id1").getToken()).isEqualTo("pat1");
+	}
+
+	@Test
+	void removeClearsAllIndexes() {
+		PatAuthorization authorization = of("id1", "user1", "pat1");
+		repository.save(authorization);
+		repository.save(of("id2", "user1", "pat2"));
+		repository.remove(authorization);
+		assertThat(repository.findByToken("pat1")).isNull();
+		assertThat(repository.findById("id1")).isNull();
+		assertThat(repository.findByPrincipal("user1")).extracting(PatAuthorization::getId).containsExactly("id2");
+	}
+
+	@Test
+	void concurrentSaveAndRemoveLeaveNoDanglingIndexEntries() throws Exception {
+		int count = 2000;
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		CompletableFuture<Void> saver = CompletableFuture.runAsync(() -> {
+			await(barrier);
+			for (int i = 0; i < count; i++) {
+				repository.save(of("id" + i, "user1", "pat" + i));
+			}
+		});
+		CompletableFuture<Void> remover = CompletableFuture.runAsync(() -> {
+			await(barrier);
+			for (int i = 0; i < count; i++) {
+				repository.remove(of("id" + i, "user1", "pat" + i));
+			}
+		});
+		CompletableFuture.allOf(saver, remover).get();
+
+		for (int i = 0; i < count; i++) {
+			PatAuthorization byToken = repository.findByToken("pat" + i);
+			assertThat(repository.findById("id" + i)).isSameAs(byToken);
+			if (byToken != null) {
+				repository.remove(byToken);
+			}
+		}
+		assertThat(repository.findByPrincipal("user1")).isEmpty();
+	}
+
+	@Test
+	void concurrentUpdateLastUsedAtNeverRestoresRemovedAuthorizations() throws Exception {
+		int count = 2000;
+		CyclicBarrier barrier = new CyclicBarrier(3);
+		CompletableFuture<Void> saver = CompletableFuture.runAsync(() -> {
+			await(barrier);
+			for (int i = 0; i < count; i++) {
+				repository.save(of("id" + i, "user1", "pat" + i));
+			}
+		});
+		CompletableFuture<Void> remover = CompletableFuture.runAsync(() -> {
+			await(barrier);
+			for (int i = 0; i < count; i++) {
+				repository.remove(of("id" + i, "user1", "pat" + i));
+			}
+		});
+		CompletableFuture<Void> updater = CompletableFuture.runAsync(() -> {
+			await(barrier);
+			Instant now = Instant.now();
+			for (int i = 0; i < count; i++) {
+				repository.updateLastUsedAt(Map.of("id" + i, now.plusMillis(i)));
+			}
+		});
+		CompletableFuture.allOf(saver, remover, updater).get();
+
+		List<PatAuthorization> byPrincipal = repository.findByPrincipal("user1");
+		for (int i = 0; i < count; i++) {
+			PatAuthorization byToken = repository.findByToken("pat" + i);
+			assertThat(repository.findById("id" + i)).isSameAs(byToken);
+			if (byToken != null) {
+				assertThat(byPrincipal).containsOnlyOnce(byToken);
+				repository.remove(byToken);
+			}
+		}
+		assertThat(repository.findByPrincipal("user1")).isEmpty();
+	}
+
+	@Test
+	void saveAllKeepsNothingIfOneFails() {
+		repository.save(of("id3", "user1", "pat3"));
+		assertThatThrownBy(() -> {
+			repository.saveAll(List.of(of("id1", "user1", "pat1"), of("id2", "user1", "pat2"),
+					of("id4", "user1", "pat3")));
+		}).isInstanceOf(IllegalArgumentException.class);
+		assertThat(repository.findById("id1")).isNull();
+		assertThat(repository.findByToken("pat2")).isNull();
+		assertThat(repository.findByPrincipal("user1")).extracting(PatAuthorization::getId).containsExactly("id3");
+	}
+
+	@Test
+	void saveAllRollbackPublishesNoEvents() {
+		InMemoryPatAuthorizationRepository repository = new InMemoryPatAuthorizationRepository();
+		List<Object> events = new ArrayList<>();
+		repository.setApplicationEventPublisher(events::add);
+		repository.save(of("id2", "user1", "pat2"));
+		assertThatThrownBy(() -> {
+			repository.saveAll(List.of(of("id1", "user1", "pat1"), of("id3", "user1", "pat2")));
+		}).isInstanceOf(IllegalArgumentException.class);
+		assertThat(repository.findByToken("pat1")).isNull();
+		assertThat(repository.findById("id2")).isNotNull();
+		assertThat(events).isEmpty();
+	}
+
+	@Test
+	void removeByPrincipalPublishesSingleEvent() {
+		InMemoryPatAuthorizationRepository repository = new InMemoryPatAuthorizationRepository();
+		List<Object> events = new ArrayList<>();
+		repository.setApplicationEventPublisher(events::add);
+		repository.save(of("id1", "user1", "pat1"));
+		repository.save(of("id2", "user1", "pat2"));
+		repository.save(of("id3", "user2", "pat3"));
+		assertThat(repository.removeByPrincipal("user1")).isEqualTo(2);
+		assertThat(repository.findByToken("pat1")).isNull();
+		assertThat(repository.findById("id2")).isNull();
+		assertThat(repository.findByToken("pat3")).isNotNull();
+		assertThat(events).singleElement().isInstanceOfSatisfying(PatAuthorizationsRevokedEvent.class, (event) -> {
+			assertThat(event.getPrincipal()).isEqualTo("user1");
+			assertThat(event.getCount()).isEqualTo(2);
+		});
+	}
+
+	@Test
+	void removeExpiredFollowsExpiryAcrossWheelLevels() {
+		Instant now = Instant.parse("2025-06-01T00:00:00Z");
+		InMemoryPatAuthorizationRepository repository = new InMemoryPatAuthorizationRepository(
+				Clock.fixed(now, ZoneOffset.UTC));
+		repository.save(of("id1", "user1", "pat1", now.plusSeconds(10)));
+		repository.save(of("id2", "user1", "pat2", now.plus(Duration.ofHours(2))));
+		repository.save(of("id3", "user1", "pat3", now.plus(Duration.ofDays(30))));
+		repository.save(of("id4", "user1", "pat4", now.plus(Duration.ofDays(400))));
+		repository.save(of("id5", "user1", "pat5", now.plusSeconds(10)));
+		repository.remove(repository.findById("id5"));
+
+		assertThat(repository.removeExpired(now.plusSeconds(11), 10)).isEqualTo(1);
+		assertThat(repository.findById("id1")).isNull();
+		assertThat(repository.removeExpired(now.plus(Duration.ofHours(1)), 10)).isZero();
+		assertThat(repository.removeExpired(now.plus(Duration.ofHours(2)).plusMillis(1), 10)).isEqualTo(1);
+		assertThat(repository.removeExpired(now.plus(Duration.ofDays(29)), 10)).isZero();
+		assertThat(repository.removeExpired(now.plus(Duration.ofDays(31)), 10)).isEqualTo(1);
+		assertThat(repository.removeExpired(now.plus(Duration.ofDays(200)), 10)).isZero();
+		assertThat(repository.removeExpired(now.plus(Duration.ofDays(399)), 10)).isZero();
+		assertThat(repository.findById("id4")).isNotNull();
+		assertThat(repository.removeExpired(now.plus(Duration.ofDays(401)), 10)).isEqualTo(1);
+		assertThat(repository.findByPrincipal("user1")).isEmpty();
+	}
+
+	@Test
+	void removeExpiredComparesExactTimesWithinTick() {
+		Instant now = Instant.parse("2025-06-01T00:00:00Z");
+		InMemoryPatAuthorizationRepository repository = new InMemoryPatAuthorizationRepository(
+				Clock.fixed(now, ZoneOffset.UTC));
+		repository.save(of("id1", "user1", "pat1", now.plusMillis(10200)));
+		repository.save(of("id2", "user1", "pat2", now.plusMillis(10600)));
+
+		assertThat(repository.removeExpired(now.plusMillis(10200), 10)).isZero();
+		assertThat(repository.removeExpired(now.plusMillis(10400), 10)).isEqualTo(1);
+		assertThat(repository.findById("id1")).isNull();
+		assertThat(repository.findById("id2")).isNotNull();
+		assertThat(repository.removeExpired(now.plusMillis(10601), 10)).isEqualTo(1);
+		assertThat(repository.findByPrincipal("user1")).isEmpty();
+	}
+
+	@Test
+	void startedRepositoryEvictsExpired() {
+		Instant now = Instant.parse("2025-06-01T00:00:00Z");
+		InMemoryPatAuthorizationRepository repository = new InMemoryPatAuthorizationRepository(
+				Clock.fixed(now, ZoneOffset.UTC));
+		repository.save(of("id1", "user1", "pat1", now.minusSeconds(1)));
+		repository.save(of("id2", "user1", "pat2", now.plus(Duration.ofHours(1))));
+		repository.start();
+		assertThat(repository.isRunning()).isFalse();
+
+		repository.setEvictionInterval(Duration.ofMinutes(1));
+		repository.start();
+		try {
+			assertThat(repository.isRunning()).isTrue();
+			assertThat(repository.findByToken("pat1")).isNull();
+			assertThat(repository.findByToken("pat2")).isNotNull();
+			assertThat(repository.findByPrincipal("user1")).extracting(PatAuthorization::getId)
+				.containsExactly("id2");
+		}
+		finally {
+			repository.stop();
+		}
+		assertThat(repository.isRunning()).isFalse();
+	}
+
+	private static void await(CyclicBarrier barrier) {
+		try {
+			barrier.await();
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static PatAuthorization of(String id, String principal, String token) {
+		return of(id, principal, token, Instant.now());
+	}
+
+	private static PatAuthorization of(String id, String principal, String token, Instant expiresAt) {
+		Instant issuedAt = expiresAt.minus(Duration.ofDays(1));
+		return PatAuthorization.builder()
+			.id(id)
+			.name("name")
+			.principal(principal)
+			.scope("test")
+			.token(token)
+			.issuedAt(issuedAt)
+			.expiresAt(expiresAt)
+			.notBefore(issuedAt)
+			.build();
+	}
+
 }
@@ -16,6 +16,13 @@
 
 package com.github.jvalkeal.secpat.pat.authorization;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
@@ -46,6 +53,16 @@ class JdbcPatAuthorizationRepositoryTests extends BasePatAuthorizationRepository
 	void doTearDown() {
 	}
 
+	@Override
+	@Test
+	void updateLastUsedAtNeverMovesBackwards() {
+		Instant now = Instant.now();
+		repository.save(ofIssuedAt("id1", now));
+		assertThatThrownBy(() -> repository.updateLastUsedAt(Map.of("id1", now)))
+			.isInstanceOf(IllegalStateException.class);
+		assertThat(repository.findById("id1").getLastUsedAt()).isNull();
+	}
+
 	private static EmbeddedDatabase createDb(String schema) {
 		// @formatter:off
 		return new EmbeddedDatabaseBuilder()
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+class PatAuthorizationPurgerTests {
+
+	private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+	@Test
+	void purgesExpiredAfterGracePeriodInChunks() {
+		InMemoryPatAuthorizationRepository repository = new InMemoryPatAuthorizationRepository();
+		for (int i = 0; i < 5; i++) {
+			repository.save(of("expired" + i, NOW.minus(Duration.ofDays(2))));
+		}
+		repository.save(of("grace", NOW.minus(Duration.ofHours(1))));
+		repository.save(of("valid", NOW.plus(Duration.ofDays(1))));
+		PatAuthorizationPurger purger = new PatAuthorizationPurger(repository);
+		purger.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+		purger.setGracePeriod(Duration.ofDays(1));
+		purger.setChunkSize(2);
+
+		assertThat(purger.purge()).isEqualTo(5);
+		assertThat(purger.purge()).isEqualTo(0);
+		assertThat(repository.findById("grace")).isNotNull();
+		assertThat(repository.findById("valid")).isNotNull();
+	}
+
+	@Test
+	void lifecycleStartsAndStops() {
+		PatAuthorizationPurger purger = new PatAuthorizationPurger(new InMemoryPatAuthorizationRepository());
+		purger.start();
+		assertThat(purger.isRunning()).isTrue();
+		purger.stop();
+		assertThat(purger.isRunning()).isFalse();
+	}
+
+	private static PatAuthorization of(String id, Instant expiresAt) {
+		return PatAuthorization.builder()
+			.id(id)
+			.name("name")
+			.principal("user1")
+			.scope("test")
+			.token("token-" + id)
+			.issuedAt(expiresAt.minus(Duration.ofDays(30)))
+			.expiresAt(expiresAt)
+			.notBefore(expiresAt.minus(Duration.ofDays(30)))
+			.build();
+	}
+
+}
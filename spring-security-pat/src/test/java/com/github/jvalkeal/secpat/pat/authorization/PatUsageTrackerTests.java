@@ -0,0 +1,92 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.spy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PatUsageTrackerTests {
+
+	private static final Instant NOW = Instant.parse("2025-06-01T12:00:00.750Z");
+
+	@Test
+	void flushWritesCoalescedUsage() {
+		InMemoryPatAuthorizationRepository repository = new InMemoryPatAuthorizationRepository();
+		PatAuthorization authorization1 = of("id1");
+		PatAuthorization authorization2 = of("id2");
+		repository.saveAll(List.of(authorization1, authorization2));
+		PatUsageTracker tracker = new PatUsageTracker(repository);
+		tracker.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+
+		tracker.record(authorization1);
+		tracker.record(authorization1);
+		tracker.record(authorization2);
+		assertThat(tracker.flush()).isEqualTo(2);
+		assertThat(tracker.flush()).isZero();
+		assertThat(repository.findById("id1").getLastUsedAt()).isEqualTo(Instant.parse("2025-06-01T12:00:00Z"));
+		assertThat(repository.findById("id2").getLastUsedAt()).isEqualTo(Instant.parse("2025-06-01T12:00:00Z"));
+	}
+
+	@Test
+	void failedFlushKeepsUsage() {
+		InMemoryPatAuthorizationRepository repository = spy(new InMemoryPatAuthorizationRepository());
+		PatAuthorization authorization = of("id1");
+		repository.save(authorization);
+		PatUsageTracker tracker = new PatUsageTracker(repository);
+		tracker.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+		tracker.record(authorization);
+
+		willThrow(new IllegalStateException("down")).willCallRealMethod().given(repository).updateLastUsedAt(any());
+		assertThatThrownBy(tracker::flush).isInstanceOf(IllegalStateException.class);
+		assertThat(tracker.flush()).isEqualTo(1);
+		assertThat(repository.findById("id1").getLastUsedAt()).isNotNull();
+	}
+
+	@Test
+	void lifecycleStartsAndStops() {
+		PatUsageTracker tracker = new PatUsageTracker(new InMemoryPatAuthorizationRepository());
+		tracker.start();
+		assertThat(tracker.isRunning()).isTrue();
+		tracker.stop();
+		assertThat(tracker.isRunning()).isFalse();
+	}
+
+	private static PatAuthorization of(String id) {
+		return PatAuthorization.builder()
+			.id(id)
+			.name("name")
+			.principal("user1")
+			.scope("test")
+			.token("token-" + id)
+			.issuedAt(NOW.minus(Duration.ofDays(1)))
+			.expiresAt(NOW.plus(Duration.ofDays(1)))
+			.notBefore(NOW.minus(Duration.ofDays(1)))
+			.build();
+	}
+
+}
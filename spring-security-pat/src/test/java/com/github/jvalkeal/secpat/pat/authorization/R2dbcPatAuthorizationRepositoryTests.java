@@ -0,0 +1,140 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.test.StepVerifier;
+
+class R2dbcPatAuthorizationRepositoryTests {
+
+	private static final String PAT_AUTHORIZATIONS_SCHEMA_SQL_RESOURCE = "/com/github/jvalkeal/secpat/pat/authorization/pat-authorization-service-schema.sql";
+
+	private static final String PAT_AUTHORIZATIONS_DIGEST_SCHEMA_SQL_RESOURCE = "/com/github/jvalkeal/secpat/pat/authorization/pat-authorization-service-digest-schema.sql";
+
+	private DatabaseClient databaseClient;
+
+	@BeforeEach
+	void setup() {
+		ConnectionFactory connectionFactory = ConnectionFactories
+			.get("r2dbc:h2:mem:///" + UUID.randomUUID() + "?options=DB_CLOSE_DELAY=-1");
+		this.databaseClient = DatabaseClient.create(connectionFactory);
+	}
+
+	@Test
+	void saveAndFindById() {
+		R2dbcPatAuthorizationRepository repository = createRepository(PAT_AUTHORIZATIONS_SCHEMA_SQL_RESOURCE, null);
+		PatAuthorization authorization = of("id1", "pat1", "user1");
+		StepVerifier.create(repository.save(authorization).then(repository.findById("id1")))
+			.assertNext((pa) -> {
+				assertThat(pa.getToken()).isEqualTo("pat1");
+				assertThat(pa.getPrincipal()).isEqualTo("user1");
+				assertThat(pa.getScopes()).containsExactly("test");
+				assertThat(pa.getExpiresAt()).isEqualTo(authorization.getExpiresAt());
+			})
+			.verifyComplete();
+	}
+
+	@Test
+	void saveAndFindByToken() {
+		R2dbcPatAuthorizationRepository repository = createRepository(PAT_AUTHORIZATIONS_SCHEMA_SQL_RESOURCE, null);
+		StepVerifier.create(repository.save(of("id1", "pat1", "user1")).then(repository.findByToken("pat1")))
+			.assertNext((pa) -> assertThat(pa.getId()).isEqualTo("id1"))
+			.verifyComplete();
+		StepVerifier.create(repository.findByToken("pat2")).verifyComplete();
+	}
+
+	@Test
+	void saveAndRemove() {
+		R2dbcPatAuthorizationRepository repository = createRepository(PAT_AUTHORIZATIONS_SCHEMA_SQL_RESOURCE, null);
+		PatAuthorization authorization = of("id1", "pat1", "user1");
+		StepVerifier.create(repository.save(authorization)
+				.then(repository.remove(authorization))
+				.then(repository.findById("id1")))
+			.verifyComplete();
+	}
+
+	@Test
+	void findOnlyUserWithUserPrincipal() {
+		R2dbcPatAuthorizationRepository repository = createRepository(PAT_AUTHORIZATIONS_SCHEMA_SQL_RESOURCE, null);
+		StepVerifier.create(repository.save(of("id1", "pat1", "user1"))
+				.then(repository.save(of("id2", "pat2", "user1")))
+				.then(repository.save(of("id3", "pat3", "user2")))
+				.thenMany(repository.findByPrincipal("user1")))
+			.expectNextCount(2)
+			.verifyComplete();
+	}
+
+	@Test
+	void digestModeFindsByTokenAndRemovesById() {
+		R2dbcPatAuthorizationRepository repository = createRepository(PAT_AUTHORIZATIONS_DIGEST_SCHEMA_SQL_RESOURCE,
+				PatTokenDigester.sha256());
+		StepVerifier.create(repository.save(of("id1", "pat1", "user1")).then(repository.findByToken("pat1")))
+			.assertNext((pa) -> assertThat(pa.getToken()).isEqualTo(PatTokenDigester.sha256().digest("pat1")))
+			.verifyComplete();
+		StepVerifier.create(repository.findById("id1").flatMap(repository::remove).then(repository.findById("id1")))
+			.verifyComplete();
+	}
+
+	private R2dbcPatAuthorizationRepository createRepository(String schema, PatTokenDigester tokenDigester) {
+		for (String statement : readSchema(schema).split(";")) {
+			if (StringUtils.hasText(statement)) {
+				StepVerifier.create(this.databaseClient.sql(statement).then()).verifyComplete();
+			}
+		}
+		return new R2dbcPatAuthorizationRepository(this.databaseClient, tokenDigester);
+	}
+
+	private static String readSchema(String schema) {
+		try (InputStream in = R2dbcPatAuthorizationRepositoryTests.class.getResourceAsStream(schema)) {
+			return StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static PatAuthorization of(String id, String token, String principal) {
+		Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+		return PatAuthorization.builder()
+			.id(id)
+			.name("name")
+			.principal(principal)
+			.scope("test")
+			.token(token)
+			.issuedAt(now)
+			.expiresAt(now.plus(1, ChronoUnit.DAYS))
+			.notBefore(now)
+			.build();
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.authorization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationService.AcquireContext;
+
+class SelectorVerifierPatAuthorizationServiceTests {
+
+	private PatAuthorizationRepository repository;
+
+	private SelectorVerifierPatAuthorizationService service;
+
+	@BeforeEach
+	void setup() {
+		EmbeddedDatabase db = new EmbeddedDatabaseBuilder().generateUniqueName(true)
+			.setType(EmbeddedDatabaseType.HSQL)
+			.setScriptEncoding("UTF-8")
+			.addScript("/com/github/jvalkeal/secpat/pat/authorization/pat-authorization-service-schema.sql")
+			.build();
+		this.repository = spy(new JdbcPatAuthorizationRepository(new JdbcTemplate(db)));
+		this.service = new SelectorVerifierPatAuthorizationService(this.repository);
+	}
+
+	@Test
+	void tokenIsAcquiredWithPrimaryKeyLookup() {
+		String token = this.service.save(authorization("id1"));
+
+		assertThat(token).startsWith("id1.");
+		PatAuthorization acquired = this.service.acquire(AcquireContext.ofToken(token));
+		assertThat(acquired).isNotNull();
+		assertThat(acquired.getPrincipal()).isEqualTo("user1");
+		assertThat(acquired.getToken()).isNotEqualTo(token.substring(4));
+		verify(this.repository).findById("id1");
+		verify(this.repository, never()).findByToken(any());
+	}
+
+	@Test
+	void wrongVerifierIsNotAcquired() {
+		String token = this.service.save(authorization("id1"));
+		String other = this.service.save(authorization("id2"));
+
+		assertThat(this.service.acquire(AcquireContext.ofToken("id1." + other.substring(4)))).isNull();
+		assertThat(this.service.acquire(AcquireContext.ofToken(token + "x"))).isNull();
+		assertThat(this.service.acquire(AcquireContext.ofToken("id3." + token.substring(4)))).isNull();
+		assertThat(this.service.acquire(AcquireContext.ofToken("nodot"))).isNull();
+		assertThat(this.service.acquire(AcquireContext.ofToken("id1."))).isNull();
+	}
+
+	@Test
+	void selectorIsCreatedIfMissing() {
+		String token = this.service.save(authorization(null));
+
+		assertThat(this.service.acquire(AcquireContext.ofToken(token))).isNotNull();
+	}
+
+	private static PatAuthorization authorization(String id) {
+		Instant now = Instant.now();
+		return PatAuthorization.builder()
+			.id(id)
+			.name("name")
+			.principal("user1")
+			.scope("read")
+			.token("ignored")
+			.issuedAt(now)
+			.expiresAt(now.plus(Duration.ofHours(1)))
+			.notBefore(now)
+			.build();
+	}
+
+}
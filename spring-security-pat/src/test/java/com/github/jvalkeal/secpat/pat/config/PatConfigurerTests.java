@@ -16,6 +16,55 @@
 
 package com.github.jvalkeal.secpat.pat.config;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+
+import com.github.jvalkeal.secpat.pat.PatAuthenticationException;
+import com.github.jvalkeal.secpat.pat.authorization.InMemoryPatAuthorizationRepository;
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorization;
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationService;
+import com.github.jvalkeal.secpat.pat.authorization.RepositoryPatAuthorizationService;
+import com.github.jvalkeal.secpat.pat.introspect.PatIntrospector;
+
 class PatConfigurerTests {
 
+	@Test
+	void cachedAuthorizationsAreEvictedWhenPrincipalIsRevoked() {
+		InMemoryPatAuthorizationRepository repository = new InMemoryPatAuthorizationRepository();
+		try (GenericApplicationContext context = new GenericApplicationContext()) {
+			context.registerBean(InMemoryPatAuthorizationRepository.class, () -> repository);
+			context.registerBean(PatAuthorizationService.class, () -> new RepositoryPatAuthorizationService(repository));
+			context.refresh();
+			HttpSecurity http = mock(HttpSecurity.class);
+			given(http.getSharedObject(ApplicationContext.class)).willReturn(context);
+			PatIntrospector introspector = PatConfigurer.dsl()
+				.authorizationServiceCache((cache) -> cache.timeToLive(Duration.ofHours(1)))
+				.getIntrospector(http);
+			Instant now = Instant.now();
+			repository.save(PatAuthorization.builder()
+				.id("id1")
+				.principal("user1")
+				.scope("read")
+				.token("pat1")
+				.issuedAt(now.minus(Duration.ofHours(1)))
+				.expiresAt(now.plus(Duration.ofHours(1)))
+				.notBefore(now.minus(Duration.ofHours(1)))
+				.build());
+
+			assertThat(introspector.introspect("pat1").getName()).isEqualTo("user1");
+			assertThat(repository.removeByPrincipal("user1")).isEqualTo(1);
+			assertThatThrownBy(() -> introspector.introspect("pat1")).isInstanceOf(PatAuthenticationException.class);
+		}
+	}
+
 }
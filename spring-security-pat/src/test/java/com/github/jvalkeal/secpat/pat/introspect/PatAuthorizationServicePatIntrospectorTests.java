@@ -26,14 +26,20 @@ import java.time.Instant;
 import java.util.Collections;
 import java.util.stream.Stream;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.springframework.security.authentication.BadCredentialsException;
 
+import com.github.jvalkeal.secpat.pat.PatAuthenticationException;
+import com.github.jvalkeal.secpat.pat.PatErrorCodes;
+import com.github.jvalkeal.secpat.pat.PatObservations;
 import com.github.jvalkeal.secpat.pat.authorization.PatAuthorization;
 import com.github.jvalkeal.secpat.pat.authorization.PatAuthorizationService;
 
+import io.micrometer.observation.tck.TestObservationRegistry;
+import io.micrometer.observation.tck.TestObservationRegistryAssert;
+
 public class PatAuthorizationServicePatIntrospectorTests {
 
 	static Stream<Arguments> validateSuccess() {
@@ -74,7 +80,24 @@ public class PatAuthorizationServicePatIntrospectorTests {
 		PatAuthorization authorization = createAuthorization(issuedAt, expiresAt, notBefore);
 		assertThatThrownBy(() -> {
 			mockAndIntrospect(authorization);
-		}).isInstanceOf(BadCredentialsException.class);
+		}).isInstanceOf(PatAuthenticationException.class)
+			.extracting((ex) -> ((PatAuthenticationException) ex).getError().getErrorCode())
+			.isEqualTo(PatErrorCodes.TOKEN_EXPIRED);
+	}
+
+	@Test
+	void introspectionIsObservedWithFailureReason() {
+		TestObservationRegistry registry = TestObservationRegistry.create();
+		PatAuthorizationService service = mock(PatAuthorizationService.class);
+		PatAuthorizationServicePatIntrospector introspector = new PatAuthorizationServicePatIntrospector(service);
+		introspector.setObservationRegistry(registry);
+		assertThatThrownBy(() -> introspector.introspect("fake")).isInstanceOf(PatAuthenticationException.class);
+		TestObservationRegistryAssert.assertThat(registry)
+			.hasObservationWithNameEqualTo(PatObservations.INTROSPECT)
+			.that()
+			.hasLowCardinalityKeyValue(PatObservations.OUTCOME, PatObservations.FAILURE)
+			.hasLowCardinalityKeyValue(PatObservations.REASON, PatErrorCodes.TOKEN_NOT_FOUND)
+			.hasBeenStopped();
 	}
 
 	static PatAuthorization createAuthorization(Instant issuedAt, Instant expiresAt, Instant notBefore) {
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.introspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.github.jvalkeal.secpat.pat.PatAuthenticatedPrincipal;
+import com.github.jvalkeal.secpat.pat.PatAuthenticationException;
+import com.github.jvalkeal.secpat.pat.PatErrorCodes;
+import com.github.jvalkeal.secpat.pat.authorization.PatAuthorization;
+import com.github.jvalkeal.secpat.pat.keygen.SignedPatService;
+
+class SignedPatIntrospectorTests {
+
+	private static final byte[] SECRET = "01234567890123456789012345678901".getBytes(StandardCharsets.US_ASCII);
+
+	@Test
+	void hmacTokenIsVerifiedLocally() {
+		SignedPatService service = SignedPatService.hmac("spat", SECRET);
+		String token = service.generate(authorization(Duration.ofHours(1)));
+		SignedPatIntrospector introspector = new SignedPatIntrospector(service);
+
+		PatAuthenticatedPrincipal principal = introspector.introspect(token);
+
+		assertThat(principal.getName()).isEqualTo("user1");
+		assertThat(principal.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+			.containsExactlyInAnyOrder("read", "write");
+		assertThat(service.verify(token).getId()).isEqualTo("id1");
+	}
+
+	@Test
+	void ed25519TokenIsVerifiedWithPublicKeyOnly() throws Exception {
+		KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+		SignedPatService issuer = SignedPatService.ed25519("spat", keyPair.getPrivate(), keyPair.getPublic());
+		SignedPatService verifier = SignedPatService.ed25519("spat", null, keyPair.getPublic());
+		String token = issuer.generate(authorization(Duration.ofHours(1)));
+
+		assertThat(new SignedPatIntrospector(verifier).introspect(token).getName()).isEqualTo("user1");
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		SignedPatService service = SignedPatService.hmac("spat", SECRET);
+		String token = service.generate(authorization(Duration.ofHours(1)));
+		SignedPatService other = SignedPatService.hmac("spat",
+				"abcdefghijabcdefghijabcdefghijab".getBytes(StandardCharsets.US_ASCII));
+
+		assertThatThrownBy(() -> new SignedPatIntrospector(other).introspect(token))
+			.isInstanceOfSatisfying(PatAuthenticationException.class, (ex) -> assertThat(ex.getError().getErrorCode())
+				.isEqualTo(PatErrorCodes.TOKEN_INVALID_SIGNATURE));
+		assertThat(service.verify(token.substring(0, token.length() - 2))).isNull();
+	}
+
+	@Test
+	void nonCanonicalSignatureIsRejected() {
+		SignedPatService service = SignedPatService.hmac("spat", SECRET);
+		String token = service.generate(authorization(Duration.ofHours(1)));
+		// last character of a 32 byte signature carries two unused bits
+		String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+		char last = token.charAt(token.length() - 1);
+		String unusedBits = token.substring(0, token.length() - 1) + alphabet.charAt(alphabet.indexOf(last) | 1);
+		String padded = token + "=";
+
+		assertThat(unusedBits).isNotEqualTo(token);
+		assertThat(service.verify(unusedBits)).isNull();
+		assertThat(service.verify(padded)).isNull();
+		assertThatThrownBy(() -> new SignedPatIntrospector(service).introspect(unusedBits))
+			.isInstanceOfSatisfying(PatAuthenticationException.class, (ex) -> assertThat(ex.getError().getErrorCode())
+				.isEqualTo(PatErrorCodes.TOKEN_INVALID_SIGNATURE));
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		SignedPatService service = SignedPatService.hmac("spat", SECRET);
+		String token = service.generate(authorization(Duration.ofHours(-1)));
+
+		assertThatThrownBy(() -> new SignedPatIntrospector(service).introspect(token))
+			.isInstanceOfSatisfying(PatAuthenticationException.class,
+					(ex) -> assertThat(ex.getError().getErrorCode()).isEqualTo(PatErrorCodes.TOKEN_EXPIRED));
+	}
+
+	@Test
+	void revokedTokenIsRejected() {
+		SignedPatService service = SignedPatService.hmac("spat", SECRET);
+		String token = service.generate(authorization(Duration.ofHours(1)));
+		SignedPatIntrospector introspector = new SignedPatIntrospector(service);
+		introspector.setRevocationCheck((authorization) -> "id1".equals(authorization.getId()));
+
+		assertThatThrownBy(() -> introspector.introspect(token))
+			.isInstanceOfSatisfying(PatAuthenticationException.class,
+					(ex) -> assertThat(ex.getError().getErrorCode()).isEqualTo(PatErrorCodes.TOKEN_REVOKED));
+	}
+
+	@Test
+	void opaqueTokenIsDelegatedToFallback() {
+		PatIntrospector fallback = mock(PatIntrospector.class);
+		PatAuthenticatedPrincipal principal = PatAuthenticatedPrincipal.of("user2", null);
+		given(fallback.introspect("opaque")).willReturn(principal);
+		SignedPatIntrospector introspector = new SignedPatIntrospector(SignedPatService.hmac("spat", SECRET));
+		introspector.setFallback(fallback);
+
+		assertThat(introspector.introspect("opaque")).isSameAs(principal);
+	}
+
+	private static PatAuthorization authorization(Duration expiresIn) {
+		Instant now = Instant.now();
+		return PatAuthorization.builder()
+			.id("id1")
+			.principal("user1")
+			.scope("read", "write")
+			.token("unused")
+			.issuedAt(now.minus(Duration.ofHours(2)))
+			.expiresAt(now.plus(expiresIn))
+			.notBefore(now.minus(Duration.ofHours(2)))
+			.build();
+	}
+
+}
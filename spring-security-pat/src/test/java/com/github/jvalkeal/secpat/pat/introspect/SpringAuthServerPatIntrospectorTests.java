@@ -0,0 +1,190 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.introspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestOperations;
+
+import com.github.jvalkeal.secpat.pat.PatAuthenticationException;
+
+class SpringAuthServerPatIntrospectorTests {
+
+	private final RestOperations restOperations = mock(RestOperations.class);
+
+	@Test
+	void activeResultIsNotCachedByDefault() {
+		mockResponse(true, Instant.now().plus(Duration.ofHours(1)));
+		SpringAuthServerPatIntrospector introspector = new SpringAuthServerPatIntrospector("http://localhost",
+				restOperations);
+		introspector.introspect("pat1");
+		introspector.introspect("pat1");
+		verifyRequests(2);
+	}
+
+	@Test
+	void activeResultIsCached() {
+		mockResponse(true, Instant.now().plus(Duration.ofHours(1)));
+		SpringAuthServerPatIntrospector introspector = new SpringAuthServerPatIntrospector("http://localhost",
+				restOperations);
+		introspector.setCache(100, Duration.ofMinutes(5), Duration.ZERO);
+		assertThat(introspector.introspect("pat1").getName()).isEqualTo("user1");
+		assertThat(introspector.introspect("pat1").getName()).isEqualTo("user1");
+		verifyRequests(1);
+	}
+
+	@Test
+	void expiredResultIsNotCached() {
+		mockResponse(true, Instant.now().minus(Duration.ofHours(1)));
+		SpringAuthServerPatIntrospector introspector = new SpringAuthServerPatIntrospector("http://localhost",
+				restOperations);
+		introspector.setCache(100, Duration.ofMinutes(5), Duration.ZERO);
+		introspector.introspect("pat1");
+		introspector.introspect("pat1");
+		verifyRequests(2);
+	}
+
+	@Test
+	void inactiveResultIsCachedWithOwnTimeToLive() {
+		mockResponse(false, null);
+		SpringAuthServerPatIntrospector introspector = new SpringAuthServerPatIntrospector("http://localhost",
+				restOperations);
+		introspector.setCache(100, Duration.ofMinutes(5), Duration.ofMinutes(1));
+		assertThatThrownBy(() -> introspector.introspect("pat1")).isInstanceOf(PatAuthenticationException.class);
+		assertThatThrownBy(() -> introspector.introspect("pat1")).isInstanceOf(PatAuthenticationException.class);
+		verifyRequests(1);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void slowIntrospectionDoesNotBlockOtherTokens() throws Exception {
+		CountDownLatch slowStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		given(restOperations.exchange(any(RequestEntity.class), any(ParameterizedTypeReference.class)))
+			.willAnswer((invocation) -> {
+				RequestEntity<MultiValueMap<String, String>> request = invocation.getArgument(0);
+				if (request.getBody().getFirst("token").equals("slow")) {
+					slowStarted.countDown();
+					release.await(10, TimeUnit.SECONDS);
+				}
+				Map<String, Object> claims = new HashMap<>();
+				claims.put(PatTokenIntrospectionClaimNames.ACTIVE, true);
+				claims.put(PatTokenIntrospectionClaimNames.USERNAME, "user1");
+				return ResponseEntity.ok(claims);
+			});
+		SpringAuthServerPatIntrospector introspector = new SpringAuthServerPatIntrospector("http://localhost",
+				restOperations);
+		introspector.setCache(100, Duration.ofMinutes(5), Duration.ZERO);
+		CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> introspector.introspect("slow").getName());
+		assertThat(slowStarted.await(10, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<String> waiting = CompletableFuture
+			.supplyAsync(() -> introspector.introspect("slow").getName());
+		assertThat(introspector.introspect("fast").getName()).isEqualTo("user1");
+		assertThat(slow).isNotDone();
+		release.countDown();
+		assertThat(slow.get(10, TimeUnit.SECONDS)).isEqualTo("user1");
+		assertThat(waiting.get(10, TimeUnit.SECONDS)).isEqualTo("user1");
+		verifyRequests(2);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void concurrentTokensAreBatched() {
+		given(restOperations.exchange(any(RequestEntity.class), any(ParameterizedTypeReference.class)))
+			.willAnswer((invocation) -> {
+				RequestEntity<MultiValueMap<String, String>> request = invocation.getArgument(0);
+				List<Map<String, Object>> claims = request.getBody().get("token").stream().map((token) -> {
+					Map<String, Object> tokenClaims = new HashMap<>();
+					tokenClaims.put(PatTokenIntrospectionClaimNames.ACTIVE, token.equals("pat1"));
+					tokenClaims.put(PatTokenIntrospectionClaimNames.USERNAME, "user1");
+					return tokenClaims;
+				}).toList();
+				return ResponseEntity.ok(claims);
+			});
+		SpringAuthServerPatIntrospector introspector = new SpringAuthServerPatIntrospector("http://localhost",
+				restOperations);
+		introspector.setBatching("http://localhost/batch", Duration.ofSeconds(10), 2);
+		CompletableFuture<String> active = CompletableFuture
+			.supplyAsync(() -> introspector.introspect("pat1").getName());
+		CompletableFuture<String> inactive = CompletableFuture
+			.supplyAsync(() -> introspector.introspect("pat2").getName());
+		assertThat(active.join()).isEqualTo("user1");
+		assertThatThrownBy(inactive::join).hasCauseInstanceOf(PatAuthenticationException.class);
+		verifyRequests(1);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void errorInBatchCompletesAllCallers() {
+		given(restOperations.exchange(any(RequestEntity.class), any(ParameterizedTypeReference.class)))
+			.willThrow(new LinkageError("boom"));
+		SpringAuthServerPatIntrospector introspector = new SpringAuthServerPatIntrospector("http://localhost",
+				restOperations);
+		introspector.setBatching("http://localhost/batch", Duration.ofSeconds(10), 2);
+		CompletableFuture<String> first = CompletableFuture
+			.supplyAsync(() -> introspector.introspect("pat1").getName());
+		CompletableFuture<String> second = CompletableFuture
+			.supplyAsync(() -> introspector.introspect("pat2").getName());
+		assertThat(first).failsWithin(Duration.ofSeconds(10))
+			.withThrowableThat()
+			.withCauseInstanceOf(LinkageError.class);
+		assertThat(second).failsWithin(Duration.ofSeconds(10))
+			.withThrowableThat()
+			.withCauseInstanceOf(LinkageError.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void mockResponse(boolean active, Instant expiresAt) {
+		given(restOperations.exchange(any(RequestEntity.class), any(ParameterizedTypeReference.class)))
+			.willAnswer((invocation) -> {
+				Map<String, Object> claims = new HashMap<>();
+				claims.put(PatTokenIntrospectionClaimNames.ACTIVE, active);
+				if (active) {
+					claims.put(PatTokenIntrospectionClaimNames.USERNAME, "user1");
+					claims.put(PatTokenIntrospectionClaimNames.SCOPE, "read write");
+					claims.put(PatTokenIntrospectionClaimNames.EXP, expiresAt.getEpochSecond());
+				}
+				return ResponseEntity.ok(claims);
+			});
+	}
+
+	@SuppressWarnings("unchecked")
+	private void verifyRequests(int count) {
+		verify(restOperations, times(count)).exchange(any(RequestEntity.class), any(ParameterizedTypeReference.class));
+	}
+
+}
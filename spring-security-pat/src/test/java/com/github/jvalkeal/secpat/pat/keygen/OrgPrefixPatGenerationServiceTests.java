@@ -16,6 +16,11 @@
 package com.github.jvalkeal.secpat.pat.keygen;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -50,6 +55,73 @@ public class OrgPrefixPatGenerationServiceTests {
 		assertThat(service.validate("org_type_3lModz_x")).isFalse();
 	}
 
+	@Test
+	void willValidateVersionedTokens() {
+		OrgPrefixPatGenerationService v1 = new OrgPrefixPatGenerationService("org", "type", 51, "v1");
+		OrgPrefixPatGenerationService v2 = new OrgPrefixPatGenerationService("org", "type", 51, "v2");
+		String token = v1.generate(null);
+		assertThat(token).endsWith("_v1");
+		assertThat(v1.validate(token)).isTrue();
+		assertThat(v2.validate(token)).isFalse();
+		assertThat(service.validate(token)).isFalse();
+	}
+
+	@Test
+	void canGenerateAndValidateWithCrc32c() {
+		OrgPrefixPatGenerationService crc32c = new OrgPrefixPatGenerationService("org", "type", 51, null,
+				PatTokenCodec.Checksum.CRC32C);
+		String token = crc32c.generate(null);
+		assertThat(crc32c.validate(token)).isTrue();
+		assertThat(service.validate(token)).isFalse();
+	}
+
+	@Test
+	void willNotValidateTamperedTokens() {
+		String token = service.generate(null);
+		char last = token.charAt(token.length() - 1);
+		String tampered = token.substring(0, token.length() - 1) + (last == 'a' ? 'b' : 'a');
+		assertThat(service.validate(tampered)).isFalse();
+		assertThat(service.validate(token + "a")).isFalse();
+		assertThat(service.validate("x" + token)).isFalse();
+	}
+
+	@Test
+	void canGenerateBatch() {
+		List<String> tokens = service.generateBatch(null, 100);
+		assertThat(tokens).hasSize(100).doesNotHaveDuplicates().allMatch(service::validate);
+		assertThat(service.generator().generateBatch(null, 10)).hasSize(10).allMatch(service::validate);
+	}
+
+	@Test
+	void codecGeneratesBatchLargerThanOneRandomDraw() {
+		PatTokenCodec codec = new PatTokenCodec("org", "type", 51, null, PatTokenCodec.Checksum.CRC32);
+		List<String> tokens = codec.generate(2000);
+		assertThat(tokens).hasSize(2000).doesNotHaveDuplicates().allMatch(codec::matches);
+		assertThat(codec.generate(0)).isEmpty();
+		assertThatThrownBy(() -> codec.generate(-1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void randomBytesOutsideBase62AreRejected() {
+		PatTokenCodec codec = new PatTokenCodec("org", "type", 51, null, PatTokenCodec.Checksum.CRC32);
+		long[] values = { 0x3E3F3E3F3E3F3E3FL, 0x0101010101010101L };
+		AtomicInteger calls = new AtomicInteger();
+		RandomGenerator random = () -> values[calls.getAndIncrement() % values.length];
+		String token = codec.generate(random);
+		assertThat(token).endsWith("_" + "1".repeat(51));
+		assertThat(codec.matches(token)).isTrue();
+	}
+
+	@Test
+	void uuidMatcherMatchesOnlyCanonicalUuids() {
+		PatMatcher matcher = new UUIDPatService().matcher();
+		assertThat(matcher.matches("123e4567-e89b-12d3-a456-426614174000")).isTrue();
+		assertThat(matcher.matches("123E4567-E89B-12D3-A456-426614174000")).isTrue();
+		assertThat(matcher.matches("123e4567-e89b-12d3-a456-42661417400g")).isFalse();
+		assertThat(matcher.matches("123e4567e89b-12d3-a456-4266141740000")).isFalse();
+		assertThat(matcher.matches(null)).isFalse();
+	}
+
 	@Test
 	void willValidatePossiblyValidTokens() {
 		assertThat(service.validate("org_type_3lModz_IvL5Cyh2SR1tXrbOlfPqPU01JIgjETjNY7iqXdEJdcUto4n3BpZ")).isTrue();
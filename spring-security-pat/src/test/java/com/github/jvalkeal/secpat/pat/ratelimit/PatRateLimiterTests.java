@@ -0,0 +1,107 @@
+/*
+ * Copyright 2025-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jvalkeal.secpat.pat.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class PatRateLimiterTests {
+
+	@Test
+	void burstThenRefillsLazily() {
+		MutableClock clock = new MutableClock();
+		PatRateLimiter limiter = PatRateLimiter.builder(PatRateLimit.of(2, Duration.ofSeconds(1)))
+			.clock(clock)
+			.build();
+
+		assertThat(limiter.tryAcquire("token1", List.of())).isZero();
+		assertThat(limiter.tryAcquire("token1", List.of())).isZero();
+		assertThat(limiter.tryAcquire("token1", List.of())).isEqualTo(Duration.ofMillis(500));
+		assertThat(limiter.tryAcquire("token2", List.of())).isZero();
+
+		clock.advance(Duration.ofMillis(500));
+		assertThat(limiter.tryAcquire("token1", List.of())).isZero();
+		assertThat(limiter.tryAcquire("token1", List.of())).isPositive();
+	}
+
+	@Test
+	void burstLimitsIdleAccumulation() {
+		MutableClock clock = new MutableClock();
+		PatRateLimiter limiter = PatRateLimiter.builder(PatRateLimit.of(10, Duration.ofSeconds(1)).withBurst(1))
+			.clock(clock)
+			.build();
+
+		assertThat(limiter.tryAcquire("token", List.of())).isZero();
+		clock.advance(Duration.ofSeconds(5));
+		assertThat(limiter.tryAcquire("token", List.of())).isZero();
+		assertThat(limiter.tryAcquire("token", List.of())).isEqualTo(Duration.ofMillis(100));
+	}
+
+	@Test
+	void mostGenerousScopeLimitIsUsed() {
+		MutableClock clock = new MutableClock();
+		PatRateLimiter limiter = PatRateLimiter.builder(PatRateLimit.of(1, Duration.ofMinutes(1)))
+			.scopeLimit("read", PatRateLimit.of(2, Duration.ofMinutes(1)))
+			.scopeLimit("batch", PatRateLimit.of(3, Duration.ofMinutes(1)))
+			.clock(clock)
+			.build();
+		List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("read"),
+				new SimpleGrantedAuthority("batch"));
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(limiter.tryAcquire("scoped", authorities)).isZero();
+		}
+		assertThat(limiter.tryAcquire("scoped", authorities)).isPositive();
+		assertThat(limiter.tryAcquire("unscoped", List.of(new SimpleGrantedAuthority("write")))).isZero();
+		assertThat(limiter.tryAcquire("unscoped", List.of(new SimpleGrantedAuthority("write")))).isPositive();
+	}
+
+	private static class MutableClock extends Clock {
+
+		private Instant instant = Instant.parse("2025-06-01T12:00:00Z");
+
+		void advance(Duration duration) {
+			this.instant = this.instant.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return this.instant;
+		}
+
+	}
+
+}